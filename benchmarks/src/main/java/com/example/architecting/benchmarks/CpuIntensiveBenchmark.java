@@ -0,0 +1,77 @@
+package com.example.architecting.benchmarks;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.architecting.cpu.CpuIntensiveDemo;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * JMH version of {@link CpuIntensiveDemo}: the same batch of Fibonacci tasks on a
+ * ForkJoinPool, virtual threads and a fixed platform pool.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class CpuIntensiveBenchmark {
+
+    public enum ExecutorKind {
+        FORK_JOIN, VIRTUAL, FIXED
+    }
+
+    @Param
+    private ExecutorKind executorKind;
+
+    @Param({ "100" })
+    private int taskCount;
+
+    @Param({ "25", "30" })
+    private int fibNumber;
+
+    /** Fixed pool size; 0 means one thread per available processor. */
+    @Param({ "0" })
+    private int poolSize;
+
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        executor = switch (executorKind) {
+            case FORK_JOIN -> ForkJoinPool.commonPool();
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+            case FIXED -> Executors.newFixedThreadPool(threads);
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (executor != ForkJoinPool.commonPool()) {
+            executor.close();
+        }
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult fibonacciBatch() throws InterruptedException, ExecutionException {
+        return CpuIntensiveDemo.runDemo(executorKind.name(), executor, taskCount, fibNumber);
+    }
+}
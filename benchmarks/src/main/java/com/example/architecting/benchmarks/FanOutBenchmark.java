@@ -0,0 +1,77 @@
+package com.example.architecting.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.architecting.assignments.StructuredConcurrencyDemo;
+import com.example.architecting.cache.SingleFlightCache;
+import com.example.architecting.structured.FanOutEngine;
+
+/**
+ * Dashboard latency with jittered, long-tailed fetches: sequential vs structured fan-out vs
+ * fan-out with hedging. Compare the {@code p0.99}/{@code p0.999} rows of the SampleTime output;
+ * the hedge delay is learned from the fetch latencies during warmup.
+ * <p>
+ * {@code CACHED} is the hedged fan-out behind a {@link SingleFlightCache} per service, with
+ * dashboards spread over {@value #CACHED_USERS} users so that entries expire and concurrent
+ * misses coalesce; its cache statistics are printed at the end of each trial.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@Threads(16)
+@State(Scope.Benchmark)
+public class FanOutBenchmark {
+
+    public enum Strategy {
+        SEQUENTIAL, PARALLEL, HEDGED, CACHED
+    }
+
+    private static final int CACHED_USERS = 100;
+    private static final SingleFlightCache.Config CACHE = SingleFlightCache.Config.of(1_000, Duration.ofMillis(500));
+
+    @Param
+    private Strategy strategy;
+
+    private StructuredConcurrencyDemo demo;
+
+    @Setup
+    public void setUp() {
+        FanOutEngine engine = new FanOutEngine(Duration.ofMillis(250));
+        demo = strategy == Strategy.CACHED
+                ? new StructuredConcurrencyDemo(engine, true, CACHE)
+                : new StructuredConcurrencyDemo(engine, strategy == Strategy.HEDGED);
+    }
+
+    @TearDown
+    public void tearDown() {
+        demo.cacheStats().forEach(System.out::println);
+    }
+
+    @Benchmark
+    public StructuredConcurrencyDemo.Dashboard dashboard() throws InterruptedException {
+        return switch (strategy) {
+            case SEQUENTIAL -> demo.buildUserDashboardSequential("42");
+            case PARALLEL, HEDGED -> demo.buildUserDashboard("42");
+            case CACHED -> demo.buildUserDashboard(
+                    String.valueOf(ThreadLocalRandom.current().nextInt(CACHED_USERS)));
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.architecting.benchmarks;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.architecting.cpu.CpuIntensiveDemo;
+import com.example.architecting.cpu.FibonacciStrategy;
+import com.example.architecting.cpu.ForkJoinFibonacci;
+import com.example.architecting.cpu.IterativeFibonacci;
+import com.example.architecting.cpu.MatrixFibonacci;
+import com.example.architecting.cpu.NaiveFibonacci;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * Fibonacci strategies on platform pools vs virtual threads. {@code requests = 1} isolates work
+ * splitting inside one request; larger values add cross-request parallelism.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class FibonacciStrategyBenchmark {
+
+    public enum StrategyKind {
+        NAIVE, FORK_JOIN, ITERATIVE, MATRIX
+    }
+
+    public enum ExecutorKind {
+        FIXED, VIRTUAL
+    }
+
+    @Param
+    private StrategyKind strategyKind;
+
+    @Param
+    private ExecutorKind executorKind;
+
+    @Param({ "1", "16" })
+    private int requests;
+
+    @Param({ "32" })
+    private int fibNumber;
+
+    @Param({ "" + ForkJoinFibonacci.DEFAULT_THRESHOLD })
+    private int sequentialThreshold;
+
+    private ForkJoinPool splitPool;
+    private ExecutorService executor;
+    private FibonacciStrategy strategy;
+
+    @Setup
+    public void setUp() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        splitPool = new ForkJoinPool(cpus);
+        strategy = switch (strategyKind) {
+            case NAIVE -> new NaiveFibonacci();
+            case FORK_JOIN -> new ForkJoinFibonacci(splitPool, sequentialThreshold);
+            case ITERATIVE -> new IterativeFibonacci();
+            case MATRIX -> new MatrixFibonacci();
+        };
+        executor = switch (executorKind) {
+            case FIXED -> Executors.newFixedThreadPool(cpus);
+            case VIRTUAL -> Executors.newVirtualThreadPerTaskExecutor();
+        };
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.close();
+        splitPool.close();
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult fibonacci() throws InterruptedException, ExecutionException {
+        return CpuIntensiveDemo.runDemo(strategy.name(), executor, requests, fibNumber, strategy);
+    }
+}
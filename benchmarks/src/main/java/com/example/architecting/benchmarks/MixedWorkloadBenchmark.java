@@ -0,0 +1,89 @@
+package com.example.architecting.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.architecting.cpu.BatchingOffloadExecutor;
+import com.example.architecting.cpu.MixedWorkloadDemo;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * JMH version of {@link MixedWorkloadDemo}: I/O -> Fib -> I/O either fully on virtual
+ * threads, with the CPU step offloaded to a platform pool per call, or offloaded in batches.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class MixedWorkloadBenchmark {
+
+    @Param({ "1000" })
+    private int taskCount;
+
+    @Param({ "10" })
+    private long ioMillis;
+
+    @Param({ "15", "20", "25" })
+    private int fibNumber;
+
+    /** Offload pool size; 0 means one thread per available processor. */
+    @Param({ "0" })
+    private int poolSize;
+
+    @Param({ "256" })
+    private int maxBatchSize;
+
+    private Duration ioDuration;
+    private ExecutorService cpuPool;
+    private ForkJoinPool batchPool;
+    private BatchingOffloadExecutor batchingOffload;
+
+    @Setup
+    public void setUp() {
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        ioDuration = Duration.ofMillis(ioMillis);
+        cpuPool = Executors.newFixedThreadPool(threads);
+        batchPool = new ForkJoinPool(threads);
+        batchingOffload = new BatchingOffloadExecutor(batchPool, maxBatchSize);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cpuPool.close();
+        batchPool.close();
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult pureVirtual() throws InterruptedException, ExecutionException {
+        return MixedWorkloadDemo.runPureVirtual(taskCount, ioDuration, fibNumber);
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult offloaded() throws InterruptedException, ExecutionException {
+        return MixedWorkloadDemo.runOffloaded(taskCount, ioDuration, fibNumber, cpuPool);
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult batchedOffload() throws InterruptedException, ExecutionException {
+        return MixedWorkloadDemo.runBatchedOffload(taskCount, ioDuration, fibNumber, batchingOffload);
+    }
+}
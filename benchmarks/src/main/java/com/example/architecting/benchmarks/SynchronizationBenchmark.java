@@ -0,0 +1,70 @@
+package com.example.architecting.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.architecting.throughput.SynchronizationDemo;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * JMH version of the {@link SynchronizationDemo} locking strategy comparison.
+ * One operation is one full batch of {@code taskCount} tasks.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class SynchronizationBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int taskCount;
+
+    @Param({ "10" })
+    private long ioMillis;
+
+    @Param({ "200" })
+    private int poolSize;
+
+    private Duration ioDuration;
+    private SynchronizationDemo demo;
+
+    @Setup
+    public void setUp() {
+        ioDuration = Duration.ofMillis(ioMillis);
+        demo = new SynchronizationDemo();
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult platformSynchronized() {
+        return demo.runPlatformSynchronized(taskCount, ioDuration, poolSize);
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult virtualSynchronized() {
+        return demo.runVirtualSynchronized(taskCount, ioDuration);
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult virtualReentrantLock() {
+        return demo.runVirtualReentrantLock(taskCount, ioDuration);
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult virtualPinnedSimulation() {
+        return demo.runVirtualPinnedSimulation(taskCount, ioDuration);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.architecting.benchmarks;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.architecting.throughput.PlatformThreadModel;
+import com.example.architecting.throughput.TaskSimulator;
+import com.example.architecting.throughput.VirtualThreadModel;
+
+/**
+ * JMH version of the {@code ThroughputDemo} platform vs virtual comparison.
+ * One operation is one full batch of {@code taskCount} tasks, so throughput is batches/ms
+ * and the sample-time percentiles are the distribution of batch completion times.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = "--enable-preview")
+@State(Scope.Benchmark)
+public class ThreadModelBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int taskCount;
+
+    @Param({ "0", "10" })
+    private long ioMillis;
+
+    @Param({ "0", "100" })
+    private long cpuMicros;
+
+    @Param({ "200" })
+    private int poolSize;
+
+    private Duration ioDuration;
+    private Duration cpuDuration;
+    private TaskSimulator platformModel;
+    private TaskSimulator virtualModel;
+
+    @Setup
+    public void setUp() {
+        ioDuration = Duration.ofMillis(ioMillis);
+        cpuDuration = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(cpuMicros));
+        platformModel = new PlatformThreadModel(poolSize);
+        virtualModel = new VirtualThreadModel();
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult platformThreads() {
+        return platformModel.run(taskCount, ioDuration, cpuDuration);
+    }
+
+    @Benchmark
+    public TaskSimulator.SimulationResult virtualThreads() {
+        return virtualModel.run(taskCount, ioDuration, cpuDuration);
+    }
+}
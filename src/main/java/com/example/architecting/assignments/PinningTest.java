@@ -1,16 +1,118 @@
 package com.example.architecting.assignments;
 
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.example.architecting.diagnostics.PinningReport;
+import com.example.architecting.diagnostics.VirtualThreadMonitor;
+
+/**
+ * Checks whether blocking inside {@code synchronized} still pins the carrier, and shows what
+ * real pinning looks like, using JFR via {@link VirtualThreadMonitor}.
+ * <p>
+ * The native scenario calls libc {@code qsort} with a Java comparator that sleeps. A native frame
+ * on the stack still pins in Java 25, so it serves as a known-bad baseline. Run with
+ * {@code --enable-native-access=ALL-UNNAMED} to silence the restricted-method warning.
+ */
 public class PinningTest {
 
-    private final Object lock = new Object();
+    private static final int TASK_COUNT = Runtime.getRuntime().availableProcessors() * 4;
+    private static final Duration SLEEP = Duration.ofMillis(200);
+
+    private static final Linker LINKER = Linker.nativeLinker();
+    private static final MethodHandle QSORT = LINKER.downcallHandle(
+            LINKER.defaultLookup().find("qsort").orElseThrow(),
+            FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG,
+                    ValueLayout.ADDRESS));
+    private static final MethodHandle SLEEPING_COMPARE;
+
+    static {
+        try {
+            SLEEPING_COMPARE = MethodHandles.lookup().findStatic(PinningTest.class, "sleepingCompare",
+                    MethodType.methodType(int.class, long.class, MemorySegment.class, MemorySegment.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
 
     public static void main(String[] args) {
-        // TODO: Run the test
+        PinningTest test = new PinningTest();
+        System.out.println("Tasks: " + TASK_COUNT + ", each blocking " + SLEEP.toMillis() + "ms, carriers: "
+                + Runtime.getRuntime().availableProcessors());
+        test.runPinningTest();
+        test.runNativePinningTest();
     }
 
     public void runPinningTest() {
-        // TODO: Launch many virtual threads that sleep inside a synchronized block
-        // synchronized(lock) { Thread.sleep(1000); }
-        // Measure if they run in parallel (good) or serial (bad/pinned)
+        runScenario("synchronized + sleep", () -> {
+            // Each task locks its own monitor. A shared lock would serialize the tasks through
+            // mutual exclusion and hide whether the carrier itself was pinned.
+            Object lock = new Object();
+            synchronized (lock) {
+                Thread.sleep(SLEEP);
+            }
+            return null;
+        });
+    }
+
+    public void runNativePinningTest() {
+        runScenario("native frame + sleep", () -> {
+            sleepInsideNativeFrame(SLEEP);
+            return null;
+        });
+    }
+
+    private void runScenario(String name, Callable<Void> task) {
+        System.out.println("\nStarting " + name + "...");
+        long start = System.nanoTime();
+        PinningReport report;
+        try (VirtualThreadMonitor monitor = VirtualThreadMonitor.start()) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < TASK_COUNT; i++) {
+                    executor.submit(task);
+                }
+            }
+            report = monitor.stop();
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        // Unpinned tasks all sleep concurrently (~1 x SLEEP); pinned ones queue for carriers.
+        boolean parallel = elapsed.compareTo(SLEEP.multipliedBy(2)) < 0;
+        System.out.printf("[%s] Time: %d ms -> %s%n", name, elapsed.toMillis(),
+                parallel ? "ran in parallel (not pinned)" : "serialized on carriers (pinned)");
+        System.out.println(report);
+        report.topOffenders().stream().findFirst()
+                .ifPresent(offender -> System.out.println("  sample stack:\n" + offender.sampleStack()));
+    }
+
+    private static void sleepInsideNativeFrame(Duration sleep) {
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment array = arena.allocate(2 * ValueLayout.JAVA_INT.byteSize());
+            MemorySegment comparator = LINKER.upcallStub(
+                    MethodHandles.insertArguments(SLEEPING_COMPARE, 0, sleep.toMillis()),
+                    FunctionDescriptor.of(ValueLayout.JAVA_INT, ValueLayout.ADDRESS, ValueLayout.ADDRESS), arena);
+            QSORT.invokeExact(array, 2L, ValueLayout.JAVA_INT.byteSize(), comparator);
+        } catch (Throwable t) {
+            throw new RuntimeException(t);
+        }
+    }
+
+    private static int sleepingCompare(long sleepMillis, MemorySegment left, MemorySegment right) {
+        try {
+            Thread.sleep(sleepMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
     }
 }
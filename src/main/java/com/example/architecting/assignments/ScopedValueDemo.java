@@ -1,26 +1,53 @@
 package com.example.architecting.assignments;
 
+import java.time.Duration;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Joiner;
+
+import com.example.architecting.context.RequestContext;
+
 public class ScopedValueDemo {
 
-    // TODO: Define public static final ScopedValue<String> REQUEST_ID
+    public static final ScopedValue<String> REQUEST_ID = ScopedValue.newInstance();
+
+    public static void main(String[] args) throws InterruptedException {
+        ScopedValueDemo demo = new ScopedValueDemo();
+        demo.handleRequest("req-123", "acme");
 
-    public static void main(String[] args) {
-        // TODO: Start the chain with a bound ScopedValue
+        // Outside the binding both values are gone again.
+        System.out.println("Outside scope: REQUEST_ID bound=" + REQUEST_ID.isBound()
+                + ", context=" + RequestContext.current());
     }
 
-    public void handleRequest() {
-        // TODO: Bind value and call serviceA
+    public void handleRequest(String requestId, String tenant) throws InterruptedException {
+        RequestContext context = RequestContext.withTimeout(requestId, tenant, Duration.ofSeconds(1));
+        ScopedValue.where(REQUEST_ID, requestId).call(() -> context.call(() -> {
+            serviceA();
+            return null;
+        }));
     }
 
-    public void serviceA() {
+    public void serviceA() throws InterruptedException {
         repositoryB();
     }
 
-    public void repositoryB() {
-        logOperation();
+    /**
+     * Queries two shards in parallel. The forked subtasks see the caller's bindings without any
+     * copying, and the scope's timeout is capped by the request deadline.
+     */
+    public void repositoryB() throws InterruptedException {
+        try (var scope = StructuredTaskScope.open(Joiner.awaitAllSuccessfulOrThrow(),
+                cfg -> cfg.withTimeout(RequestContext.remainingOr(Duration.ofSeconds(5))))) {
+            scope.fork(() -> logOperation("shard-1"));
+            scope.fork(() -> logOperation("shard-2"));
+            scope.join();
+        }
+        logOperation("merge");
     }
 
-    public void logOperation() {
-        // TODO: Read ScopedValue and print it
+    public void logOperation(String operation) {
+        RequestContext context = RequestContext.require();
+        System.out.printf("[%s] tenant=%s op=%s thread=%s remaining=%dms%n", REQUEST_ID.get(),
+                context.tenant(), operation, Thread.currentThread(), context.remaining().toMillis());
     }
 }
@@ -1,36 +1,162 @@
 package com.example.architecting.assignments;
 
-import java.util.concurrent.StructuredTaskScope;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.function.Supplier;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Joiner;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Stream;
+
+import com.example.architecting.cache.SingleFlightCache;
+import com.example.architecting.context.RequestContext;
+import com.example.architecting.structured.FanOutEngine;
+import com.example.architecting.structured.FanOutEngine.Call;
 
 public class StructuredConcurrencyDemo {
 
-    public static void main(String[] args) {
-        // TODO: Call buildUserDashboard and print the result
+    /** Overall deadline for a dashboard: a slow downstream fails the request rather than stalling it. */
+    static final Duration DASHBOARD_DEADLINE = Duration.ofSeconds(2);
+
+    /**
+     * Per-call deadline for each downstream fetch: above the slowest simulated fetch (orders on the
+     * slow path, up to 1.2 s) so the long tail is slow rather than failed, and below
+     * {@link #DASHBOARD_DEADLINE}.
+     */
+    static final Duration FETCH_TIMEOUT = Duration.ofMillis(1_500);
+
+    /** Probability that a fetch hits the slow path (GC pause, cold cache, retransmit...). */
+    private static final double SLOW_PROBABILITY = 0.05;
+    private static final int SLOW_FACTOR = 5;
+
+    private final FanOutEngine engine;
+    private final boolean hedging;
+    private final Optional<SingleFlightCache<String, String>> users;
+    private final Optional<SingleFlightCache<String, String>> orders;
+    private final Optional<SingleFlightCache<String, String>> settings;
+
+    public StructuredConcurrencyDemo() {
+        this(new FanOutEngine(Duration.ofMillis(250)), true);
     }
 
-    public Dashboard buildUserDashboard(String userId) {
-        // TODO: Use StructuredTaskScope to fetch data in parallel
-        return null;
+    public StructuredConcurrencyDemo(FanOutEngine engine, boolean hedging) {
+        this(engine, hedging, Optional.empty());
+    }
+
+    /**
+     * @param cacheConfig Puts a {@link SingleFlightCache} with this configuration in front of each
+     *                    fetch service, so concurrent dashboards for the same user share one fetch.
+     */
+    public StructuredConcurrencyDemo(FanOutEngine engine, boolean hedging, SingleFlightCache.Config cacheConfig) {
+        this(engine, hedging, Optional.of(cacheConfig));
+    }
+
+    private StructuredConcurrencyDemo(FanOutEngine engine, boolean hedging,
+            Optional<SingleFlightCache.Config> cacheConfig) {
+        this.engine = engine;
+        this.hedging = hedging;
+        this.users = cacheConfig.map(config -> new SingleFlightCache<>(config, this::fetchUser));
+        this.orders = cacheConfig.map(config -> new SingleFlightCache<>(config, this::fetchOrders));
+        this.settings = cacheConfig.map(config -> new SingleFlightCache<>(config, this::fetchSettings));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        StructuredConcurrencyDemo demo = new StructuredConcurrencyDemo();
+        long start = System.nanoTime();
+        Dashboard dashboard = demo.buildUserDashboard("42");
+        System.out.printf("%s in %d ms%n", dashboard, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Fetches user, orders and settings in parallel. If any fetch fails the others are cancelled;
+     * if the dashboard takes longer than {@link #DASHBOARD_DEADLINE} (or the bound
+     * {@link RequestContext}'s remaining time) the scope times out and all fetches are cancelled.
+     *
+     * @throws StructuredTaskScope.FailedException  if a fetch failed.
+     * @throws StructuredTaskScope.TimeoutException if the deadline expired.
+     */
+    public Dashboard buildUserDashboard(String userId) throws InterruptedException {
+        try (var scope = StructuredTaskScope.open(Joiner.<String>awaitAllSuccessfulOrThrow(),
+                cfg -> cfg.withTimeout(RequestContext.remainingOr(DASHBOARD_DEADLINE)))) {
+            Subtask<String> user = scope.fork(engine.guarded(call("user", users, this::fetchUser, userId)));
+            Subtask<String> order = scope.fork(engine.guarded(call("orders", orders, this::fetchOrders, userId)));
+            Subtask<String> setting = scope.fork(engine.guarded(
+                    call("settings", settings, this::fetchSettings, userId)));
+            scope.join();
+            return new Dashboard(user.get(), order.get(), setting.get());
+        }
+    }
+
+    /**
+     * Baseline: the same three fetches one after another.
+     */
+    public Dashboard buildUserDashboardSequential(String userId) throws InterruptedException {
+        return new Dashboard(fetchUser(userId), fetchOrders(userId), fetchSettings(userId));
+    }
+
+    FanOutEngine engine() {
+        return engine;
+    }
+
+    /**
+     * Hit rate and load counts of the user, orders and settings caches, if caching is enabled.
+     */
+    public List<SingleFlightCache.Stats> cacheStats() {
+        return Stream.of(users, orders, settings).flatMap(Optional::stream).map(SingleFlightCache::stats).toList();
+    }
+
+    /**
+     * A fetch through {@code cache} if caching is enabled, straight to the service otherwise.
+     */
+    private Call<String> call(String name, Optional<SingleFlightCache<String, String>> cache,
+            SingleFlightCache.Loader<String, String> fetch, String userId) {
+        if (cache.isEmpty()) {
+            return call(name, () -> fetch.load(userId));
+        }
+        return call(name, () -> {
+            try {
+                return cache.get().get(userId);
+            } catch (ExecutionException e) {
+                // Surface the service's own failure, as an uncached fetch would.
+                throw e.getCause() instanceof Exception cause ? cause : e;
+            }
+        });
+    }
+
+    private Call<String> call(String name, Callable<String> callable) {
+        Call<String> call = Call.of(name, callable).withTimeout(FETCH_TIMEOUT);
+        return hedging ? call.withHedging() : call;
     }
 
     // Simulated Services
     private String fetchUser(String id) throws InterruptedException {
-        Thread.sleep(100);
+        Thread.sleep(jittered(100));
         return "User-" + id;
     }
 
     private String fetchOrders(String id) throws InterruptedException {
-        Thread.sleep(200);
+        Thread.sleep(jittered(200));
         return "Orders-for-" + id;
     }
 
     private String fetchSettings(String id) throws InterruptedException {
-        Thread.sleep(150);
+        Thread.sleep(jittered(150));
         return "Settings-for-" + id;
     }
 
+    /**
+     * ±20% jitter around the base latency, plus a rare slow path that is {@link #SLOW_FACTOR}
+     * times slower: the long tail that hedging is meant to cut.
+     */
+    private static long jittered(long baseMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long millis = Math.round(baseMillis * random.nextDouble(0.8, 1.2));
+        return random.nextDouble() < SLOW_PROBABILITY ? millis * SLOW_FACTOR : millis;
+    }
+
     public record Dashboard(String user, String orders, String settings) {
     }
 }
@@ -2,21 +2,125 @@ package com.example.architecting.assignments;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 
+import com.example.architecting.diagnostics.ThreadFootprint;
+
+/**
+ * Assignment 1, plus the measurements behind the thread counts in {@code THREADING_STRATEGY.md}:
+ * per-thread heap and RSS for parked virtual and platform threads at several stack depths, and the
+ * most threads of each kind that fit in a memory budget. Use the latter to size container limits.
+ * <p>
+ * Usage: {@code VirtualThreadScaleTest [taskCount] [budgetMb] [maxPlatformThreads] [maxVirtualThreads]}
+ * <p>
+ * Run with a fixed heap (e.g. {@code -Xms1g -Xmx1g}) so heap growth does not show up as RSS growth.
+ */
 public class VirtualThreadScaleTest {
 
-    public static void main(String[] args) {
-        // TODO: Call runVirtualThreadTest with 10,000 tasks
-        System.out.println("Starting Virtual Thread Scale Test...");
+    private static final int[] STACK_DEPTHS = { 1, 10, 100, 1_000 };
+    private static final int FOOTPRINT_THREADS = 2_000;
+    private static final int RAMP_DEPTH = 10;
+    private static final Duration SLEEP = Duration.ofSeconds(1);
+
+    public static void main(String[] args) throws InterruptedException {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        long budgetBytes = (args.length > 1 ? Long.parseLong(args[1]) : 512) * 1024 * 1024;
+        int maxPlatformThreads = args.length > 2 ? Integer.parseInt(args[2]) : 20_000;
+        int maxVirtualThreads = args.length > 3 ? Integer.parseInt(args[3]) : 2_000_000;
+
+        System.out.println("==================================================");
+        System.out.println("      Thread Scale & Footprint Test               ");
+        System.out.println("==================================================");
+        System.out.println("  Tasks: " + taskCount + ", each sleeping " + SLEEP.toMillis() + "ms");
+        System.out.println("  Memory budget: " + budgetBytes / (1024 * 1024) + " MB");
+        System.out.println("  Max heap: " + Runtime.getRuntime().maxMemory() / (1024 * 1024) + " MB");
+        System.out.println("==================================================");
+
+        VirtualThreadScaleTest test = new VirtualThreadScaleTest();
+        System.out.println("\nStarting Virtual Thread Scale Test...");
+        test.runVirtualThreadTest(taskCount);
+        System.out.println("\nStarting Platform Thread Scale Test...");
+        test.runPlatformThreadTest(taskCount);
+
+        System.out.println("\n--- Footprint per parked thread (" + FOOTPRINT_THREADS + " threads) ---");
+        List<ThreadFootprint.Footprint> virtual = new ArrayList<>();
+        List<ThreadFootprint.Footprint> platform = new ArrayList<>();
+        for (int depth : STACK_DEPTHS) {
+            virtual.add(new ThreadFootprint(Thread.ofVirtual().factory(), depth).measure(FOOTPRINT_THREADS));
+            platform.add(new ThreadFootprint(Thread.ofPlatform().factory(), depth).measure(FOOTPRINT_THREADS));
+        }
+        System.out.println("Virtual:");
+        virtual.forEach(System.out::println);
+        System.out.println("Platform:");
+        platform.forEach(System.out::println);
+
+        System.out.println("\n--- Max sustainable concurrency (depth " + RAMP_DEPTH + ") ---");
+        ThreadFootprint.Ramp virtualRamp = test.findMaxConcurrency(Thread.ofVirtual().factory(), budgetBytes,
+                maxVirtualThreads);
+        System.out.println("Virtual:");
+        System.out.println(virtualRamp);
+        ThreadFootprint.Ramp platformRamp = test.findMaxConcurrency(Thread.ofPlatform().factory(), budgetBytes,
+                maxPlatformThreads);
+        System.out.println("Platform:");
+        System.out.println(platformRamp);
+
+        System.out.println("\n==================================================");
+        System.out.printf("%-10s %12s %12s %10s  %s%n", "Threads", "Sustained", "B/thread", "MB", "Stopped");
+        printSummaryRow("Virtual", virtualRamp);
+        printSummaryRow("Platform", platformRamp);
+        System.out.println("==================================================");
     }
 
+    /**
+     * Sleeps {@code taskCount} tasks on virtual threads at once; the wall-clock time stays near one
+     * sleep regardless of the count.
+     */
     public void runVirtualThreadTest(int taskCount) {
-        // TODO: Implement the test
-        // 1. Create a Virtual Thread Executor
-        // 2. Submit 'taskCount' tasks that sleep for 1 second
-        // 3. Wait for all to finish
-        // 4. Measure time
+        runSleepers("Virtual Threads", Executors.newVirtualThreadPerTaskExecutor(), taskCount);
+    }
+
+    /**
+     * The challenge variant: the same tasks on a cached pool, one platform thread each. Large counts
+     * fail with {@code OutOfMemoryError: unable to create native thread}.
+     */
+    public void runPlatformThreadTest(int taskCount) {
+        try {
+            runSleepers("Platform Threads", Executors.newCachedThreadPool(), taskCount);
+        } catch (OutOfMemoryError e) {
+            System.out.println("[Platform Threads] failed: " + e);
+        }
+    }
+
+    /**
+     * Ramps parked threads from {@code factory} in 10% steps of {@code maxThreads} until the budget,
+     * the OS thread limit or {@code maxThreads} is reached.
+     */
+    public ThreadFootprint.Ramp findMaxConcurrency(ThreadFactory factory, long budgetBytes, int maxThreads)
+            throws InterruptedException {
+        return new ThreadFootprint(factory, RAMP_DEPTH).ramp(budgetBytes, Math.max(1, maxThreads / 10), maxThreads);
+    }
+
+    private void runSleepers(String name, ExecutorService executor, int taskCount) {
+        Instant start = Instant.now();
+        try (executor) {
+            for (int i = 0; i < taskCount; i++) {
+                executor.submit(() -> {
+                    Thread.sleep(SLEEP);
+                    return null;
+                });
+            }
+        }
+        Duration elapsed = Duration.between(start, Instant.now());
+        System.out.printf("[%s] %d tasks, Time: %d ms%n", name, taskCount, elapsed.toMillis());
+    }
+
+    private static void printSummaryRow(String name, ThreadFootprint.Ramp ramp) {
+        System.out.printf("%-10s %12d %12.0f %10.1f  %s%n", name, ramp.sustained(),
+                ramp.sustained() == 0 ? 0 : (double) ramp.memoryUsed() / ramp.sustained(),
+                ramp.memoryUsed() / (1024.0 * 1024.0), ramp.stopReason());
     }
 }
@@ -0,0 +1,211 @@
+package com.example.architecting.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DataLoader-style micro-batching for thread-per-request code: many virtual threads each call the
+ * blocking {@link #load}, and their keys are collected into one call to a batch-capable service.
+ * <p>
+ * The first key of a batch opens a window of {@link Config#maxDelay()}; keys arriving within it
+ * join the batch, and the callers park on their own future. The batch is dispatched when the
+ * window closes or when it reaches {@link Config#maxBatchSize()}, whichever comes first, and each
+ * caller gets the value for its key. Batches are dispatched on a virtual thread of their own (a
+ * timed-out one on the window's timer thread), never on a caller's, so an interrupted caller stops
+ * waiting without failing the rest of its batch. Duplicate keys within a batch are fetched once.
+ * <p>
+ * The window is the trade-off: each caller waits up to {@code maxDelay} longer, and in exchange N
+ * round trips (each paying the service's fixed overhead and holding one of its connections)
+ * become N / batch-size.
+ *
+ * @param <K> Key type; must have proper {@code equals}/{@code hashCode}.
+ * @param <V> Value type.
+ */
+public final class BatchLoader<K, V> {
+
+    /**
+     * Loads the values for a batch of distinct keys in one call. Keys missing from the returned
+     * map fail their callers with {@link NoSuchElementException}.
+     */
+    @FunctionalInterface
+    public interface BatchFunction<K, V> {
+        Map<K, V> loadAll(List<K> keys) throws Exception;
+    }
+
+    /**
+     * @param maxBatchSize Keys per batch; a full batch is dispatched without waiting for the window.
+     * @param maxDelay     Longest the first key of a batch waits for others; zero disables batching.
+     */
+    public record Config(int maxBatchSize, Duration maxDelay) {
+
+        public static Config of(int maxBatchSize, Duration maxDelay) {
+            return new Config(maxBatchSize, maxDelay);
+        }
+
+        /** Every {@link #load} is its own call, as without a loader; the baseline for comparison. */
+        public static Config unbatched() {
+            return new Config(1, Duration.ZERO);
+        }
+
+        public Config withMaxBatchSize(int maxBatchSize) {
+            return new Config(maxBatchSize, maxDelay);
+        }
+
+        public Config withMaxDelay(Duration maxDelay) {
+            return new Config(maxBatchSize, maxDelay);
+        }
+    }
+
+    /**
+     * @param averageBatchSize Keys per dispatched batch; 1.0 means no batching happened.
+     * @param fullBatches      Batches dispatched because they reached the maximum size.
+     * @param timedOutBatches  Batches dispatched because their window closed.
+     */
+    public record Metrics(long loads, long batches, double averageBatchSize, int maxBatchSize, long fullBatches,
+            long timedOutBatches, long failedBatches) {
+
+        @Override
+        public String toString() {
+            return String.format("  batching: %d loads in %d batches (avg %.1f, max %d), full %d, timed out %d, "
+                    + "failed %d", loads, batches, averageBatchSize, maxBatchSize, fullBatches, timedOutBatches,
+                    failedBatches);
+        }
+    }
+
+    /** Keys collected during one window, each with the futures of the callers waiting for it. */
+    private final class Batch {
+        final Map<K, List<CompletableFuture<V>>> waiters = new LinkedHashMap<>();
+        int size;
+    }
+
+    private final Config config;
+    private final BatchFunction<K, V> function;
+    private final ReentrantLock lock = new ReentrantLock();
+    private Batch current;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedKeys = new LongAdder();
+    private final LongAdder fullBatches = new LongAdder();
+    private final LongAdder timedOutBatches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private final AtomicInteger maxBatch = new AtomicInteger();
+
+    public BatchLoader(Config config, BatchFunction<K, V> function) {
+        if (config.maxBatchSize() < 1 || config.maxDelay().isNegative()) {
+            throw new IllegalArgumentException("maxBatchSize must be positive and maxDelay not negative");
+        }
+        this.config = config;
+        this.function = function;
+    }
+
+    public Config config() {
+        return config;
+    }
+
+    /**
+     * Returns the value for {@code key}, blocking (parking the calling virtual thread) until the
+     * batch it joined has been loaded.
+     *
+     * @throws ExecutionException   if the batch call failed, or returned no value for {@code key}.
+     * @throws InterruptedException if interrupted while waiting; the batch still runs for the others.
+     */
+    public V load(K key) throws InterruptedException, ExecutionException {
+        loads.increment();
+        CompletableFuture<V> result = new CompletableFuture<>();
+        Batch opened = null;
+        Batch full = null;
+        lock.lock();
+        try {
+            if (current == null) {
+                current = new Batch();
+                opened = current;
+            }
+            current.waiters.computeIfAbsent(key, k -> new ArrayList<>(1)).add(result);
+            current.size++;
+            if (current.size >= config.maxBatchSize() || config.maxDelay().isZero()) {
+                full = current;
+                current = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full != null) {
+            fullBatches.increment();
+            Batch batch = full;
+            Thread.ofVirtual().name("batch-dispatch").start(() -> dispatch(batch));
+        } else if (opened != null) {
+            startTimer(opened);
+        }
+        return result.get();
+    }
+
+    public Metrics metrics() {
+        long batchCount = batches.sum();
+        return new Metrics(loads.sum(), batchCount, batchCount == 0 ? 0 : (double) batchedKeys.sum() / batchCount,
+                maxBatch.get(), fullBatches.sum(), timedOutBatches.sum(), failedBatches.sum());
+    }
+
+    /**
+     * Closes {@code batch}'s window after {@code maxDelay}, unless it fills up first. One cheap
+     * virtual thread per window; it never blocks a carrier while sleeping.
+     */
+    private void startTimer(Batch batch) {
+        Thread.ofVirtual().name("batch-window").start(() -> {
+            try {
+                Thread.sleep(config.maxDelay());
+            } catch (InterruptedException e) {
+                // Not expected (the thread is private); dispatch early rather than strand the callers.
+            }
+            lock.lock();
+            try {
+                if (current != batch) {
+                    return; // filled up and dispatched already
+                }
+                current = null;
+            } finally {
+                lock.unlock();
+            }
+            timedOutBatches.increment();
+            dispatch(batch);
+        });
+    }
+
+    private void dispatch(Batch batch) {
+        batches.increment();
+        batchedKeys.add(batch.size);
+        maxBatch.accumulateAndGet(batch.size, Math::max);
+        Map<K, V> values;
+        try {
+            values = function.loadAll(List.copyOf(batch.waiters.keySet()));
+        } catch (Throwable t) {
+            if (t instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Any Throwable, Errors included, fails every future in the batch with the cause.
+            failedBatches.increment();
+            batch.waiters.values().forEach(futures -> futures.forEach(future -> future.completeExceptionally(t)));
+            return;
+        }
+        batch.waiters.forEach((key, futures) -> {
+            V value = values.get(key);
+            for (CompletableFuture<V> future : futures) {
+                if (value == null) {
+                    future.completeExceptionally(new NoSuchElementException("no value for key " + key));
+                } else {
+                    future.complete(value);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.architecting.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.architecting.throughput.RequestLoad;
+
+/**
+ * Sweeps {@link BatchLoader} windows against a batch-capable orders service, at several levels of
+ * concurrency. Each virtual thread looks up the orders of random users one at a time, the way
+ * {@code buildUserDashboard} calls {@code fetchOrders}; the loader turns concurrent lookups into
+ * batched calls.
+ * <p>
+ * The service has a fixed cost per call plus a small cost per key, and a limited number of
+ * connections, like a database behind a pool. Unbatched, every lookup pays the fixed cost and
+ * holds a connection for it, so throughput is capped at {@code connections / fixed cost}. Batched,
+ * the fixed cost is shared; the price is up to one window of added latency, which matters most at
+ * low concurrency, where batches rarely fill before their window closes.
+ * <p>
+ * Usage: {@code BatchingBenchmark [threads] [requestsPerThread] [overheadMillis] [perKeyMicros]
+ * [connections] [maxBatchSize]}
+ */
+public class BatchingBenchmark {
+
+    private static final List<Duration> WINDOWS = List.of(Duration.ofNanos(500_000), Duration.ofMillis(1),
+            Duration.ofMillis(2), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(20));
+
+    /** Distinct user ids the lookups are drawn from; large enough that batches rarely repeat a key. */
+    private static final int USERS = 1_000_000;
+
+    /**
+     * @param threads           Virtual threads, all started at once.
+     * @param requestsPerThread Sequential lookups each thread makes.
+     */
+    public record Config(int threads, int requestsPerThread) {
+    }
+
+    /**
+     * @param serviceCalls Calls that reached the orders service.
+     * @param servicePeak  Most calls holding a connection at once.
+     * @param batching     Loader metrics; empty when unbatched.
+     */
+    public record Result(String name, int threads, RequestLoad.Outcome load, long serviceCalls, int servicePeak,
+            Optional<BatchLoader.Metrics> batching) {
+
+        @Override
+        public String toString() {
+            String summary = String.format("[%s, %d threads] %s, service calls %d (peak %d concurrent)%n  latency: %s",
+                    name, threads, load, serviceCalls, servicePeak, load.latency());
+            return summary + batching.map(metrics -> System.lineSeparator() + metrics).orElse("");
+        }
+    }
+
+    /**
+     * Simulated batch-capable orders service: one call costs {@code overhead + perKey x keys} and
+     * holds one of {@code connections} for that long.
+     */
+    public static final class OrderService {
+        private final Duration overhead;
+        private final Duration perKey;
+        private final Semaphore connections;
+        private final LongAdder calls = new LongAdder();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        public OrderService(Duration overhead, Duration perKey, int connections) {
+            this.overhead = overhead;
+            this.perKey = perKey;
+            this.connections = new Semaphore(connections, true);
+        }
+
+        public String fetchOrders(String userId) throws InterruptedException {
+            return fetchOrders(List.of(userId)).get(userId);
+        }
+
+        public Map<String, String> fetchOrders(List<String> userIds) throws InterruptedException {
+            connections.acquire();
+            try {
+                calls.increment();
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(overhead.plus(perKey.multipliedBy(userIds.size())));
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            } finally {
+                connections.release();
+            }
+            Map<String, String> orders = new LinkedHashMap<>();
+            for (String userId : userIds) {
+                orders.put(userId, "Orders-for-" + userId);
+            }
+            return orders;
+        }
+    }
+
+    private final Duration overhead;
+    private final Duration perKey;
+    private final int connections;
+
+    public BatchingBenchmark(Duration overhead, Duration perKey, int connections) {
+        this.overhead = overhead;
+        this.perKey = perKey;
+        this.connections = connections;
+    }
+
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int requestsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Duration overhead = Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 2);
+        Duration perKey = Duration.ofNanos(1_000 * (args.length > 3 ? Long.parseLong(args[3]) : 50));
+        int connections = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+        int maxBatchSize = args.length > 5 ? Integer.parseInt(args[5]) : 200;
+
+        System.out.println("==================================================");
+        System.out.println("      Micro-Batching Benchmark                    ");
+        System.out.println("==================================================");
+        System.out.println("  Virtual Threads: up to " + threads + " x " + requestsPerThread + " lookups");
+        System.out.printf("  Service cost: %.1fms per call + %dus per key, %d connections%n",
+                overhead.toNanos() / 1e6, perKey.toNanos() / 1_000, connections);
+        System.out.println("  Max batch size: " + maxBatchSize);
+        System.out.println("==================================================");
+
+        BatchingBenchmark benchmark = new BatchingBenchmark(overhead, perKey, connections);
+        // Warm-up, so JIT compilation does not land on the first measured run.
+        benchmark.runBatched(new Config(Math.max(1, threads / 10), requestsPerThread),
+                BatchLoader.Config.of(maxBatchSize, Duration.ofMillis(1)));
+
+        List<Result> results = new ArrayList<>();
+        // Below maxBatchSize concurrent lookups a batch never fills, so every lookup waits out the window.
+        for (int concurrency : List.of(Math.max(1, threads / 1_000), Math.max(1, threads / 100),
+                Math.max(1, threads / 10), threads)) {
+            Config config = new Config(concurrency, requestsPerThread);
+            results.add(benchmark.runUnbatched(config));
+            for (Duration window : WINDOWS) {
+                results.add(benchmark.runBatched(config, BatchLoader.Config.of(maxBatchSize, window)));
+            }
+        }
+
+        System.out.println("\n==================================================");
+        System.out.println("Summary (latency in ms):");
+        System.out.printf("%-12s %8s %s %10s %9s%n", "Window", "Threads", RequestLoad.SUMMARY_HEADER, "Calls",
+                "Avg Batch");
+        for (Result result : results) {
+            System.out.printf("%-12s %8d %s %10d %9s%n", result.name(), result.threads(),
+                    result.load().summaryColumns(), result.serviceCalls(),
+                    result.batching().map(metrics -> String.format("%.1f", metrics.averageBatchSize())).orElse("-"));
+        }
+        System.out.println("==================================================");
+    }
+
+    /**
+     * Every lookup is its own service call.
+     */
+    public Result runUnbatched(Config config) {
+        OrderService service = new OrderService(overhead, perKey, connections);
+        return run("Unbatched", config, service, () -> service.fetchOrders(randomUser()), Optional.empty());
+    }
+
+    public Result runBatched(Config config, BatchLoader.Config loaderConfig) {
+        OrderService service = new OrderService(overhead, perKey, connections);
+        BatchLoader<String, String> loader = new BatchLoader<>(loaderConfig, service::fetchOrders);
+        String name = String.format("%.1fms", loaderConfig.maxDelay().toNanos() / 1e6);
+        return run(name, config, service, () -> loader.load(randomUser()), Optional.of(loader));
+    }
+
+    private static String randomUser() {
+        return "user-" + ThreadLocalRandom.current().nextInt(USERS);
+    }
+
+    private Result run(String name, Config config, OrderService service, Callable<String> request,
+            Optional<BatchLoader<String, String>> loader) {
+        System.out.println("\nStarting " + name + " with " + config.threads() + " threads...");
+        RequestLoad.Outcome load = RequestLoad.run(config.threads(), config.requestsPerThread(), request);
+        Result result = new Result(name, config.threads(), load, service.calls.sum(), service.peak.get(),
+                loader.map(BatchLoader::metrics));
+        System.out.println(result);
+        return result;
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.architecting.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.architecting.throughput.RequestLoad;
+
+/**
+ * Hammers a simulated fetch service with requests from many virtual threads, keys drawn from a
+ * Zipfian distribution (a few very hot keys, a long tail), with and without a
+ * {@link SingleFlightCache} in front.
+ * <p>
+ * Usage: {@code CacheBenchmark [threads] [keys] [zipfExponent] [requestsPerThread] [loadMillis]}
+ */
+public class CacheBenchmark {
+
+    /**
+     * @param threads           Virtual threads, all started at once.
+     * @param keys              Distinct keys.
+     * @param zipfExponent      Skew; 1.0 is classic Zipf, 0 is uniform.
+     * @param requestsPerThread Sequential requests each thread makes.
+     * @param loadLatency       Mean latency of one backend fetch (±20% jitter).
+     */
+    public record Config(int threads, int keys, double zipfExponent, int requestsPerThread, Duration loadLatency) {
+    }
+
+    /**
+     * @param backendCalls Fetches that reached the backend.
+     * @param backendPeak  Most fetches in flight at the backend at once.
+     * @param stats        Cache statistics; empty when uncached.
+     */
+    public record Result(String name, RequestLoad.Outcome load, long backendCalls, int backendPeak,
+            Optional<SingleFlightCache.Stats> stats) {
+
+        @Override
+        public String toString() {
+            String summary = String.format("[%s] %s, backend calls %d (peak %d concurrent)%n  latency: %s", name,
+                    load, backendCalls, backendPeak, load.latency());
+            return summary + stats.map(cacheStats -> System.lineSeparator() + cacheStats).orElse("");
+        }
+    }
+
+    /** The simulated service, e.g. {@code fetchUser}: counts calls and peak concurrency. */
+    private static final class Backend {
+        private final Duration latency;
+        private final LongAdder calls = new LongAdder();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        Backend(Duration latency) {
+            this.latency = latency;
+        }
+
+        String fetch(Integer key) throws InterruptedException {
+            calls.increment();
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                long millis = Math.round(latency.toMillis() * ThreadLocalRandom.current().nextDouble(0.8, 1.2));
+                Thread.sleep(millis);
+                return "value-" + key;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+    }
+
+    /** Samples key ranks 0..n-1 with probability proportional to {@code 1 / (rank + 1)^s}. */
+    static final class ZipfDistribution {
+        private final double[] cumulative;
+
+        ZipfDistribution(int n, double exponent) {
+            cumulative = new double[n];
+            double sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += 1.0 / Math.pow(i + 1, exponent);
+                cumulative[i] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cumulative[i] /= sum;
+            }
+        }
+
+        int next() {
+            double u = ThreadLocalRandom.current().nextDouble();
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (cumulative[mid] < u) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private final Config config;
+    private final ZipfDistribution zipf;
+
+    public CacheBenchmark(Config config) {
+        this.config = config;
+        this.zipf = new ZipfDistribution(config.keys(), config.zipfExponent());
+    }
+
+    public static void main(String[] args) {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int keys = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        double exponent = args.length > 2 ? Double.parseDouble(args[2]) : 1.0;
+        int requestsPerThread = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        Duration loadLatency = Duration.ofMillis(args.length > 4 ? Long.parseLong(args[4]) : 100);
+        Config config = new Config(threads, keys, exponent, requestsPerThread, loadLatency);
+        Duration ttl = Duration.ofSeconds(10);
+
+        System.out.println("==================================================");
+        System.out.println("      Single-Flight Cache Benchmark               ");
+        System.out.println("==================================================");
+        System.out.println("  Virtual Threads: " + threads + " x " + requestsPerThread + " requests");
+        System.out.println("  Keys: " + keys + ", Zipf exponent " + exponent);
+        System.out.println("  Backend latency: " + loadLatency.toMillis() + "ms");
+        System.out.println("==================================================");
+
+        // Warm-up at a tenth of the load, so JIT compilation does not land on the first scenario.
+        new CacheBenchmark(new Config(Math.max(1, threads / 10), keys, exponent, requestsPerThread, loadLatency))
+                .runCached("Warm-up", SingleFlightCache.Config.of(keys, ttl));
+
+        CacheBenchmark benchmark = new CacheBenchmark(config);
+        List<Result> results = new ArrayList<>();
+        results.add(benchmark.runUncached());
+        results.add(benchmark.runCached("Cache, No Coalescing", SingleFlightCache.Config.of(keys, ttl)
+                .withCoalescing(false)));
+        results.add(benchmark.runCached("Single-Flight", SingleFlightCache.Config.of(keys, ttl)));
+        results.add(benchmark.runCached("Single-Flight, 10% Size", SingleFlightCache.Config.of(keys / 10, ttl)));
+        // TTL shorter than the run, so hot keys expire mid-run; refresh-ahead reloads them in the background.
+        Duration shortTtl = loadLatency.multipliedBy(3);
+        results.add(benchmark.runCached("Single-Flight, Short TTL", SingleFlightCache.Config.of(keys, shortTtl)));
+        results.add(benchmark.runCached("Single-Flight, Refresh-Ahead", SingleFlightCache.Config.of(keys, shortTtl)
+                .withRefreshAhead(shortTtl.dividedBy(2))));
+
+        System.out.println("\n==================================================");
+        System.out.println("Summary (latency in ms):");
+        System.out.printf("%-30s %s %10s %9s %9s%n", "Scenario", RequestLoad.SUMMARY_HEADER, "Backend", "Peak",
+                "Hit %");
+        for (Result result : results) {
+            System.out.printf("%-30s %s %10d %9d %9s%n", result.name(), result.load().summaryColumns(),
+                    result.backendCalls(), result.backendPeak(),
+                    result.stats().map(stats -> String.format("%.1f", stats.hitRate() * 100)).orElse("-"));
+        }
+        System.out.println("==================================================");
+    }
+
+    /**
+     * Every request goes straight to the backend.
+     */
+    public Result runUncached() {
+        Backend backend = new Backend(config.loadLatency());
+        return run("No Cache", backend, () -> backend.fetch(zipf.next()), Optional.empty());
+    }
+
+    public Result runCached(String name, SingleFlightCache.Config cacheConfig) {
+        Backend backend = new Backend(config.loadLatency());
+        SingleFlightCache<Integer, String> cache = new SingleFlightCache<>(cacheConfig, backend::fetch);
+        return run(name, backend, () -> cache.get(zipf.next()), Optional.of(cache));
+    }
+
+    private Result run(String name, Backend backend, Callable<String> request,
+            Optional<SingleFlightCache<Integer, String>> cache) {
+        System.out.println("\nStarting " + name + "...");
+        RequestLoad.Outcome load = RequestLoad.run(config.threads(), config.requestsPerThread(), request);
+        Result result = new Result(name, load, backend.calls.sum(), backend.peak.get(),
+                cache.map(SingleFlightCache::stats));
+        System.out.println(result);
+        return result;
+    }
+}
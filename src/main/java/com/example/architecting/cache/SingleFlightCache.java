@@ -0,0 +1,335 @@
+package com.example.architecting.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrent read-through cache with single-flight loading: concurrent misses for one key share a
+ * single in-flight load instead of each calling the backend (the thundering herd that thousands of
+ * virtual threads asking for the same hot key would otherwise cause).
+ * <p>
+ * The first caller to miss starts the load on a virtual thread of its own; that caller and all later
+ * ones park on the same future. An interrupted caller (e.g. one whose deadline expired) therefore
+ * abandons only its own wait, and the load completes for everyone else. Failed loads are not
+ * cached: every waiter gets the failure and the next call retries. Entries expire
+ * {@link Config#ttl()} after they were loaded. With refresh-ahead, a hit on an entry older than
+ * {@link Config#refreshAfter()} starts one background reload and still returns the current value,
+ * so hot keys never block on expiry.
+ * <p>
+ * Size is bounded with CLOCK (second chance), an approximation of LRU that needs no lock on the
+ * read path: a hit only sets the entry's reference bit, and eviction sweeps entries in insertion
+ * order, evicting the first one whose bit is clear and clearing the others as it passes them.
+ * The bound is soft: in-flight loads do not count towards it (they cannot be evicted without
+ * starting a duplicate load), and the map can briefly exceed it while another thread is evicting.
+ *
+ * @param <K> Key type; must have proper {@code equals}/{@code hashCode}.
+ * @param <V> Value type.
+ */
+public final class SingleFlightCache<K, V> {
+
+    /**
+     * Loads the value for a key from the backing service.
+     */
+    @FunctionalInterface
+    public interface Loader<K, V> {
+        V load(K key) throws Exception;
+    }
+
+    /**
+     * @param maximumSize  Entries kept before eviction starts.
+     * @param ttl          Time after loading when an entry expires.
+     * @param refreshAfter Age after which a hit triggers a background reload; must be below {@code ttl}.
+     * @param coalescing   Share in-flight loads between concurrent misses; off only for comparison.
+     */
+    public record Config(long maximumSize, Duration ttl, Optional<Duration> refreshAfter, boolean coalescing) {
+
+        public static Config of(long maximumSize, Duration ttl) {
+            return new Config(maximumSize, ttl, Optional.empty(), true);
+        }
+
+        public Config withRefreshAhead(Duration refreshAfter) {
+            return new Config(maximumSize, ttl, Optional.of(refreshAfter), coalescing);
+        }
+
+        public Config withCoalescing(boolean coalescing) {
+            return new Config(maximumSize, ttl, refreshAfter, coalescing);
+        }
+    }
+
+    /**
+     * @param requests     Calls to {@link #get}.
+     * @param hits         Served from a loaded, unexpired entry.
+     * @param coalesced    Served by joining another caller's in-flight load.
+     * @param misses       Started a load themselves.
+     * @param loads        Loads run, including background refreshes.
+     * @param loadFailures Loads that threw.
+     * @param refreshes    Background refreshes started.
+     * @param evictions    Entries evicted for size.
+     * @param expirations  Entries dropped for age.
+     */
+    public record Stats(long requests, long hits, long coalesced, long misses, long loads, long loadFailures,
+            long refreshes, long evictions, long expirations, long size) {
+
+        public double hitRate() {
+            return requests == 0 ? 0 : (double) hits / requests;
+        }
+
+        /** Share of requests that did not run a load of their own. */
+        public double loadAvoidance() {
+            return requests == 0 ? 0 : (double) (hits + coalesced) / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("  cache: %d requests, hit rate %.1f%%, served without own load %.1f%%%n"
+                    + "    hits %d, coalesced %d, misses %d, loads %d (failed %d, refreshes %d), evictions %d, "
+                    + "expirations %d, size %d", requests, hitRate() * 100, loadAvoidance() * 100, hits, coalesced,
+                    misses, loads, loadFailures, refreshes, evictions, expirations, size);
+        }
+    }
+
+    /** A mapping; a reload replaces the entry instead of changing its value. */
+    private final class Entry {
+        final K key;
+        final CompletableFuture<V> value;
+        final AtomicBoolean refreshing = new AtomicBoolean();
+        volatile long loadedNanos;
+        volatile boolean referenced;
+
+        Entry(K key, CompletableFuture<V> value) {
+            this.key = key;
+            this.value = value;
+            // Set on arrival, as in CLOCK page replacement: a new entry survives at least one sweep.
+            this.referenced = true;
+        }
+    }
+
+    private final Config config;
+    private final Loader<K, V> loader;
+    private final long ttlNanos;
+    private final long refreshNanos;
+    private final ConcurrentHashMap<K, Entry> entries = new ConcurrentHashMap<>();
+
+    // CLOCK ring: every live entry appears once; replaced or removed entries linger until swept.
+    private final ConcurrentLinkedQueue<Entry> clock = new ConcurrentLinkedQueue<>();
+    private final AtomicLong clockSize = new AtomicLong();
+    private final AtomicInteger loading = new AtomicInteger();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public SingleFlightCache(Config config, Loader<K, V> loader) {
+        if (config.maximumSize() < 1 || config.ttl().isNegative() || config.ttl().isZero()) {
+            throw new IllegalArgumentException("maximumSize and ttl must be positive");
+        }
+        if (config.refreshAfter().isPresent() && config.refreshAfter().get().compareTo(config.ttl()) >= 0) {
+            throw new IllegalArgumentException("refreshAfter must be shorter than ttl");
+        }
+        this.config = config;
+        this.loader = loader;
+        this.ttlNanos = config.ttl().toNanos();
+        this.refreshNanos = config.refreshAfter().map(Duration::toNanos).orElse(Long.MAX_VALUE);
+    }
+
+    public Config config() {
+        return config;
+    }
+
+    /**
+     * Returns the cached value for {@code key}, loading it (or joining a load already in flight) on
+     * a miss.
+     *
+     * @throws ExecutionException   if the load failed; the cause is the loader's exception.
+     * @throws InterruptedException if interrupted while waiting for the load; the load itself carries on.
+     */
+    public V get(K key) throws InterruptedException, ExecutionException {
+        requests.increment();
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.value.isDone()) {
+                coalesced.increment();
+                return entry.value.get();
+            }
+            long age = System.nanoTime() - entry.loadedNanos;
+            if (age < ttlNanos && !entry.value.isCompletedExceptionally()) {
+                hits.increment();
+                entry.referenced = true;
+                if (age >= refreshNanos) {
+                    refresh(entry);
+                }
+                return entry.value.get();
+            }
+            if (entries.remove(key, entry) && !entry.value.isCompletedExceptionally()) {
+                expirations.increment();
+            }
+        }
+        return config.coalescing() ? loadShared(key) : loadAlone(key);
+    }
+
+    /**
+     * Drops the entry for {@code key}, e.g. after the backing data changed.
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    public Stats stats() {
+        return new Stats(requests.sum(), hits.sum(), coalesced.sum(), misses.sum(), loads.sum(), loadFailures.sum(),
+                refreshes.sum(), evictions.sum(), expirations.sum(), entries.size());
+    }
+
+    private V loadShared(K key) throws InterruptedException, ExecutionException {
+        Entry mine = new Entry(key, new CompletableFuture<>());
+        Entry existing = entries.putIfAbsent(key, mine);
+        if (existing != null) {
+            // Lost the race to another miss (or a just-completed load): share its result.
+            coalesced.increment();
+            return existing.value.get();
+        }
+        misses.increment();
+        loading.incrementAndGet();
+        inserted(mine);
+        // The load belongs to no caller, so cancelling the one that started it fails nobody else.
+        Thread.ofVirtual().name("cache-load").start(() -> {
+            V value;
+            try {
+                value = loadValue(key);
+            } catch (Throwable t) {
+                // Any Throwable, Errors included: drop the entry so the next miss retries, and fail the
+                // shared future so every caller coalesced on it gets the cause.
+                entries.remove(key, mine);
+                loading.decrementAndGet();
+                mine.value.completeExceptionally(t);
+                return;
+            }
+            mine.loadedNanos = System.nanoTime();
+            // Counted as loaded before any waiter wakes, so a waiter's next miss sees the real size.
+            loading.decrementAndGet();
+            mine.value.complete(value);
+        });
+        return mine.value.get();
+    }
+
+    /** Without coalescing every concurrent miss calls the loader; the last one to finish wins. */
+    private V loadAlone(K key) throws InterruptedException, ExecutionException {
+        misses.increment();
+        V value;
+        try {
+            value = loadValue(key);
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+        Entry loaded = completed(key, value);
+        entries.put(key, loaded);
+        inserted(loaded);
+        return value;
+    }
+
+    private void refresh(Entry stale) {
+        if (!stale.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshes.increment();
+        Thread.ofVirtual().name("cache-refresh").start(() -> {
+            try {
+                Entry fresh = completed(stale.key, loadValue(stale.key));
+                if (entries.replace(stale.key, stale, fresh)) {
+                    inserted(fresh);
+                }
+            } catch (Exception e) {
+                // Keep serving the current value until it expires; the next hit retries.
+                stale.refreshing.set(false);
+            }
+        });
+    }
+
+    private V loadValue(K key) throws Exception {
+        loads.increment();
+        try {
+            return loader.load(key);
+        } catch (Exception e) {
+            loadFailures.increment();
+            throw e;
+        }
+    }
+
+    private Entry completed(K key, V value) {
+        Entry entry = new Entry(key, CompletableFuture.completedFuture(value));
+        entry.loadedNanos = System.nanoTime();
+        return entry;
+    }
+
+    private void inserted(Entry entry) {
+        clock.add(entry);
+        clockSize.incrementAndGet();
+        if (overflow() > 0 || clockSize.get() > 2L * entries.size() + 64) {
+            sweep();
+        }
+    }
+
+    /** Loaded entries beyond the maximum size. */
+    private long overflow() {
+        return entries.size() - loading.get() - config.maximumSize();
+    }
+
+    /**
+     * Evicts down to the maximum size and drops stale ring slots. One sweeper at a time; others
+     * skip, so the read and load paths never wait for eviction.
+     */
+    private void sweep() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Work is proportional to the overflow and the stale slots, not to the ring: when more loads
+            // are in flight than the cache may hold, nothing is evictable and a full lap would be wasted.
+            long budget = 64 + 4 * Math.max(0, overflow()) + Math.max(0, clockSize.get() - 2L * entries.size());
+            while ((overflow() > 0 || clockSize.get() > 2L * entries.size() + 64)
+                    && budget-- > 0) {
+                Entry candidate = clock.poll();
+                if (candidate == null) {
+                    break;
+                }
+                clockSize.decrementAndGet();
+                if (entries.get(candidate.key) != candidate) {
+                    continue; // replaced, expired or failed since it was queued
+                }
+                boolean overSize = overflow() > 0;
+                if (!overSize || candidate.referenced || !candidate.value.isDone()) {
+                    // Second chance: clear the bit and move it to the back. When only pruning stale
+                    // slots the bit is left alone.
+                    if (overSize) {
+                        candidate.referenced = false;
+                    }
+                    clock.add(candidate);
+                    clockSize.incrementAndGet();
+                    continue;
+                }
+                if (entries.remove(candidate.key, candidate)) {
+                    evictions.increment();
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+}
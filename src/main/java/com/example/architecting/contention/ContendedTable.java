@@ -0,0 +1,32 @@
+package com.example.architecting.contention;
+
+/**
+ * A small table of counters shared by every thread in a contention run. Each operation holds
+ * the strategy's guard for a busy-spun "critical section" of {@code criticalSectionNanos},
+ * standing in for real work on shared state.
+ */
+public interface ContendedTable {
+
+    String name();
+
+    void increment(int key, long criticalSectionNanos);
+
+    long read(int key, long criticalSectionNanos);
+
+    /**
+     * Sum of all counters; only meaningful once every writer has finished.
+     */
+    long total();
+
+    /**
+     * Busy-spins for {@code nanos}, the body of a critical section.
+     */
+    static void spin(long nanos) {
+        if (nanos > 0) {
+            long end = System.nanoTime() + nanos;
+            while (System.nanoTime() < end) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
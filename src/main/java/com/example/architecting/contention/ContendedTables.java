@@ -0,0 +1,328 @@
+package com.example.architecting.contention;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The {@link ContendedTable} strategies compared by {@link ContentionBenchmark}.
+ */
+public final class ContendedTables {
+
+    public enum Strategy {
+        /** One monitor guarding the whole table. */
+        SYNCHRONIZED,
+        /** One non-fair {@link ReentrantLock}: barging allowed, best throughput, no ordering. */
+        REENTRANT_UNFAIR,
+        /** One fair {@link ReentrantLock}: FIFO hand-off, every acquisition may park. */
+        REENTRANT_FAIR,
+        /** {@link StampedLock}: exclusive writes, optimistic reads validated after the fact. */
+        STAMPED_OPTIMISTIC,
+        /** One lock per stripe of keys, so writers only collide on the same stripe. */
+        STRIPED,
+        /** Lock-free compare-and-set retry loops; a conflicting write repeats the critical section. */
+        CAS,
+        /** {@link LongAdder} per key: no shared cache line to fight over, no critical section to protect. */
+        LONG_ADDER
+    }
+
+    private ContendedTables() {
+    }
+
+    /**
+     * @param keys    Number of counters in the table.
+     * @param stripes Locks used by {@link Strategy#STRIPED}; ignored otherwise.
+     */
+    public static ContendedTable create(Strategy strategy, int keys, int stripes) {
+        return switch (strategy) {
+            case SYNCHRONIZED -> new SynchronizedTable(keys);
+            case REENTRANT_UNFAIR -> new LockTable(keys, false);
+            case REENTRANT_FAIR -> new LockTable(keys, true);
+            case STAMPED_OPTIMISTIC -> new StampedTable(keys);
+            case STRIPED -> new StripedTable(keys, stripes);
+            case CAS -> new CasTable(keys);
+            case LONG_ADDER -> new AdderTable(keys);
+        };
+    }
+
+    private static final class SynchronizedTable implements ContendedTable {
+
+        private final long[] counters;
+
+        SynchronizedTable(int keys) {
+            this.counters = new long[keys];
+        }
+
+        @Override
+        public String name() {
+            return "synchronized";
+        }
+
+        @Override
+        public synchronized void increment(int key, long criticalSectionNanos) {
+            ContendedTable.spin(criticalSectionNanos);
+            counters[key]++;
+        }
+
+        @Override
+        public synchronized long read(int key, long criticalSectionNanos) {
+            ContendedTable.spin(criticalSectionNanos);
+            return counters[key];
+        }
+
+        @Override
+        public synchronized long total() {
+            long total = 0;
+            for (long counter : counters) {
+                total += counter;
+            }
+            return total;
+        }
+    }
+
+    private static final class LockTable implements ContendedTable {
+
+        private final long[] counters;
+        private final ReentrantLock lock;
+
+        LockTable(int keys, boolean fair) {
+            this.counters = new long[keys];
+            this.lock = new ReentrantLock(fair);
+        }
+
+        @Override
+        public String name() {
+            return lock.isFair() ? "ReentrantLock (fair)" : "ReentrantLock (unfair)";
+        }
+
+        @Override
+        public void increment(int key, long criticalSectionNanos) {
+            lock.lock();
+            try {
+                ContendedTable.spin(criticalSectionNanos);
+                counters[key]++;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public long read(int key, long criticalSectionNanos) {
+            lock.lock();
+            try {
+                ContendedTable.spin(criticalSectionNanos);
+                return counters[key];
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public long total() {
+            lock.lock();
+            try {
+                long total = 0;
+                for (long counter : counters) {
+                    total += counter;
+                }
+                return total;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class StampedTable implements ContendedTable {
+
+        private final long[] counters;
+        private final StampedLock lock = new StampedLock();
+
+        StampedTable(int keys) {
+            this.counters = new long[keys];
+        }
+
+        @Override
+        public String name() {
+            return "StampedLock (optimistic reads)";
+        }
+
+        @Override
+        public void increment(int key, long criticalSectionNanos) {
+            long stamp = lock.writeLock();
+            try {
+                ContendedTable.spin(criticalSectionNanos);
+                counters[key]++;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        @Override
+        public long read(int key, long criticalSectionNanos) {
+            long stamp = lock.tryOptimisticRead();
+            ContendedTable.spin(criticalSectionNanos);
+            long value = counters[key];
+            if (lock.validate(stamp)) {
+                return value;
+            }
+            // A writer got in; fall back to a real read lock.
+            stamp = lock.readLock();
+            try {
+                ContendedTable.spin(criticalSectionNanos);
+                return counters[key];
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        @Override
+        public long total() {
+            long stamp = lock.readLock();
+            try {
+                long total = 0;
+                for (long counter : counters) {
+                    total += counter;
+                }
+                return total;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    private static final class StripedTable implements ContendedTable {
+
+        private final long[] counters;
+        private final ReentrantLock[] stripes;
+
+        StripedTable(int keys, int stripeCount) {
+            this.counters = new long[keys];
+            this.stripes = new ReentrantLock[Math.max(1, Math.min(stripeCount, keys))];
+            for (int i = 0; i < stripes.length; i++) {
+                stripes[i] = new ReentrantLock();
+            }
+        }
+
+        @Override
+        public String name() {
+            return "Striped locks (" + stripes.length + ")";
+        }
+
+        @Override
+        public void increment(int key, long criticalSectionNanos) {
+            ReentrantLock stripe = stripes[key % stripes.length];
+            stripe.lock();
+            try {
+                ContendedTable.spin(criticalSectionNanos);
+                counters[key]++;
+            } finally {
+                stripe.unlock();
+            }
+        }
+
+        @Override
+        public long read(int key, long criticalSectionNanos) {
+            ReentrantLock stripe = stripes[key % stripes.length];
+            stripe.lock();
+            try {
+                ContendedTable.spin(criticalSectionNanos);
+                return counters[key];
+            } finally {
+                stripe.unlock();
+            }
+        }
+
+        @Override
+        public long total() {
+            long total = 0;
+            for (int key = 0; key < counters.length; key++) {
+                ReentrantLock stripe = stripes[key % stripes.length];
+                stripe.lock();
+                try {
+                    total += counters[key];
+                } finally {
+                    stripe.unlock();
+                }
+            }
+            return total;
+        }
+    }
+
+    private static final class CasTable implements ContendedTable {
+
+        private final AtomicLongArray counters;
+
+        CasTable(int keys) {
+            this.counters = new AtomicLongArray(keys);
+        }
+
+        @Override
+        public String name() {
+            return "CAS (AtomicLongArray)";
+        }
+
+        @Override
+        public void increment(int key, long criticalSectionNanos) {
+            long current;
+            do {
+                current = counters.get(key);
+                ContendedTable.spin(criticalSectionNanos);
+            } while (!counters.compareAndSet(key, current, current + 1));
+        }
+
+        @Override
+        public long read(int key, long criticalSectionNanos) {
+            ContendedTable.spin(criticalSectionNanos);
+            return counters.get(key);
+        }
+
+        @Override
+        public long total() {
+            long total = 0;
+            for (int key = 0; key < counters.length(); key++) {
+                total += counters.get(key);
+            }
+            return total;
+        }
+    }
+
+    private static final class AdderTable implements ContendedTable {
+
+        private final LongAdder[] counters;
+
+        AdderTable(int keys) {
+            this.counters = new LongAdder[keys];
+            for (int i = 0; i < keys; i++) {
+                counters[i] = new LongAdder();
+            }
+        }
+
+        @Override
+        public String name() {
+            return "LongAdder";
+        }
+
+        @Override
+        public void increment(int key, long criticalSectionNanos) {
+            // The work does not depend on the current value, so it runs outside any guard.
+            ContendedTable.spin(criticalSectionNanos);
+            counters[key].increment();
+        }
+
+        @Override
+        public long read(int key, long criticalSectionNanos) {
+            ContendedTable.spin(criticalSectionNanos);
+            return counters[key].sum();
+        }
+
+        @Override
+        public long total() {
+            long total = 0;
+            for (LongAdder counter : counters) {
+                total += counter.sum();
+            }
+            return total;
+        }
+    }
+}
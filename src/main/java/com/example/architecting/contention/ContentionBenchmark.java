@@ -0,0 +1,195 @@
+package com.example.architecting.contention;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.example.architecting.throughput.LatencyHistogram;
+import com.example.architecting.throughput.LatencyStats;
+
+/**
+ * Thousands of virtual threads hammering one shared {@link ContendedTable} for a fixed duration.
+ * Reports, per strategy:
+ * <ul>
+ * <li><b>throughput</b>: operations per second across all threads,</li>
+ * <li><b>fairness</b>: Jain's index over per-thread operation counts (1.0 = every thread got the
+ * same share, 1/n = one thread got everything) and the min/max share,</li>
+ * <li><b>operation latency</b>: time from asking for the guard to finishing the operation, whose
+ * tail shows starvation that the average hides.</li>
+ * </ul>
+ * <p>
+ * Usage: {@code ContentionBenchmark [threads] [criticalSectionMicros] [readPercent] [keys] [seconds]}
+ */
+public class ContentionBenchmark {
+
+    /**
+     * @param threads         Virtual threads contending.
+     * @param duration        Measured run time per strategy.
+     * @param keys            Counters in the shared table; fewer keys means more collisions.
+     * @param criticalSection Work done while holding the guard.
+     * @param readPercent     Share of operations that are reads, 0-100.
+     * @param stripes         Locks for {@link ContendedTables.Strategy#STRIPED}.
+     */
+    public record Config(int threads, Duration duration, int keys, Duration criticalSection, int readPercent,
+            int stripes) {
+
+        public static Config defaults() {
+            return new Config(2_000, Duration.ofSeconds(3), 64, Duration.ofNanos(1_000), 50, 16);
+        }
+    }
+
+    /**
+     * @param fairness Jain's fairness index over per-thread operation counts.
+     * @param minShare Fewest operations completed by one thread, relative to the mean.
+     * @param maxShare Most operations completed by one thread, relative to the mean.
+     */
+    public record Result(String strategy, long operations, double operationsPerSecond, double fairness,
+            double minShare, double maxShare, LatencyStats latency) {
+
+        @Override
+        public String toString() {
+            return String.format("[%s] %d ops, %.0f ops/sec, fairness %.3f (min %.2fx, max %.2fx mean)%n"
+                    + "  op latency: %s", strategy, operations, operationsPerSecond, fairness, minShare, maxShare,
+                    latency);
+        }
+    }
+
+    private final Config config;
+
+    public ContentionBenchmark(Config config) {
+        this.config = config;
+    }
+
+    public static void main(String[] args) {
+        Config defaults = Config.defaults();
+        Config config = new Config(
+                args.length > 0 ? Integer.parseInt(args[0]) : defaults.threads(),
+                args.length > 4 ? Duration.ofSeconds(Long.parseLong(args[4])) : defaults.duration(),
+                args.length > 3 ? Integer.parseInt(args[3]) : defaults.keys(),
+                args.length > 1 ? Duration.ofNanos(Long.parseLong(args[1]) * 1_000) : defaults.criticalSection(),
+                args.length > 2 ? Integer.parseInt(args[2]) : defaults.readPercent(),
+                defaults.stripes());
+
+        System.out.println("==================================================");
+        System.out.println("      Shared-State Contention Benchmark           ");
+        System.out.println("==================================================");
+        System.out.println("  Virtual Threads: " + config.threads());
+        System.out.println("  Critical Section: " + config.criticalSection().toNanos() / 1_000 + "µs");
+        System.out.println("  Reads: " + config.readPercent() + "%");
+        System.out.println("  Keys: " + config.keys());
+        System.out.println("  Duration: " + config.duration().toSeconds() + "s per strategy");
+        System.out.println("==================================================\n");
+
+        ContentionBenchmark benchmark = new ContentionBenchmark(config);
+        List<Result> results = new ArrayList<>();
+        for (ContendedTables.Strategy strategy : ContendedTables.Strategy.values()) {
+            Result result = benchmark.run(strategy);
+            System.out.println(result);
+            results.add(result);
+        }
+
+        System.out.println("\n==================================================");
+        System.out.println("Summary (op latency in ms):");
+        System.out.printf("%-32s: %12s %9s %9s %9s %9s%n", "Strategy", "ops/sec", "fairness", "p50", "p99",
+                "max");
+        for (Result result : results) {
+            System.out.printf("%-32s: %12.0f %9.3f %9.3f %9.3f %9.3f%n", result.strategy(),
+                    result.operationsPerSecond(), result.fairness(),
+                    LatencyStats.toMillis(result.latency().p50Nanos()),
+                    LatencyStats.toMillis(result.latency().p99Nanos()),
+                    LatencyStats.toMillis(result.latency().maxNanos()));
+        }
+        System.out.println("==================================================");
+    }
+
+    /**
+     * Runs every thread against one fresh table of the given strategy until the duration elapses.
+     *
+     * @throws IllegalStateException if the table lost increments.
+     */
+    public Result run(ContendedTables.Strategy strategy) {
+        ContendedTable table = ContendedTables.create(strategy, config.keys(), config.stripes());
+        long criticalSectionNanos = config.criticalSection().toNanos();
+        long[] operationsPerThread = new long[config.threads()];
+        long[] incrementsPerThread = new long[config.threads()];
+        LatencyHistogram latency = new LatencyHistogram();
+        CountDownLatch startGate = new CountDownLatch(1);
+        // One deadline for everyone, published by the start gate: a per-thread deadline would let
+        // threads that get a carrier late keep running after the others have stopped.
+        AtomicLong deadline = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread[] threads = new Thread[config.threads()];
+
+        for (int i = 0; i < threads.length; i++) {
+            int index = i;
+            threads[i] = Thread.ofVirtual().unstarted(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long operations = 0;
+                long increments = 0;
+                try {
+                    startGate.await();
+                    long end = deadline.get();
+                    long now;
+                    while ((now = System.nanoTime()) < end) {
+                        int key = random.nextInt(config.keys());
+                        if (random.nextInt(100) < config.readPercent()) {
+                            table.read(key, criticalSectionNanos);
+                        } else {
+                            table.increment(key, criticalSectionNanos);
+                            increments++;
+                        }
+                        latency.recordValue(System.nanoTime() - now);
+                        operations++;
+                    }
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    operationsPerThread[index] = operations;
+                    incrementsPerThread[index] = increments;
+                }
+            });
+            threads[i].start();
+        }
+
+        long start = System.nanoTime();
+        deadline.set(start + config.duration().toNanos());
+        startGate.countDown();
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        if (failure.get() != null) {
+            throw new RuntimeException(table.name() + " failed", failure.get());
+        }
+
+        long operations = 0;
+        long increments = 0;
+        double sumOfSquares = 0;
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = 0; i < threads.length; i++) {
+            operations += operationsPerThread[i];
+            increments += incrementsPerThread[i];
+            sumOfSquares += (double) operationsPerThread[i] * operationsPerThread[i];
+            min = Math.min(min, operationsPerThread[i]);
+            max = Math.max(max, operationsPerThread[i]);
+        }
+        if (table.total() != increments) {
+            throw new IllegalStateException(table.name() + " lost updates: " + table.total() + " != " + increments);
+        }
+
+        double mean = (double) operations / threads.length;
+        double fairness = sumOfSquares == 0 ? 1.0 : (double) operations * operations / (threads.length * sumOfSquares);
+        return new Result(table.name(), operations, operations / (elapsedNanos / 1e9), fairness,
+                mean == 0 ? 0 : min / mean, mean == 0 ? 0 : max / mean, latency.snapshot());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.architecting.context;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Footprint and lookup cost of carrying a {@link RequestContext} across {@code threads} parked
+ * virtual threads (1M by default), forked from one {@code StructuredTaskScope}:
+ * <ul>
+ * <li><b>ThreadLocal</b>: every thread sets its own copy, the usual "request filter" pattern; each
+ * thread grows its own {@code ThreadLocalMap}.</li>
+ * <li><b>InheritableThreadLocal</b>: the parent sets it once and every child copies the parent's
+ * map at creation.</li>
+ * <li><b>ScopedValue</b>: the parent binds it once and every subtask shares the binding.</li>
+ * </ul>
+ * Heap is measured after GC while all threads are parked; the {@code NONE} row is the cost of the
+ * parked threads themselves, so the context cost is the difference to it.
+ * <p>
+ * Usage: {@code ContextPropagationBenchmark [threads] [lookupsPerThread]} (run with a large heap,
+ * e.g. {@code -Xmx4g}).
+ */
+public class ContextPropagationBenchmark {
+
+    public enum Mode {
+        NONE, THREAD_LOCAL, INHERITABLE_THREAD_LOCAL, SCOPED_VALUE
+    }
+
+    public record Result(Mode mode, int threads, double heapBytesPerThread, double lookupNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%-26s: %8.1f bytes/thread %8.2f ns/lookup", mode, heapBytesPerThread,
+                    lookupNanos);
+        }
+    }
+
+    private static final ThreadLocal<RequestContext> THREAD_LOCAL = new ThreadLocal<>();
+    private static final InheritableThreadLocal<RequestContext> INHERITABLE = new InheritableThreadLocal<>();
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        System.out.println("==================================================");
+        System.out.println("      Context Propagation Benchmark               ");
+        System.out.println("==================================================");
+        System.out.println("  Virtual Threads: " + threads);
+        System.out.println("  Lookups per Thread: " + lookups);
+        System.out.println("==================================================\n");
+
+        // Warm up lookup paths and the scope machinery before measuring.
+        for (Mode mode : Mode.values()) {
+            run(mode, Math.min(threads, 10_000), lookups);
+        }
+        for (Mode mode : Mode.values()) {
+            System.out.println(run(mode, threads, lookups));
+        }
+    }
+
+    public static Result run(Mode mode, int threads, int lookups) throws InterruptedException {
+        RequestContext context = RequestContext.withTimeout("req-1", "tenant-1", Duration.ofMinutes(10));
+        CountDownLatch parked = new CountDownLatch(threads);
+        CountDownLatch release = new CountDownLatch(1);
+        LongAdder lookupNanos = new LongAdder();
+        LongAdder sink = new LongAdder();
+
+        Runnable task = () -> {
+            if (mode == Mode.THREAD_LOCAL) {
+                THREAD_LOCAL.set(new RequestContext(context.requestId(), context.tenant(), context.deadline()));
+            }
+            parked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long sum = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                sum += lookup(mode, context).requestId().length();
+            }
+            lookupNanos.add(System.nanoTime() - start);
+            sink.add(sum);
+            if (mode == Mode.THREAD_LOCAL) {
+                THREAD_LOCAL.remove();
+            }
+        };
+
+        long baseline = usedHeapAfterGc();
+        long parkedHeap = switch (mode) {
+            case NONE, THREAD_LOCAL -> fanOut(threads, task, parked, release);
+            case INHERITABLE_THREAD_LOCAL -> {
+                INHERITABLE.set(context);
+                try {
+                    yield fanOut(threads, task, parked, release);
+                } finally {
+                    INHERITABLE.remove();
+                }
+            }
+            case SCOPED_VALUE -> context.call(() -> fanOut(threads, task, parked, release));
+        };
+
+        if (sink.sum() != (long) threads * lookups * context.requestId().length()) {
+            throw new IllegalStateException(mode + ": lookups returned the wrong context");
+        }
+        return new Result(mode, threads, (double) (parkedHeap - baseline) / threads,
+                (double) lookupNanos.sum() / ((long) threads * lookups));
+    }
+
+    private static RequestContext lookup(Mode mode, RequestContext context) {
+        return switch (mode) {
+            case NONE -> context;
+            case THREAD_LOCAL -> THREAD_LOCAL.get();
+            case INHERITABLE_THREAD_LOCAL -> INHERITABLE.get();
+            case SCOPED_VALUE -> RequestContext.require();
+        };
+    }
+
+    /**
+     * Forks {@code threads} subtasks, measures heap once they are all parked, then releases them.
+     */
+    private static long fanOut(int threads, Runnable task, CountDownLatch parked, CountDownLatch release)
+            throws InterruptedException {
+        try (var scope = StructuredTaskScope.open()) {
+            for (int i = 0; i < threads; i++) {
+                scope.fork(task);
+            }
+            parked.await();
+            long heap = usedHeapAfterGc();
+            release.countDown();
+            scope.join();
+            return heap;
+        }
+    }
+
+    private static long usedHeapAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.architecting.context;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Per-request context (request id, tenant, deadline) carried in a {@link ScopedValue}.
+ * <p>
+ * Unlike a {@code ThreadLocal}, the binding is immutable, lives exactly as long as the
+ * {@link #run}/{@link #call} frame that created it, and is shared rather than copied with
+ * subtasks forked from a {@code StructuredTaskScope} opened inside that frame. A million child
+ * threads cost one binding, not a million map entries.
+ */
+public record RequestContext(String requestId, String tenant, Instant deadline) {
+
+    private static final ScopedValue<RequestContext> CURRENT = ScopedValue.newInstance();
+
+    public static RequestContext withTimeout(String requestId, String tenant, Duration timeout) {
+        return new RequestContext(requestId, tenant, Instant.now().plus(timeout));
+    }
+
+    /**
+     * Runs {@code op} with this context bound for the current thread and any structured subtasks.
+     */
+    public void run(Runnable op) {
+        ScopedValue.where(CURRENT, this).run(op);
+    }
+
+    /**
+     * Calls {@code op} with this context bound for the current thread and any structured subtasks.
+     */
+    public <T, X extends Throwable> T call(ScopedValue.CallableOp<? extends T, X> op) throws X {
+        return ScopedValue.where(CURRENT, this).call(op);
+    }
+
+    /**
+     * The context bound by the nearest enclosing {@link #run}/{@link #call}, if any.
+     */
+    public static Optional<RequestContext> current() {
+        return CURRENT.isBound() ? Optional.of(CURRENT.get()) : Optional.empty();
+    }
+
+    /**
+     * The context bound for this thread.
+     *
+     * @throws IllegalStateException if called outside a request.
+     */
+    public static RequestContext require() {
+        return CURRENT.orElseThrow(() -> new IllegalStateException("no RequestContext bound"));
+    }
+
+    /**
+     * Time left before the deadline; zero once it has passed.
+     */
+    public Duration remaining() {
+        Duration remaining = Duration.between(Instant.now(), deadline);
+        return remaining.isNegative() ? Duration.ZERO : remaining;
+    }
+
+    public boolean isExpired() {
+        return !Instant.now().isBefore(deadline);
+    }
+
+    /**
+     * The smaller of {@code timeout} and the bound request's remaining time, so nested fan-outs
+     * never outlive the request that started them.
+     */
+    public static Duration remainingOr(Duration timeout) {
+        return current().map(RequestContext::remaining)
+                .filter(remaining -> remaining.compareTo(timeout) < 0)
+                .orElse(timeout);
+    }
+}
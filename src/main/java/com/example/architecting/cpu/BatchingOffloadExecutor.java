@@ -0,0 +1,157 @@
+package com.example.architecting.cpu;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Offloads small CPU jobs from many virtual threads to a work-stealing {@link ForkJoinPool} in
+ * batches.
+ * <p>
+ * With plain {@code pool.submit(job).get()} every job pays its own queue hop into the pool. Here
+ * jobs go onto a lock-free queue and a single drain task, scheduled only when none is pending,
+ * takes everything that accumulated (up to {@code maxBatchSize}) and runs it as one
+ * {@link RecursiveAction}. Idle workers steal halves of the batch, so a batch is still spread
+ * across all cores. There is no linger timer: batches form naturally while the previous drain
+ * is queued or running, so a lightly loaded executor adds no delay.
+ */
+public final class BatchingOffloadExecutor {
+
+    /** Below this many jobs a batch slice runs on the current worker instead of forking. */
+    private static final int SEQUENTIAL_THRESHOLD = 4;
+
+    private final ForkJoinPool pool;
+    private final int maxBatchSize;
+    private final ConcurrentLinkedQueue<Job<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+    private final AtomicInteger queueDepth = new AtomicInteger();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final AtomicInteger maxBatch = new AtomicInteger();
+
+    /**
+     * @param pool         Pool the batches run on; owned by the caller.
+     * @param maxBatchSize Upper bound on jobs taken by one drain.
+     */
+    public BatchingOffloadExecutor(ForkJoinPool pool, int maxBatchSize) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive");
+        }
+        this.pool = pool;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Runs {@code job} on the pool and blocks (parks the calling virtual thread) until it completes.
+     */
+    public <T> T compute(Callable<T> job) throws InterruptedException, ExecutionException {
+        return submit(job).get();
+    }
+
+    public <T> CompletableFuture<T> submit(Callable<T> job) {
+        Job<T> future = new Job<>(job);
+        queue.add(future);
+        submitted.increment();
+        maxQueueDepth.accumulateAndGet(queueDepth.incrementAndGet(), Math::max);
+        scheduleDrain();
+        return future;
+    }
+
+    public Metrics metrics() {
+        long batchCount = batches.sum();
+        long jobs = submitted.sum();
+        return new Metrics(jobs, batchCount, batchCount == 0 ? 0 : (double) (jobs - queueDepth.get()) / batchCount,
+                maxBatch.get(), queueDepth.get(), maxQueueDepth.get());
+    }
+
+    /**
+     * @param averageBatchSize Jobs per drain so far; 1.0 means no batching happened.
+     * @param queueDepth       Jobs currently waiting for a drain.
+     */
+    public record Metrics(long submitted, long batches, double averageBatchSize, int maxBatchSize, int queueDepth,
+            int maxQueueDepth) {
+
+        @Override
+        public String toString() {
+            return String.format("  offload: %d jobs in %d batches (avg %.1f, max %d), queue depth %d (max %d)",
+                    submitted, batches, averageBatchSize, maxBatchSize, queueDepth, maxQueueDepth);
+        }
+    }
+
+    private void scheduleDrain() {
+        if (!queue.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+            pool.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        List<Job<?>> batch = new ArrayList<>(Math.min(maxBatchSize, Math.max(1, queueDepth.get())));
+        Job<?> job;
+        while (batch.size() < maxBatchSize && (job = queue.poll()) != null) {
+            batch.add(job);
+        }
+        queueDepth.addAndGet(-batch.size());
+
+        // Let the next batch start forming (and run on other workers) while this one executes.
+        drainScheduled.set(false);
+        scheduleDrain();
+
+        if (!batch.isEmpty()) {
+            batches.increment();
+            maxBatch.accumulateAndGet(batch.size(), Math::max);
+            new BatchAction(batch, 0, batch.size()).invoke();
+        }
+    }
+
+    private static final class BatchAction extends RecursiveAction {
+        private final List<Job<?>> jobs;
+        private final int from;
+        private final int to;
+
+        private BatchAction(List<Job<?>> jobs, int from, int to) {
+            this.jobs = jobs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                for (int i = from; i < to; i++) {
+                    jobs.get(i).run();
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BatchAction(jobs, from, mid), new BatchAction(jobs, mid, to));
+        }
+    }
+
+    /**
+     * A queued job; completing it wakes the virtual thread blocked in {@link #compute}.
+     */
+    private static final class Job<T> extends CompletableFuture<T> {
+        private final Callable<T> callable;
+
+        private Job(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        private void run() {
+            try {
+                complete(callable.call());
+            } catch (Throwable t) {
+                completeExceptionally(t);
+            }
+        }
+    }
+}
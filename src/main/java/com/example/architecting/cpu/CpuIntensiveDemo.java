@@ -11,6 +11,11 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 
+import com.example.architecting.metrics.LiveMetrics;
+import com.example.architecting.throughput.ResultExporter;
+import com.example.architecting.throughput.TaskLatencyRecorder;
+import com.example.architecting.throughput.TaskSimulator;
+
 /**
  * Demonstrates that Virtual Threads offer no advantage (and potentially slight
  * overhead)
@@ -18,40 +23,72 @@ import java.util.concurrent.Future;
  */
 public class CpuIntensiveDemo {
 
+    private static final int FIB_NUMBER = 40; // Adjusted to 40 to be reasonable but heavy
+
     public static void main(String[] args) throws InterruptedException, ExecutionException {
-        int taskCount = 100; // Number of CPU heavy tasks
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            int taskCount = 100; // Number of CPU heavy tasks
 
-        System.out.println("==================================================");
-        System.out.println("      CPU-Intensive Workload Comparison           ");
-        System.out.println("==================================================");
-        System.out.println("Task: Calculate Fibonacci(45) recursively");
-        System.out.println("Task Count: " + taskCount);
-        System.out.println("==================================================");
+            System.out.println("==================================================");
+            System.out.println("      CPU-Intensive Workload Comparison           ");
+            System.out.println("==================================================");
+            System.out.println("Task: Calculate Fibonacci(" + FIB_NUMBER + ") recursively");
+            System.out.println("Task Count: " + taskCount);
+            System.out.println("==================================================");
 
-        // 1. Platform Threads (ForkJoinPool - optimized for CPU)
-        runDemo("Platform Threads (ForkJoinPool)", ForkJoinPool.commonPool(), taskCount);
+            List<TaskSimulator.SimulationResult> results = new ArrayList<>();
 
-        // 2. Virtual Threads
-        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            runDemo("Virtual Threads", executor, taskCount);
-        }
+            // 1. Platform Threads (ForkJoinPool - optimized for CPU)
+            results.add(runDemo("Platform Threads (ForkJoinPool)", ForkJoinPool.commonPool(), taskCount,
+                    FIB_NUMBER));
 
-        // 3. Platform Threads (Fixed Pool - standard)
-        try (var executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
-            runDemo("Platform Threads (Fixed Pool)", executor, taskCount);
+            // 2. Virtual Threads
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                results.add(runDemo("Virtual Threads", executor, taskCount, FIB_NUMBER));
+            }
+
+            // 3. Platform Threads (Fixed Pool - standard)
+            try (var executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+                results.add(runDemo("Platform Threads (Fixed Pool)", executor, taskCount, FIB_NUMBER));
+            }
+
+            ResultExporter exporter = new ResultExporter("CpuIntensiveDemo")
+                    .config("tasks", taskCount)
+                    .config("fibNumber", FIB_NUMBER);
+            results.forEach(exporter::add);
+            exporter.writeAndReport();
         }
     }
 
-    private static void runDemo(String name, ExecutorService executor, int taskCount)
+    /**
+     * Runs {@code taskCount} independent naive Fibonacci({@code fibNumber}) tasks on the given executor.
+     *
+     * @return Wall-clock time until every task completed, with the per-task latencies.
+     */
+    public static TaskSimulator.SimulationResult runDemo(String name, ExecutorService executor, int taskCount,
+            int fibNumber)
             throws InterruptedException, ExecutionException {
+        return runDemo(name, executor, taskCount, fibNumber, new NaiveFibonacci());
+    }
+
+    /**
+     * Runs {@code taskCount} independent Fibonacci({@code fibNumber}) tasks computed with {@code strategy}.
+     *
+     * @return Wall-clock time until every task completed, with the per-task latencies.
+     */
+    public static TaskSimulator.SimulationResult runDemo(String name, ExecutorService executor, int taskCount,
+            int fibNumber, FibonacciStrategy strategy) throws InterruptedException, ExecutionException {
         System.out.println("\nStarting " + name + "...");
 
+        TaskLatencyRecorder recorder = new TaskLatencyRecorder(name);
+        Instant start = Instant.now();
+        Callable<Long> task = recorder.timed(System.nanoTime(), () -> strategy.compute(fibNumber));
         List<Callable<Long>> tasks = new ArrayList<>();
         for (int i = 0; i < taskCount; i++) {
-            tasks.add(() -> fibonacci(40)); // Adjusted to 40 to be reasonable but heavy
+            tasks.add(task);
         }
 
-        Instant start = Instant.now();
+        recorder.submitted(taskCount);
         List<Future<Long>> futures = executor.invokeAll(tasks);
 
         // Ensure all finished
@@ -62,13 +99,12 @@ public class CpuIntensiveDemo {
         Instant end = Instant.now();
         Duration duration = Duration.between(start, end);
 
-        System.out.printf("[%s] Completed in %d ms%n", name, duration.toMillis());
-    }
+        // From nanoseconds: the fast strategies finish a single request well under a millisecond.
+        double throughput = taskCount * 1_000_000_000.0 / Math.max(1, duration.toNanos());
 
-    // Naive recursive implementation to burn CPU
-    private static long fibonacci(int n) {
-        if (n <= 1)
-            return n;
-        return fibonacci(n - 1) + fibonacci(n - 2);
+        System.out.printf("[%s] Completed in %d ms%n", name, duration.toMillis());
+        System.out.println(recorder.report());
+        return new TaskSimulator.SimulationResult(name, taskCount, duration.toMillis(), throughput,
+                recorder.report());
     }
 }
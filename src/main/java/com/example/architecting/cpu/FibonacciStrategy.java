@@ -0,0 +1,24 @@
+package com.example.architecting.cpu;
+
+/**
+ * A way of computing Fibonacci numbers, used as the CPU work in the CPU-bound demos.
+ */
+public interface FibonacciStrategy {
+
+    /** Largest n whose Fibonacci number fits in a {@code long}. */
+    int MAX_N = 92;
+
+    String name();
+
+    /**
+     * @param n Index in the range [0, {@link #MAX_N}].
+     * @return The n-th Fibonacci number, with {@code fib(0) = 0} and {@code fib(1) = 1}.
+     */
+    long compute(int n);
+
+    static void checkIndex(int n) {
+        if (n < 0 || n > MAX_N) {
+            throw new IllegalArgumentException("n must be in [0, " + MAX_N + "]: " + n);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.architecting.cpu;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+import com.example.architecting.metrics.LiveMetrics;
+import com.example.architecting.throughput.ResultExporter;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * Compares Fibonacci strategies on platform pools and virtual threads, for a single request and
+ * for many concurrent requests.
+ * <p>
+ * With one request, cross-request parallelism has nothing to spread, so only the fork-join
+ * strategy (work splitting inside the request) uses more than one core. With many requests the
+ * cores are already busy and splitting mostly adds overhead. Iterative and matrix strategies show
+ * that picking the right algorithm dwarfs either kind of parallelism.
+ */
+public class FibonacciStrategyDemo {
+
+    private static final int FIB_NUMBER = 38;
+
+    private record Row(String strategy, String executor, TaskSimulator.SimulationResult result) {
+
+        /** Wall-clock time; from the throughput, as {@code totalTimeMillis} truncates sub-millisecond runs. */
+        double millis() {
+            return result.taskCount() * 1_000 / result.throughputPerSecond();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            int cpus = Runtime.getRuntime().availableProcessors();
+
+            System.out.println("==================================================");
+            System.out.println("      Fibonacci Strategy Comparison               ");
+            System.out.println("==================================================");
+            System.out.println("Task: Fibonacci(" + FIB_NUMBER + "), CPUs: " + cpus);
+            System.out.println("==================================================");
+
+            List<Row> rows = new ArrayList<>();
+            try (ForkJoinPool splitPool = new ForkJoinPool(cpus)) {
+                List<FibonacciStrategy> strategies = List.of(new NaiveFibonacci(), new ForkJoinFibonacci(splitPool),
+                        new IterativeFibonacci(), new MatrixFibonacci());
+
+                for (int requests : new int[] { 1, cpus * 4 }) {
+                    for (FibonacciStrategy strategy : strategies) {
+                        rows.add(run(strategy, "Platform (Fixed Pool)", requests,
+                                () -> Executors.newFixedThreadPool(cpus)));
+                        rows.add(run(strategy, "Virtual Threads", requests,
+                                Executors::newVirtualThreadPerTaskExecutor));
+                    }
+                }
+            }
+
+            System.out.println("\n==================================================");
+            System.out.printf("%-28s %-22s %9s %12s%n", "Strategy", "Executor", "Requests", "Time (ms)");
+            for (Row row : rows) {
+                System.out.printf("%-28s %-22s %9d %12.3f%n", row.strategy(), row.executor(),
+                        row.result().taskCount(), row.millis());
+            }
+            System.out.println("==================================================");
+
+            ResultExporter exporter = new ResultExporter("FibonacciStrategyDemo")
+                    .config("fibNumber", FIB_NUMBER);
+            rows.forEach(row -> exporter.add(row.result()));
+            exporter.writeAndReport();
+        }
+    }
+
+    private static Row run(FibonacciStrategy strategy, String executorName, int requests,
+            Supplier<ExecutorService> executorFactory) throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = executorFactory.get()) {
+            TaskSimulator.SimulationResult result = CpuIntensiveDemo.runDemo(
+                    strategy.name() + " on " + executorName + " x" + requests, executor, requests, FIB_NUMBER,
+                    strategy);
+            return new Row(strategy.name(), executorName, result);
+        }
+    }
+}
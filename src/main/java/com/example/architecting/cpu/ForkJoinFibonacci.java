@@ -0,0 +1,60 @@
+package com.example.architecting.cpu;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The naive recursion split into {@link RecursiveTask}s, so a single request uses every core.
+ * <p>
+ * Below {@code sequentialThreshold} a subtask recurses sequentially; forking tiny subproblems
+ * would cost more than computing them. Called from a virtual thread, {@link #compute} parks the
+ * virtual thread while the pool's workers do the work.
+ */
+public final class ForkJoinFibonacci implements FibonacciStrategy {
+
+    public static final int DEFAULT_THRESHOLD = 30;
+
+    private final ForkJoinPool pool;
+    private final int sequentialThreshold;
+
+    public ForkJoinFibonacci(ForkJoinPool pool) {
+        this(pool, DEFAULT_THRESHOLD);
+    }
+
+    public ForkJoinFibonacci(ForkJoinPool pool, int sequentialThreshold) {
+        this.pool = pool;
+        this.sequentialThreshold = Math.max(1, sequentialThreshold);
+    }
+
+    @Override
+    public String name() {
+        return "Fork-Join (threshold " + sequentialThreshold + ")";
+    }
+
+    @Override
+    public long compute(int n) {
+        FibonacciStrategy.checkIndex(n);
+        return pool.invoke(new FibonacciTask(n, sequentialThreshold));
+    }
+
+    private static final class FibonacciTask extends RecursiveTask<Long> {
+        private final int n;
+        private final int threshold;
+
+        private FibonacciTask(int n, int threshold) {
+            this.n = n;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (n <= threshold) {
+                return NaiveFibonacci.fibonacci(n);
+            }
+            FibonacciTask left = new FibonacciTask(n - 1, threshold);
+            left.fork();
+            long right = new FibonacciTask(n - 2, threshold).compute();
+            return right + left.join();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.architecting.cpu;
+
+/**
+ * Bottom-up memoization: keeps only the last two values, O(n) time and O(1) space.
+ */
+public final class IterativeFibonacci implements FibonacciStrategy {
+
+    @Override
+    public String name() {
+        return "Iterative";
+    }
+
+    @Override
+    public long compute(int n) {
+        FibonacciStrategy.checkIndex(n);
+        long previous = 0;
+        long current = 1;
+        for (int i = 0; i < n; i++) {
+            long next = previous + current;
+            previous = current;
+            current = next;
+        }
+        return previous;
+    }
+}
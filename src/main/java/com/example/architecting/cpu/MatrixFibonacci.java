@@ -0,0 +1,40 @@
+package com.example.architecting.cpu;
+
+/**
+ * Matrix exponentiation: {@code [[1,1],[1,0]]^n = [[fib(n+1), fib(n)], [fib(n), fib(n-1)]]},
+ * computed by repeated squaring in O(log n) multiplications.
+ */
+public final class MatrixFibonacci implements FibonacciStrategy {
+
+    @Override
+    public String name() {
+        return "Matrix Exponentiation";
+    }
+
+    @Override
+    public long compute(int n) {
+        FibonacciStrategy.checkIndex(n);
+        // Result starts as the identity, base as [[1,1],[1,0]]; both are symmetric 2x2 matrices,
+        // so three entries (a b / b d) describe each one.
+        long ra = 1, rb = 0, rd = 1;
+        long ba = 1, bb = 1, bd = 0;
+        for (int e = n; e > 0; e >>= 1) {
+            if ((e & 1) != 0) {
+                long a = ra * ba + rb * bb;
+                long b = ra * bb + rb * bd;
+                long d = rb * bb + rd * bd;
+                ra = a;
+                rb = b;
+                rd = d;
+            }
+            // The final squaring may overflow, but its result is never used.
+            long a = ba * ba + bb * bb;
+            long b = ba * bb + bb * bd;
+            long d = bb * bb + bd * bd;
+            ba = a;
+            bb = b;
+            bd = d;
+        }
+        return rb;
+    }
+}
@@ -5,12 +5,22 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.Future;
 
+import com.example.architecting.limiter.AdaptiveConcurrencyLimiter;
+import com.example.architecting.limiter.AimdLimit;
+import com.example.architecting.limiter.ConcurrencyLimiter;
+import com.example.architecting.metrics.LiveMetrics;
+import com.example.architecting.pool.ConnectionPool;
+import com.example.architecting.throughput.ResultExporter;
+import com.example.architecting.throughput.StreamingSubmitter;
+import com.example.architecting.throughput.TaskLatencyRecorder;
+import com.example.architecting.throughput.TaskSimulator;
+
 /**
  * Demonstrates the "Offloading" pattern for mixed workloads (I/O + CPU).
  * 
@@ -26,59 +36,168 @@ public class MixedWorkloadDemo {
             .newFixedThreadPool(Runtime.getRuntime().availableProcessors());
 
     public static void main(String[] args) throws InterruptedException, ExecutionException {
-        int taskCount = 1000;
-        Duration ioDuration = Duration.ofMillis(10);
-        int fibNumber = 20; // Light CPU work, but enough to matter if multiplied
-
-        System.out.println("==================================================");
-        System.out.println("      Mixed Workload Comparison (Offloading)      ");
-        System.out.println("==================================================");
-        System.out.println("Task: 10ms I/O -> Fib(" + fibNumber + ") -> 10ms I/O");
-        System.out.println("Task Count: " + taskCount);
-        System.out.println("==================================================");
-
-        // 1. Pure Virtual Threads (Everything on VT)
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            int taskCount = 1000;
+            Duration ioDuration = Duration.ofMillis(10);
+            int fibNumber = 20; // Light CPU work, but enough to matter if multiplied
+
+            System.out.println("==================================================");
+            System.out.println("      Mixed Workload Comparison (Offloading)      ");
+            System.out.println("==================================================");
+            System.out.println("Task: 10ms I/O -> Fib(" + fibNumber + ") -> 10ms I/O");
+            System.out.println("Task Count: " + taskCount);
+            System.out.println("==================================================");
+
+            List<TaskSimulator.SimulationResult> results = new ArrayList<>();
+
+            // 1. Pure Virtual Threads (Everything on VT)
+            results.add(runPureVirtual(taskCount, ioDuration, fibNumber));
+
+            // 2. Offloading Pattern (VT for I/O, Platform for CPU)
+            results.add(runOffloaded(taskCount, ioDuration, fibNumber, CPU_POOL));
+
+            // 3. Offloading Pattern with the downstream I/O behind an adaptive limiter
+            ConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                    new AimdLimit(20, 1_000, 0.9, ioDuration.multipliedBy(2)));
+            results.add(runOffloadedLimited(taskCount, ioDuration, fibNumber, CPU_POOL, limiter));
+
+            // 4. Batched Offloading (many VTs' CPU jobs share one work-stealing submission)
+            try (ForkJoinPool batchPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors())) {
+                results.add(runBatchedOffload(taskCount, ioDuration, fibNumber,
+                        new BatchingOffloadExecutor(batchPool, 256)));
+            }
+
+            // 5. Offloading Pattern with each I/O call holding a pooled connection
+            ConnectionPool pool = new ConnectionPool(ConnectionPool.Config.of(50)
+                    .withAcquireTimeout(Duration.ofSeconds(5))
+                    .withValidationCost(Duration.ofMillis(1)));
+            results.add(runOffloadedPooled(taskCount, ioDuration, fibNumber, CPU_POOL, pool));
+
+            CPU_POOL.shutdown();
+
+            ResultExporter exporter = new ResultExporter("MixedWorkloadDemo")
+                    .config("tasks", taskCount)
+                    .config("ioMillis", ioDuration.toMillis())
+                    .config("fibNumber", fibNumber);
+            results.forEach(exporter::add);
+            exporter.writeAndReport();
+        }
+    }
+
+    /**
+     * Runs I/O -> Fib -> I/O entirely on virtual threads; the CPU part occupies the carrier.
+     */
+    public static TaskSimulator.SimulationResult runPureVirtual(int taskCount, Duration ioDuration, int fibNumber)
+            throws InterruptedException, ExecutionException {
+        return runPureVirtual(taskCount, ioDuration, fibNumber, StreamingSubmitter.UNBOUNDED);
+    }
+
+    public static TaskSimulator.SimulationResult runPureVirtual(int taskCount, Duration ioDuration, int fibNumber,
+            int maxInFlight) throws InterruptedException, ExecutionException {
         try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            runDemo("Pure Virtual Threads", executor, taskCount, () -> {
+            return runDemo("Pure Virtual Threads", executor, taskCount, maxInFlight, () -> {
                 simulateIO(ioDuration);
                 fibonacci(fibNumber); // CPU work on VT (Carrier)
                 simulateIO(ioDuration);
                 return null;
             });
         }
+    }
+
+    /**
+     * Runs I/O on virtual threads and offloads the Fibonacci step to {@code cpuPool}.
+     */
+    public static TaskSimulator.SimulationResult runOffloaded(int taskCount, Duration ioDuration, int fibNumber,
+            ExecutorService cpuPool) throws InterruptedException, ExecutionException {
+        return runOffloaded(taskCount, ioDuration, fibNumber, cpuPool, StreamingSubmitter.UNBOUNDED);
+    }
 
-        // 2. Offloading Pattern (VT for I/O, Platform for CPU)
+    public static TaskSimulator.SimulationResult runOffloaded(int taskCount, Duration ioDuration, int fibNumber,
+            ExecutorService cpuPool, int maxInFlight) throws InterruptedException, ExecutionException {
         try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
-            runDemo("Offloading Pattern", executor, taskCount, () -> {
+            return runDemo("Offloading Pattern", executor, taskCount, maxInFlight, () -> {
                 simulateIO(ioDuration);
 
                 // Offload CPU work to dedicated pool
-                Future<Long> cpuResult = CPU_POOL.submit(() -> fibonacci(fibNumber));
+                Future<Long> cpuResult = cpuPool.submit(() -> fibonacci(fibNumber));
                 cpuResult.get(); // Await result (blocks VT, not Carrier)
 
                 simulateIO(ioDuration);
                 return null;
             });
         }
+    }
 
-        CPU_POOL.shutdown();
+    /**
+     * Offloading pattern with both I/O calls guarded by {@code ioLimiter}, so the downstream
+     * dependency never sees more concurrent calls than the limiter currently allows.
+     */
+    public static TaskSimulator.SimulationResult runOffloadedLimited(int taskCount, Duration ioDuration, int fibNumber,
+            ExecutorService cpuPool, ConcurrencyLimiter ioLimiter) throws InterruptedException, ExecutionException {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            TaskSimulator.SimulationResult result = runDemo("Offloading Pattern + " + ioLimiter.name() + " Limit",
+                    executor, taskCount, StreamingSubmitter.UNBOUNDED, () -> {
+                        limitedIO(ioLimiter, ioDuration);
+                        cpuPool.submit(() -> fibonacci(fibNumber)).get();
+                        limitedIO(ioLimiter, ioDuration);
+                        return null;
+                    });
+            System.out.println("  final limit: " + ioLimiter.limit());
+            return result;
+        }
     }
 
-    private static void runDemo(String name, ExecutorService executor, int taskCount, Callable<Void> task)
-            throws InterruptedException, ExecutionException {
-        System.out.println("\nStarting " + name + "...");
+    /**
+     * Offloading pattern where both I/O calls hold a connection from {@code pool}, so throughput
+     * is bounded by the pool rather than by thread count.
+     */
+    public static TaskSimulator.SimulationResult runOffloadedPooled(int taskCount, Duration ioDuration, int fibNumber,
+            ExecutorService cpuPool, ConnectionPool pool) throws InterruptedException, ExecutionException {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            TaskSimulator.SimulationResult result = runDemo("Offloading Pattern + Pool of " + pool.config().size(),
+                    executor, taskCount, StreamingSubmitter.UNBOUNDED, () -> {
+                        pool.withConnection(() -> {
+                            simulateIO(ioDuration);
+                            return null;
+                        });
+                        cpuPool.submit(() -> fibonacci(fibNumber)).get();
+                        pool.withConnection(() -> {
+                            simulateIO(ioDuration);
+                            return null;
+                        });
+                        return null;
+                    });
+            System.out.println(pool.metrics());
+            return result;
+        }
+    }
 
-        List<Callable<Void>> tasks = new ArrayList<>();
-        for (int i = 0; i < taskCount; i++) {
-            tasks.add(task);
+    /**
+     * Offloading pattern where the Fibonacci step goes through a {@link BatchingOffloadExecutor},
+     * amortizing the hand-off into the CPU pool across concurrently arriving requests.
+     */
+    public static TaskSimulator.SimulationResult runBatchedOffload(int taskCount, Duration ioDuration, int fibNumber,
+            BatchingOffloadExecutor offload) throws InterruptedException, ExecutionException {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            TaskSimulator.SimulationResult result = runDemo("Batched Offloading", executor, taskCount,
+                    StreamingSubmitter.UNBOUNDED, () -> {
+                        simulateIO(ioDuration);
+                        offload.compute(() -> fibonacci(fibNumber));
+                        simulateIO(ioDuration);
+                        return null;
+                    });
+            System.out.println(offload.metrics());
+            return result;
         }
+    }
 
-        Instant start = Instant.now();
-        List<Future<Void>> futures = executor.invokeAll(tasks);
+    private static TaskSimulator.SimulationResult runDemo(String name, ExecutorService executor, int taskCount,
+            int maxInFlight, Callable<Void> task) throws InterruptedException, ExecutionException {
+        System.out.println("\nStarting " + name + "...");
 
-        for (Future<Void> f : futures) {
-            f.get();
-        }
+        TaskLatencyRecorder recorder = new TaskLatencyRecorder(name);
+        Instant start = Instant.now();
+        new StreamingSubmitter(maxInFlight).submitAll(executor, taskCount, task, recorder);
 
         Instant end = Instant.now();
         Duration duration = Duration.between(start, end);
@@ -88,6 +207,9 @@ public class MixedWorkloadDemo {
         double throughput = taskCount / seconds;
 
         System.out.printf("[%s] Time: %d ms, Throughput: %.2f tasks/sec%n", name, duration.toMillis(), throughput);
+        System.out.println(recorder.report());
+        return new TaskSimulator.SimulationResult(name, taskCount, duration.toMillis(), throughput,
+                recorder.report());
     }
 
     private static void simulateIO(Duration duration) {
@@ -98,6 +220,13 @@ public class MixedWorkloadDemo {
         }
     }
 
+    private static void limitedIO(ConcurrencyLimiter limiter, Duration duration) throws Exception {
+        limiter.call(() -> {
+            simulateIO(duration);
+            return null;
+        });
+    }
+
     private static long fibonacci(int n) {
         if (n <= 1)
             return n;
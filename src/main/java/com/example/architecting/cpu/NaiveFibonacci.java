@@ -0,0 +1,24 @@
+package com.example.architecting.cpu;
+
+/**
+ * Exponential recursion. Deliberately wasteful: it is the "burn CPU" workload of the demos.
+ */
+public final class NaiveFibonacci implements FibonacciStrategy {
+
+    @Override
+    public String name() {
+        return "Naive Recursive";
+    }
+
+    @Override
+    public long compute(int n) {
+        FibonacciStrategy.checkIndex(n);
+        return fibonacci(n);
+    }
+
+    static long fibonacci(int n) {
+        if (n <= 1)
+            return n;
+        return fibonacci(n - 1) + fibonacci(n - 2);
+    }
+}
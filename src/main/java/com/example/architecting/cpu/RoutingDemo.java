@@ -0,0 +1,150 @@
+package com.example.architecting.cpu;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.example.architecting.metrics.LiveMetrics;
+import com.example.architecting.throughput.LatencyStats;
+import com.example.architecting.throughput.ResultExporter;
+import com.example.architecting.throughput.TaskLatencyRecorder;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * Runs a mix of I/O-bound, mixed and CPU-bound task types three ways: everything on virtual
+ * threads, routed by hand (CPU type to a {@link ForkJoinPool}, the rest to virtual threads), and
+ * routed by a {@link RoutingExecutor} that has to work out the classification itself.
+ * <p>
+ * Usage: {@code RoutingDemo [taskCount] [ioMillis] [cpuFibNumber]}
+ */
+public class RoutingDemo {
+
+    /** Task types in submission order; every tenth task is CPU-bound and two in ten are mixed. */
+    private static final String[] MIX = { "io", "io", "mixed", "io", "cpu", "io", "io", "mixed", "io", "io" };
+
+    @FunctionalInterface
+    private interface Dispatcher {
+        Future<?> submit(String type, Callable<?> task);
+    }
+
+    private record Outcome(String name, long millis, double throughput,
+            Map<String, TaskLatencyRecorder.LatencyReport> latency) {
+
+        /**
+         * One result per task type, so each type's latency is exported on its own row.
+         */
+        List<TaskSimulator.SimulationResult> toSimulationResults() {
+            List<TaskSimulator.SimulationResult> results = new ArrayList<>();
+            latency.forEach((type, report) -> {
+                int tasks = Math.toIntExact(report.endToEnd().count());
+                results.add(new TaskSimulator.SimulationResult(name + " / " + type, tasks, millis,
+                        tasks / (millis / 1000.0), report));
+            });
+            return results;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+            Duration ioDuration = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 10);
+            int cpuFib = args.length > 2 ? Integer.parseInt(args[2]) : 25;
+            int cores = Runtime.getRuntime().availableProcessors();
+
+            System.out.println("==================================================");
+            System.out.println("      Auto-Classifying Routing Executor           ");
+            System.out.println("==================================================");
+            System.out.println("Task Count: " + taskCount + ", types: io = " + ioDuration.toMillis()
+                    + "ms I/O, mixed = " + ioDuration.toMillis() + "ms I/O + Fib(15), cpu = Fib(" + cpuFib + ")");
+            System.out.println("==================================================");
+
+            FibonacciStrategy fibonacci = new NaiveFibonacci();
+            Map<String, Callable<?>> tasks = Map.of(
+                    "io", () -> {
+                        Thread.sleep(ioDuration);
+                        return null;
+                    },
+                    "mixed", () -> {
+                        Thread.sleep(ioDuration);
+                        return fibonacci.compute(15);
+                    },
+                    "cpu", () -> fibonacci.compute(cpuFib));
+
+            List<Outcome> outcomes = new ArrayList<>();
+            try (ForkJoinPool cpuPool = new ForkJoinPool(cores)) {
+                // 1. Everything on virtual threads: CPU tasks hold carriers the I/O tasks need to resume on
+                try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+                    outcomes.add(run("All Virtual Threads", taskCount, tasks, (type, task) -> virtual.submit(task)));
+                }
+
+                // 2. Hand-routed, as in MixedWorkloadDemo
+                try (ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor()) {
+                    outcomes.add(run("Hand-Routed", taskCount, tasks,
+                            (type, task) -> type.equals("cpu") ? cpuPool.submit(task) : virtual.submit(task)));
+                }
+
+                // 3. Routed on measured CPU time / wall time
+                try (RoutingExecutor router = new RoutingExecutor(cpuPool)) {
+                    outcomes.add(run("Auto-Routed", taskCount, tasks, router::submit));
+                    System.out.println(router.metrics());
+                }
+            }
+
+            System.out.println("\n==================================================");
+            System.out.println("Summary (Tasks/Sec, end-to-end p99 per type in ms):");
+            System.out.printf("%-25s %12s %10s %10s %10s%n", "Model", "Tasks/Sec", "io", "mixed", "cpu");
+            for (Outcome outcome : outcomes) {
+                System.out.printf("%-25s %12.2f %10.2f %10.2f %10.2f%n", outcome.name(), outcome.throughput(),
+                        p99Millis(outcome, "io"), p99Millis(outcome, "mixed"), p99Millis(outcome, "cpu"));
+            }
+            System.out.println("==================================================");
+
+            ResultExporter exporter = new ResultExporter("RoutingDemo")
+                    .config("tasks", taskCount)
+                    .config("ioMillis", ioDuration.toMillis())
+                    .config("cpuFibNumber", cpuFib);
+            outcomes.forEach(outcome -> outcome.toSimulationResults().forEach(exporter::add));
+            exporter.writeAndReport();
+        }
+    }
+
+    private static Outcome run(String name, int taskCount, Map<String, Callable<?>> tasks, Dispatcher dispatcher)
+            throws InterruptedException, ExecutionException {
+        System.out.println("\nStarting " + name + "...");
+        Map<String, TaskLatencyRecorder> recorders = new LinkedHashMap<>();
+        tasks.keySet().forEach(type -> recorders.put(type, new TaskLatencyRecorder(name + " / " + type)));
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            String type = MIX[i % MIX.length];
+            recorders.get(type).submitted();
+            futures.add(dispatcher.submit(type, recorders.get(type).timed(System.nanoTime(), tasks.get(type))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        double throughput = taskCount / (millis / 1000.0);
+        System.out.printf("[%s] Time: %d ms, Throughput: %.2f tasks/sec%n", name, millis, throughput);
+        Map<String, TaskLatencyRecorder.LatencyReport> latency = new LinkedHashMap<>();
+        recorders.forEach((type, recorder) -> {
+            latency.put(type, recorder.report());
+            System.out.printf("  %-6s end-to-end: %s%n", type, latency.get(type).endToEnd());
+        });
+        return new Outcome(name, millis, throughput, latency);
+    }
+
+    private static double p99Millis(Outcome outcome, String type) {
+        return LatencyStats.toMillis(outcome.latency().get(type).endToEnd().p99Nanos());
+    }
+}
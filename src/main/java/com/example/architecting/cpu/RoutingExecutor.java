@@ -0,0 +1,245 @@
+package com.example.architecting.cpu;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Routes each task type to virtual threads or a platform CPU pool based on how much of its wall time
+ * it actually spends on CPU, measured at runtime with {@link ThreadMXBean} CPU time.
+ * <p>
+ * This is the decision flow from {@code THREADING_STRATEGY.md} applied per task type instead of by
+ * hand: blocking types stay on virtual threads, CPU-bound types go to {@code cpuPool} where they
+ * cannot hold a carrier that blocked virtual threads are waiting for. Thread CPU time is not
+ * available for virtual threads ({@code getCurrentThreadCpuTime} returns -1), so a type is profiled
+ * by running its first {@link Config#warmupSamples()} tasks, and then every
+ * {@link Config#reprobeInterval()}-th task, on a dedicated pool of platform probe threads. Tasks
+ * routed to {@code cpuPool} are measured every time. Types start on virtual threads while their
+ * first probes are in flight.
+ * <p>
+ * Wall time includes time spent runnable but waiting for a core, so on a saturated machine the
+ * ratio understates how CPU-bound a type is. The hysteresis band keeps a type near the threshold
+ * from flapping between routes.
+ */
+public final class RoutingExecutor implements AutoCloseable {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    public enum Route {
+        VIRTUAL, PLATFORM
+    }
+
+    /**
+     * @param warmupSamples   Probed runs per type before its route is first decided.
+     * @param reprobeInterval After warm-up, one task in this many is probed again on a virtual route.
+     * @param cpuThreshold    CPU-time / wall-time ratio at which a type counts as CPU-bound.
+     * @param hysteresis      After the first decision, the ratio must cross {@code cpuThreshold} by this
+     *                        much to change route.
+     * @param smoothing       Weight of each new sample in the ratio's moving average.
+     */
+    public record Config(int warmupSamples, int reprobeInterval, double cpuThreshold, double hysteresis,
+            double smoothing) {
+
+        public static Config defaults() {
+            return new Config(8, 128, 0.5, 0.1, 0.2);
+        }
+    }
+
+    /**
+     * @param cpuRatio          Smoothed CPU-time / wall-time ratio.
+     * @param samples           Runs measured (probes plus platform-routed runs).
+     * @param virtual           Tasks run on virtual threads.
+     * @param platform          Tasks run on the CPU pool.
+     * @param probes            Tasks run on probe threads.
+     * @param reclassifications Route changes after the initial decision.
+     */
+    public record TypeMetrics(String type, Route route, double cpuRatio, long samples, long virtual, long platform,
+            long probes, long reclassifications) {
+
+        @Override
+        public String toString() {
+            return String.format("  %-12s -> %-8s cpu/wall %.2f (%d samples), virtual %d, platform %d, probes %d, "
+                    + "reclassified %d", type, route, cpuRatio, samples, virtual, platform, probes, reclassifications);
+        }
+    }
+
+    public record Metrics(List<TypeMetrics> types) {
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder("  routing:");
+            types.forEach(type -> sb.append('\n').append(type));
+            return sb.toString();
+        }
+    }
+
+    private final ExecutorService cpuPool;
+    private final Config config;
+    private final ExecutorService virtualExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ExecutorService probePool = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("route-probe-", 0).daemon().factory());
+    private final Map<String, Profile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * @param cpuPool Platform pool for CPU-bound types; owned by the caller.
+     */
+    public RoutingExecutor(ExecutorService cpuPool, Config config) {
+        if (!THREADS.isCurrentThreadCpuTimeSupported()) {
+            throw new UnsupportedOperationException("Thread CPU time is not supported on this JVM");
+        }
+        THREADS.setThreadCpuTimeEnabled(true);
+        this.cpuPool = cpuPool;
+        this.config = config;
+    }
+
+    public RoutingExecutor(ExecutorService cpuPool) {
+        this(cpuPool, Config.defaults());
+    }
+
+    /**
+     * Runs {@code task} on the executor currently chosen for {@code type}.
+     */
+    public <T> Future<T> submit(String type, Callable<T> task) {
+        Profile profile = profiles.computeIfAbsent(type, Profile::new);
+        return switch (profile.next()) {
+            case PROBE -> probePool.submit(() -> measured(profile, task));
+            case PLATFORM -> cpuPool.submit(() -> measured(profile, task));
+            case VIRTUAL -> virtualExecutor.submit(task);
+        };
+    }
+
+    /**
+     * Runs {@code task} as {@link #submit} does and blocks until it completes.
+     */
+    public <T> T call(String type, Callable<T> task) throws Exception {
+        try {
+            return submit(type, task).get();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    public Route route(String type) {
+        Profile profile = profiles.get(type);
+        return profile == null ? Route.VIRTUAL : profile.metrics().route();
+    }
+
+    public Metrics metrics() {
+        return new Metrics(profiles.values().stream().map(Profile::metrics)
+                .sorted(Comparator.comparing(TypeMetrics::type)).toList());
+    }
+
+    /**
+     * Waits for virtual-thread and probe tasks to finish; {@code cpuPool} is left running.
+     */
+    @Override
+    public void close() {
+        virtualExecutor.close();
+        probePool.close();
+    }
+
+    private static <T> T measured(Profile profile, Callable<T> task) throws Exception {
+        long cpuStart = THREADS.getCurrentThreadCpuTime();
+        long wallStart = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            profile.record(THREADS.getCurrentThreadCpuTime() - cpuStart, System.nanoTime() - wallStart);
+        }
+    }
+
+    private enum Target {
+        VIRTUAL, PLATFORM, PROBE
+    }
+
+    /**
+     * Per-type measurements and routing state. Updates are short; they take a {@link ReentrantLock}
+     * rather than a monitor, as everywhere on the submit path, so a waiting virtual thread parks.
+     */
+    private final class Profile {
+
+        private final String type;
+        private final ReentrantLock lock = new ReentrantLock();
+        private Route route = Route.VIRTUAL;
+        private double cpuRatio;
+        private long samples;
+        private long submissions;
+        private long probesIssued;
+        private long virtual;
+        private long platform;
+        private long reclassifications;
+
+        Profile(String type) {
+            this.type = type;
+        }
+
+        Target next() {
+            lock.lock();
+            try {
+                submissions++;
+                boolean warmingUp = probesIssued < config.warmupSamples();
+                // A platform route is measured on every run, so only virtual routes need fresh probes.
+                if (warmingUp || (route == Route.VIRTUAL && samples >= config.warmupSamples()
+                        && submissions % config.reprobeInterval() == 0)) {
+                    probesIssued++;
+                    return Target.PROBE;
+                }
+                if (route == Route.PLATFORM) {
+                    platform++;
+                    return Target.PLATFORM;
+                }
+                virtual++;
+                return Target.VIRTUAL;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void record(long cpuNanos, long wallNanos) {
+            double ratio = wallNanos <= 0 ? 0 : Math.min(1.0, (double) cpuNanos / wallNanos);
+            lock.lock();
+            try {
+                cpuRatio = samples == 0 ? ratio : cpuRatio + config.smoothing() * (ratio - cpuRatio);
+                samples++;
+                if (samples < config.warmupSamples()) {
+                    return;
+                }
+                Route decided = route;
+                if (samples == config.warmupSamples()) {
+                    decided = cpuRatio >= config.cpuThreshold() ? Route.PLATFORM : Route.VIRTUAL;
+                } else if (route == Route.VIRTUAL && cpuRatio >= config.cpuThreshold() + config.hysteresis()) {
+                    decided = Route.PLATFORM;
+                } else if (route == Route.PLATFORM && cpuRatio < config.cpuThreshold() - config.hysteresis()) {
+                    decided = Route.VIRTUAL;
+                }
+                if (decided != route) {
+                    if (samples > config.warmupSamples()) {
+                        reclassifications++;
+                    }
+                    route = decided;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        TypeMetrics metrics() {
+            lock.lock();
+            try {
+                return new TypeMetrics(type, route, cpuRatio, samples, virtual, platform, probesIssued,
+                        reclassifications);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.architecting.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import jdk.management.VirtualThreadSchedulerMXBean;
+
+/**
+ * Samples the virtual-thread scheduler's carrier pool through {@link VirtualThreadSchedulerMXBean}.
+ * <p>
+ * When a virtual thread makes a blocking call the JDK cannot unmount from (most file-system
+ * calls, for example), the scheduler <em>compensates</em> by temporarily adding a carrier thread
+ * beyond its parallelism. The pool size therefore shows how often a workload forced
+ * compensation; accesses to mapped memory that page-fault block the carrier without any
+ * compensation and show up only as lost throughput.
+ * <p>
+ * Sampling can miss short spikes, so {@link Report#compensations()} is a lower bound. Idle extra
+ * carriers are only retired after a keep-alive, so samplers in back-to-back runs see the pool
+ * already grown.
+ */
+public final class CarrierPoolSampler implements AutoCloseable {
+
+    /**
+     * @param parallelism   Scheduler parallelism (target carrier count).
+     * @param startPoolSize Carrier threads alive when sampling started.
+     * @param peakPoolSize  Most carrier threads observed, including compensating ones.
+     * @param compensations Carriers observed being added beyond parallelism.
+     * @param peakQueued    Most virtual threads observed waiting for a carrier.
+     */
+    public record Report(int parallelism, int startPoolSize, int peakPoolSize, long compensations, long peakQueued) {
+
+        @Override
+        public String toString() {
+            return String.format("  carriers: parallelism %d, pool %d -> peak %d, compensations %d, peak queued %d",
+                    parallelism, startPoolSize, peakPoolSize, compensations, peakQueued);
+        }
+    }
+
+    private final VirtualThreadSchedulerMXBean scheduler = ManagementFactory
+            .getPlatformMXBean(VirtualThreadSchedulerMXBean.class);
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+    // Samples are taken on the sampler thread and once more by stop(), often from a virtual thread.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int parallelism = scheduler.getParallelism();
+    private final int startPoolSize = scheduler.getPoolSize();
+    private int lastPoolSize = startPoolSize;
+    private int peakPoolSize = startPoolSize;
+    private long compensations;
+    private long peakQueued;
+
+    private CarrierPoolSampler(Duration interval) {
+        sampler.scheduleAtFixedRate(this::sample, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public static CarrierPoolSampler start() {
+        return start(Duration.ofMillis(1));
+    }
+
+    public static CarrierPoolSampler start(Duration interval) {
+        return new CarrierPoolSampler(interval);
+    }
+
+    private void sample() {
+        lock.lock();
+        try {
+            int poolSize = scheduler.getPoolSize();
+            int floor = Math.max(lastPoolSize, parallelism);
+            if (poolSize > floor) {
+                compensations += poolSize - floor;
+            }
+            lastPoolSize = poolSize;
+            peakPoolSize = Math.max(peakPoolSize, poolSize);
+            peakQueued = Math.max(peakQueued, scheduler.getQueuedVirtualThreadCount());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops sampling and returns what was observed.
+     */
+    public Report stop() {
+        sampler.shutdownNow();
+        try {
+            sampler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            sample();
+            return new Report(parallelism, startPoolSize, peakPoolSize, compensations, peakQueued);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+}
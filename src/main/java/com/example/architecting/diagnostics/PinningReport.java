@@ -0,0 +1,42 @@
+package com.example.architecting.diagnostics;
+
+import java.util.List;
+
+/**
+ * Virtual-thread scheduling events observed by a {@link VirtualThreadMonitor} during one run.
+ *
+ * @param pinnedCount        {@code jdk.VirtualThreadPinned} events (blocking while pinned above the threshold).
+ * @param totalPinnedNanos   Sum of their durations.
+ * @param maxPinnedNanos     Longest single pin.
+ * @param submitFailedCount  {@code jdk.VirtualThreadSubmitFailed} events (scheduler rejected a continuation).
+ * @param startedCount       {@code jdk.VirtualThreadStart} events, or 0 if lifecycle tracking was off.
+ * @param endedCount         {@code jdk.VirtualThreadEnd} events, or 0 if lifecycle tracking was off.
+ * @param topOffenders       Application frames responsible for the most pinned time, worst first.
+ */
+public record PinningReport(long pinnedCount, long totalPinnedNanos, long maxPinnedNanos, long submitFailedCount,
+        long startedCount, long endedCount, List<Offender> topOffenders) {
+
+    /**
+     * Pinned events attributed to one application frame.
+     *
+     * @param frame       First non-JDK frame of the pinned stack, e.g. {@code com.acme.Dao.load:42}.
+     * @param sampleStack One full (truncated) stack that pinned at this frame.
+     */
+    public record Offender(String frame, long count, long totalPinnedNanos, String sampleStack) {
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format(
+                "  pinning: %d pinned events, total %.3f ms, max %.3f ms, submit failures %d",
+                pinnedCount, totalPinnedNanos / 1_000_000.0, maxPinnedNanos / 1_000_000.0, submitFailedCount));
+        if (startedCount > 0 || endedCount > 0) {
+            sb.append(String.format(", started %d, ended %d", startedCount, endedCount));
+        }
+        for (Offender offender : topOffenders) {
+            sb.append(String.format("%n    %6d x %10.3f ms  %s", offender.count(),
+                    offender.totalPinnedNanos() / 1_000_000.0, offender.frame()));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.architecting.diagnostics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Measures what a blocked thread costs: Java heap and process resident memory (RSS) per thread, with
+ * each thread parked at the bottom of a call stack of a given depth.
+ * <p>
+ * A parked virtual thread's frames are copied into stack-chunk objects on the heap, so its cost
+ * shows up as heap and grows with stack depth. A platform thread's stack lives in native memory
+ * outside the heap; only the pages it has touched count towards RSS, while the kernel thread and
+ * the reserved stack size are what run out first. Heap pages already touched before the test hide
+ * heap growth from RSS, so budgets are checked against the larger of heap and RSS growth (heap
+ * alone where {@code /proc/self/status} does not exist).
+ */
+public final class ThreadFootprint {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    /**
+     * @param threads            Threads parked when measured.
+     * @param stackDepth         Frames on each thread's stack below the park.
+     * @param heapBytesPerThread Heap used after GC, above the baseline, per thread.
+     * @param rssBytesPerThread  Resident set growth per thread, or NaN where RSS is unavailable.
+     */
+    public record Footprint(int threads, int stackDepth, double heapBytesPerThread, double rssBytesPerThread) {
+
+        @Override
+        public String toString() {
+            return String.format("  %8d threads, depth %5d: heap %9.0f B/thread, rss %9s B/thread", threads,
+                    stackDepth, heapBytesPerThread, Double.isNaN(rssBytesPerThread) ? "n/a"
+                            : String.format("%.0f", rssBytesPerThread));
+        }
+    }
+
+    /**
+     * @param sustained  Most threads held parked at once without exceeding the budget.
+     * @param memoryUsed Memory growth (larger of heap and RSS) at {@code sustained} threads.
+     * @param stopReason Why the ramp stopped: budget, thread limit, creation failure or cap.
+     * @param steps      Footprint measured after each ramp step.
+     */
+    public record Ramp(int sustained, long memoryUsed, String stopReason, List<Footprint> steps) {
+
+        @Override
+        public String toString() {
+            return String.format("  max sustainable: %d threads (%.1f MB), stopped: %s", sustained,
+                    memoryUsed / (1024.0 * 1024.0), stopReason);
+        }
+    }
+
+    private final ThreadFactory factory;
+    private final int stackDepth;
+
+    /**
+     * @param factory    Creates the threads to measure (e.g. {@code Thread.ofVirtual().factory()}).
+     * @param stackDepth Frames to descend before parking.
+     */
+    public ThreadFootprint(ThreadFactory factory, int stackDepth) {
+        this.factory = factory;
+        this.stackDepth = stackDepth;
+    }
+
+    /**
+     * Parks {@code threads} threads at the configured depth and measures them.
+     */
+    public Footprint measure(int threads) throws InterruptedException {
+        Baseline baseline = Baseline.take();
+        try (ParkedThreads parked = new ParkedThreads()) {
+            parked.add(threads);
+            return baseline.footprint(parked.size(), stackDepth);
+        }
+    }
+
+    /**
+     * Adds parked threads in steps of {@code step} until memory growth exceeds {@code budgetBytes},
+     * thread creation fails or {@code maxThreads} is reached, keeping every thread parked throughout.
+     */
+    public Ramp ramp(long budgetBytes, int step, int maxThreads) throws InterruptedException {
+        Baseline baseline = Baseline.take();
+        List<Footprint> steps = new ArrayList<>();
+        int sustained = 0;
+        long memoryUsed = 0;
+        String stopReason = "cap of " + maxThreads + " threads";
+        try (ParkedThreads parked = new ParkedThreads()) {
+            while (parked.size() < maxThreads) {
+                try {
+                    parked.add(Math.min(step, maxThreads - parked.size()));
+                } catch (OutOfMemoryError e) {
+                    // Usually "unable to create native thread": the OS thread or memory limit.
+                    stopReason = "thread creation failed (" + e.getMessage() + ")";
+                    break;
+                }
+                Footprint footprint = baseline.footprint(parked.size(), stackDepth);
+                steps.add(footprint);
+                long used = baseline.used();
+                if (used > budgetBytes) {
+                    stopReason = "budget of " + budgetBytes / (1024 * 1024) + " MB";
+                    break;
+                }
+                sustained = parked.size();
+                memoryUsed = used;
+            }
+        }
+        return new Ramp(sustained, memoryUsed, stopReason, List.copyOf(steps));
+    }
+
+    /** Memory readings taken after GC with no test threads alive. */
+    private record Baseline(long heap, long rss) {
+
+        static Baseline take() {
+            collect();
+            return new Baseline(heapUsed(), residentSetSize());
+        }
+
+        /** Growth since the baseline: the larger of heap and RSS growth. */
+        long used() {
+            long heapGrowth = heapUsed() - heap;
+            long rssNow = residentSetSize();
+            return rssNow < 0 ? heapGrowth : Math.max(heapGrowth, rssNow - rss);
+        }
+
+        Footprint footprint(int threads, int stackDepth) {
+            collect();
+            long rssNow = residentSetSize();
+            return new Footprint(threads, stackDepth, (double) (heapUsed() - heap) / threads,
+                    rssNow < 0 ? Double.NaN : (double) (rssNow - rss) / threads);
+        }
+    }
+
+    /** Threads parked on a shared latch, released and joined on close. */
+    private final class ParkedThreads implements AutoCloseable {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<Thread> threads = new ArrayList<>();
+
+        void add(int count) throws InterruptedException {
+            CountDownLatch arrived = new CountDownLatch(count);
+            int started = 0;
+            try {
+                for (; started < count; started++) {
+                    Thread thread = factory.newThread(() -> descend(stackDepth, arrived, release));
+                    thread.start();
+                    threads.add(thread);
+                }
+            } finally {
+                // Threads that could not be started will never arrive.
+                for (int i = started; i < count; i++) {
+                    arrived.countDown();
+                }
+                arrived.await();
+            }
+        }
+
+        int size() {
+            return threads.size();
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            release.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        }
+    }
+
+    private static void descend(int depth, CountDownLatch arrived, CountDownLatch release) {
+        if (depth > 1) {
+            descend(depth - 1, arrived, release);
+            return;
+        }
+        arrived.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void collect() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+    }
+
+    private static long heapUsed() {
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    /** Resident set size in bytes from {@code /proc/self/status}, or -1 where unavailable. */
+    private static long residentSetSize() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Not Linux, or no procfs: fall back to heap only.
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.architecting.diagnostics;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Streams JFR virtual-thread events while a simulation runs and summarizes them as a
+ * {@link PinningReport}.
+ * <p>
+ * Subscribes to {@code jdk.VirtualThreadPinned} (with stack traces), {@code jdk.VirtualThreadSubmitFailed}
+ * and, optionally, {@code jdk.VirtualThreadStart}/{@code jdk.VirtualThreadEnd}. Lifecycle events
+ * fire for every virtual thread and are costly at high task counts, so they are off by default.
+ * Pinned stacks are attributed to their first application (non-JDK) frame, which is normally the
+ * code that needs fixing.
+ */
+public final class VirtualThreadMonitor implements AutoCloseable {
+
+    /** Same default as the {@code jdk.VirtualThreadPinned} event itself. */
+    public static final Duration DEFAULT_PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    private static final int TOP_OFFENDERS = 5;
+    private static final int SAMPLE_STACK_DEPTH = 12;
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.", "com.sun.");
+
+    private final RecordingStream stream = new RecordingStream();
+    private final LongAdder pinnedCount = new LongAdder();
+    private final LongAdder pinnedNanos = new LongAdder();
+    private final AtomicLong maxPinnedNanos = new AtomicLong();
+    private final LongAdder submitFailed = new LongAdder();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder ended = new LongAdder();
+    private final ConcurrentMap<String, OffenderStats> offenders = new ConcurrentHashMap<>();
+
+    private VirtualThreadMonitor(Duration pinnedThreshold, boolean trackLifecycle) {
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(pinnedThreshold).withStackTrace();
+        stream.enable("jdk.VirtualThreadSubmitFailed").withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.onEvent("jdk.VirtualThreadSubmitFailed", event -> submitFailed.increment());
+        if (trackLifecycle) {
+            stream.enable("jdk.VirtualThreadStart").withoutStackTrace();
+            stream.enable("jdk.VirtualThreadEnd").withoutStackTrace();
+            stream.onEvent("jdk.VirtualThreadStart", event -> started.increment());
+            stream.onEvent("jdk.VirtualThreadEnd", event -> ended.increment());
+        }
+    }
+
+    public static VirtualThreadMonitor start() {
+        return start(DEFAULT_PINNED_THRESHOLD, false);
+    }
+
+    /**
+     * @param pinnedThreshold Only pins at least this long are recorded; {@link Duration#ZERO} records all.
+     * @param trackLifecycle  Also count virtual thread start/end events.
+     */
+    public static VirtualThreadMonitor start(Duration pinnedThreshold, boolean trackLifecycle) {
+        VirtualThreadMonitor monitor = new VirtualThreadMonitor(pinnedThreshold, trackLifecycle);
+        monitor.stream.startAsync();
+        return monitor;
+    }
+
+    /**
+     * Runs {@code simulation} under a default monitor and returns its result with the pinning report.
+     */
+    public static <T> Monitored<T> monitor(Supplier<T> simulation) {
+        try (VirtualThreadMonitor monitor = start()) {
+            T result = simulation.get();
+            return new Monitored<>(result, monitor.stop());
+        }
+    }
+
+    /**
+     * A simulation result paired with what the monitor saw while producing it.
+     */
+    public record Monitored<T>(T result, PinningReport pinning) {
+
+        @Override
+        public String toString() {
+            return result + System.lineSeparator() + pinning;
+        }
+    }
+
+    /**
+     * Stops recording, waits for buffered events to be processed and returns the summary.
+     */
+    public PinningReport stop() {
+        stream.stop();
+        List<PinningReport.Offender> top = offenders.entrySet().stream()
+                .map(entry -> new PinningReport.Offender(entry.getKey(), entry.getValue().count.sum(),
+                        entry.getValue().nanos.sum(), entry.getValue().sampleStack))
+                .sorted(Comparator.comparingLong(PinningReport.Offender::totalPinnedNanos).reversed())
+                .limit(TOP_OFFENDERS)
+                .toList();
+        return new PinningReport(pinnedCount.sum(), pinnedNanos.sum(), maxPinnedNanos.get(), submitFailed.sum(),
+                started.sum(), ended.sum(), top);
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        long nanos = event.getDuration().toNanos();
+        pinnedCount.increment();
+        pinnedNanos.add(nanos);
+        maxPinnedNanos.accumulateAndGet(nanos, Math::max);
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String offender = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(VirtualThreadMonitor::describe)
+                .filter(frame -> JDK_PACKAGES.stream().noneMatch(frame::startsWith))
+                .findFirst()
+                .orElse("<no application frame>");
+        OffenderStats stats = offenders.computeIfAbsent(offender, key -> new OffenderStats(sampleStack(frames)));
+        stats.count.increment();
+        stats.nanos.add(nanos);
+    }
+
+    private static String sampleStack(List<RecordedFrame> frames) {
+        return String.join(System.lineSeparator(), frames.stream()
+                .limit(SAMPLE_STACK_DEPTH)
+                .map(frame -> "\tat " + describe(frame))
+                .toList());
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":"
+                + frame.getLineNumber();
+    }
+
+    private static final class OffenderStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final String sampleStack;
+
+        private OffenderStats(String sampleStack) {
+            this.sampleStack = sampleStack;
+        }
+    }
+}
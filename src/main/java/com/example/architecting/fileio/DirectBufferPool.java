@@ -0,0 +1,31 @@
+package com.example.architecting.fileio;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Fixed set of preallocated direct buffers. Handing a heap buffer to a {@code FileChannel} makes
+ * the JDK copy through a temporary direct buffer of its own; pooling them keeps that copy and the
+ * off-heap allocation out of the per-task cost, and caps off-heap memory no matter how many
+ * virtual threads are doing I/O. Borrowers park when the pool is empty.
+ */
+final class DirectBufferPool {
+
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    DirectBufferPool(int count, int bufferSize) {
+        this.buffers = new ArrayBlockingQueue<>(count);
+        for (int i = 0; i < count; i++) {
+            buffers.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+    }
+
+    ByteBuffer borrow() throws InterruptedException {
+        return buffers.take().clear();
+    }
+
+    void release(ByteBuffer buffer) {
+        buffers.add(buffer);
+    }
+}
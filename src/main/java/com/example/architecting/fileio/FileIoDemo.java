@@ -0,0 +1,100 @@
+package com.example.architecting.fileio;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import com.example.architecting.metrics.LiveMetrics;
+import com.example.architecting.throughput.LatencyStats;
+import com.example.architecting.throughput.ResultExporter;
+
+/**
+ * Compares java.io, FileChannel and mapped file access on virtual threads and on a platform pool.
+ * <p>
+ * Usage: {@code FileIoDemo [taskCount] [blockKb] [sync] [directory]}
+ */
+public class FileIoDemo {
+
+    private static final int PLATFORM_THREADS = 32;
+
+    public static void main(String[] args) throws IOException {
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+            int blockKb = args.length > 1 ? Integer.parseInt(args[1]) : 64;
+            boolean sync = args.length > 2 && Boolean.parseBoolean(args[2]);
+            if (args.length > 3) {
+                run(taskCount, blockKb, sync, Path.of(args[3]));
+                return;
+            }
+            // Only a directory created here is deleted afterwards; one the user passed is left as it was.
+            Path directory = Files.createTempDirectory("fileio");
+            try {
+                run(taskCount, blockKb, sync, directory);
+            } finally {
+                deleteRecursively(directory);
+            }
+        }
+    }
+
+    private static void run(int taskCount, int blockKb, boolean sync, Path directory) throws IOException {
+        FileIoModel.Config defaults = FileIoModel.Config.defaults(directory);
+        FileIoModel.Config config = new FileIoModel.Config(directory, defaults.fileCount(), defaults.fileSize(),
+                blockKb * 1024, sync, defaults.bufferPool());
+
+        System.out.println("==================================================");
+        System.out.println("      File I/O Throughput Demo                    ");
+        System.out.println("==================================================");
+        System.out.println("  Tasks: " + taskCount);
+        System.out.println("  Block: " + blockKb + " KB (write + read back)");
+        System.out.println("  Sync: " + sync);
+        System.out.println("  Directory: " + directory);
+        System.out.println("==================================================\n");
+
+        List<FileIoModel.FileIoResult> results = new ArrayList<>();
+        for (FileIoModel.Access access : FileIoModel.Access.values()) {
+            try (FileIoModel model = FileIoModel.virtualThreads(config, access)) {
+                results.add(model.runFileIo(taskCount, Duration.ZERO));
+            }
+            try (FileIoModel model = FileIoModel.platformThreads(config, access, PLATFORM_THREADS)) {
+                results.add(model.runFileIo(taskCount, Duration.ZERO));
+            }
+        }
+        results.forEach(System.out::println);
+
+        System.out.println("\n==================================================");
+        System.out.println("Summary (end-to-end latency in ms):");
+        System.out.printf("%-40s: %9s %9s %9s %11s %13s%n", "Model", "MB/s", "p50", "p99", "peak carr.",
+                "compensations");
+        for (FileIoModel.FileIoResult result : results) {
+            LatencyStats latency = result.simulation().latency().endToEnd();
+            System.out.printf("%-40s: %9.1f %9.2f %9.2f %11d %13d%n", result.simulation().modelName(),
+                    result.bytesPerSecond() / (1024 * 1024), LatencyStats.toMillis(latency.p50Nanos()),
+                    LatencyStats.toMillis(latency.p99Nanos()), result.carriers().peakPoolSize(),
+                    result.carriers().compensations());
+        }
+        System.out.println("==================================================");
+
+        ResultExporter exporter = new ResultExporter("FileIoDemo")
+                .config("tasks", taskCount)
+                .config("blockKb", blockKb)
+                .config("sync", sync)
+                .config("directory", directory)
+                .config("platformThreads", PLATFORM_THREADS);
+        results.forEach(result -> exporter.add(result.simulation()));
+        exporter.writeAndReport();
+    }
+
+    /** Removes {@code directory} with anything a model failed to clean up inside it. */
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
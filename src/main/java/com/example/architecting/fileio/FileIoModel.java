@@ -0,0 +1,256 @@
+package com.example.architecting.fileio;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.architecting.diagnostics.CarrierPoolSampler;
+import com.example.architecting.throughput.AllocationTracker;
+import com.example.architecting.throughput.ExecutorBackedSimulator;
+import com.example.architecting.throughput.StreamingSubmitter;
+import com.example.architecting.throughput.TaskLatencyRecorder;
+
+/**
+ * Task simulator doing real file I/O: each task writes one block to a random slot of one of
+ * {@link Config#fileCount()} preallocated files and reads it back. Real I/O replaces the simulated
+ * I/O phase, so {@code ioDuration} is ignored; {@code cpuDuration} is still spun first.
+ * <p>
+ * File-system calls cannot unmount a virtual thread; the scheduler compensates with extra carriers
+ * instead, which {@link #runFileIo} reports alongside bytes/sec. Mapped access never compensates:
+ * a page fault simply blocks the carrier.
+ */
+public class FileIoModel implements ExecutorBackedSimulator, AutoCloseable {
+
+    public enum Access {
+        /** {@code java.io}: a {@link RandomAccessFile} opened per task, heap {@code byte[]} copies. */
+        JAVA_IO,
+        /** Shared {@link FileChannel}s with positional I/O through pooled direct buffers. */
+        CHANNEL,
+        /** Files mapped once into {@link MemorySegment}s; tasks copy in and out of the mapping. */
+        MAPPED
+    }
+
+    /**
+     * @param directory  Where the working files are created.
+     * @param fileCount  Number of files tasks are spread over.
+     * @param fileSize   Size each file is preallocated to.
+     * @param blockSize  Bytes written and read back per task.
+     * @param sync       Force each write to the device before reading back (spool/log durability).
+     * @param bufferPool Direct buffers shared by {@link Access#CHANNEL} tasks.
+     */
+    public record Config(Path directory, int fileCount, long fileSize, int blockSize, boolean sync, int bufferPool) {
+
+        public static Config defaults(Path directory) {
+            return new Config(directory, 16, 64L * 1024 * 1024, 64 * 1024, false, 256);
+        }
+
+        public Config withSync(boolean sync) {
+            return new Config(directory, fileCount, fileSize, blockSize, sync, bufferPool);
+        }
+
+        long slotsPerFile() {
+            return fileSize / blockSize;
+        }
+    }
+
+    /**
+     * @param bytesTransferred Bytes written plus bytes read.
+     * @param carriers         Carrier compensation observed during the run.
+     */
+    public record FileIoResult(SimulationResult simulation, long bytesTransferred, double bytesPerSecond,
+            CarrierPoolSampler.Report carriers) {
+
+        @Override
+        public String toString() {
+            return simulation + String.format("%n  bytes: %d (%.1f MB/s)%n", bytesTransferred,
+                    bytesPerSecond / (1024 * 1024)) + carriers;
+        }
+    }
+
+    private final Config config;
+    private final Access access;
+    private final boolean virtual;
+    private final int platformThreads;
+    private final Path[] files;
+    private final FileChannel[] channels;
+    private final MemorySegment[] mappings;
+    private final Arena arena = Arena.ofShared();
+    private final DirectBufferPool bufferPool;
+    private final AtomicLong bytesTransferred = new AtomicLong();
+
+    private FileIoModel(Config config, Access access, boolean virtual, int platformThreads) throws IOException {
+        this.config = config;
+        this.access = access;
+        this.virtual = virtual;
+        this.platformThreads = platformThreads;
+        this.files = new Path[config.fileCount()];
+        this.channels = new FileChannel[config.fileCount()];
+        this.mappings = new MemorySegment[config.fileCount()];
+        this.bufferPool = access == Access.CHANNEL ? new DirectBufferPool(config.bufferPool(), config.blockSize())
+                : null;
+        for (int i = 0; i < files.length; i++) {
+            files[i] = config.directory().resolve("fileio-" + access.name().toLowerCase() + "-" + i + ".dat");
+            try (RandomAccessFile file = new RandomAccessFile(files[i].toFile(), "rw")) {
+                file.setLength(config.fileSize());
+            }
+            if (access != Access.JAVA_IO) {
+                channels[i] = FileChannel.open(files[i], StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            if (access == Access.MAPPED) {
+                mappings[i] = channels[i].map(FileChannel.MapMode.READ_WRITE, 0, config.fileSize(), arena);
+            }
+        }
+    }
+
+    public static FileIoModel virtualThreads(Config config, Access access) throws IOException {
+        return new FileIoModel(config, access, true, 0);
+    }
+
+    public static FileIoModel platformThreads(Config config, Access access, int threads) throws IOException {
+        return new FileIoModel(config, access, false, threads);
+    }
+
+    @Override
+    public SimulationResult run(int taskCount, Duration ioDuration, Duration cpuDuration) {
+        return runFileIo(taskCount, cpuDuration).simulation();
+    }
+
+    /**
+     * Runs {@code taskCount} write-then-read tasks and reports bytes/sec and carrier compensation.
+     */
+    public FileIoResult runFileIo(int taskCount, Duration cpuDuration) {
+        System.out.println("Starting " + modelName() + " simulation...");
+
+        bytesTransferred.set(0);
+        try (ExecutorService executor = newExecutor(); CarrierPoolSampler sampler = CarrierPoolSampler.start()) {
+            TaskLatencyRecorder recorder = new TaskLatencyRecorder(modelName());
+            AllocationTracker allocations = AllocationTracker.start();
+            long start = System.currentTimeMillis();
+
+            new StreamingSubmitter(StreamingSubmitter.UNBOUNDED).submitAll(executor, taskCount,
+                    newTask(Duration.ZERO, cpuDuration), recorder);
+
+            long end = System.currentTimeMillis();
+            CarrierPoolSampler.Report carriers = sampler.stop();
+            long totalTime = end - start;
+            double throughput = (double) taskCount / (totalTime / 1000.0);
+            double bytesPerSecond = bytesTransferred.get() / (totalTime / 1000.0);
+
+            return new FileIoResult(new SimulationResult(modelName(), taskCount, totalTime, throughput,
+                    recorder.report(), allocations.stop(taskCount)), bytesTransferred.get(), bytesPerSecond,
+                    carriers);
+        }
+    }
+
+    @Override
+    public String modelName() {
+        String name = "File I/O " + access + (config.sync() ? " +sync" : "");
+        return virtual ? name + " (Virtual)" : name + " (Platform Pool " + platformThreads + ")";
+    }
+
+    @Override
+    public ExecutorService newExecutor() {
+        return virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @Override
+    public Callable<Void> newTask(Duration ioDuration, Duration cpuDuration) {
+        return () -> {
+            if (!cpuDuration.isZero()) {
+                long endCpu = System.nanoTime() + cpuDuration.toNanos();
+                while (System.nanoTime() < endCpu) {
+                    // busy spin
+                }
+            }
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int file = random.nextInt(config.fileCount());
+            long offset = random.nextLong(config.slotsPerFile()) * config.blockSize();
+            switch (access) {
+                case JAVA_IO -> javaIo(file, offset);
+                case CHANNEL -> channel(file, offset);
+                case MAPPED -> mapped(file, offset);
+            }
+            bytesTransferred.addAndGet(2L * config.blockSize());
+            return null;
+        };
+    }
+
+    private void javaIo(int file, long offset) throws IOException {
+        byte[] block = new byte[config.blockSize()];
+        ThreadLocalRandom.current().nextBytes(block);
+        try (RandomAccessFile raf = new RandomAccessFile(files[file].toFile(), "rw")) {
+            raf.seek(offset);
+            raf.write(block);
+            if (config.sync()) {
+                raf.getFD().sync();
+            }
+            raf.seek(offset);
+            raf.readFully(block);
+        }
+    }
+
+    private void channel(int file, long offset) throws IOException, InterruptedException {
+        ByteBuffer buffer = bufferPool.borrow();
+        try {
+            buffer.putLong(0, System.nanoTime());
+            FileChannel channel = channels[file];
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, offset + buffer.position());
+            }
+            if (config.sync()) {
+                channel.force(false);
+            }
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new IOException("unexpected end of " + files[file]);
+                }
+            }
+        } finally {
+            bufferPool.release(buffer);
+        }
+    }
+
+    private void mapped(int file, long offset) {
+        byte[] block = new byte[config.blockSize()];
+        ThreadLocalRandom.current().nextBytes(block);
+        MemorySegment slot = mappings[file].asSlice(offset, config.blockSize());
+        MemorySegment.copy(block, 0, slot, ValueLayout.JAVA_BYTE, 0, block.length);
+        if (config.sync()) {
+            slot.force();
+        }
+        MemorySegment.copy(slot, ValueLayout.JAVA_BYTE, 0, block, 0, block.length);
+    }
+
+    @Override
+    public void close() {
+        try {
+            for (FileChannel channel : channels) {
+                if (channel != null) {
+                    channel.close();
+                }
+            }
+            arena.close();
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.architecting.limiter;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link ConcurrencyLimiter} whose limit is adjusted after every call by a {@link LimitAlgorithm}.
+ * <p>
+ * Uses a {@link ReentrantLock} rather than {@code synchronized} so that waiting callers park
+ * their virtual thread instead of holding a monitor.
+ */
+public final class AdaptiveConcurrencyLimiter implements ConcurrencyLimiter {
+
+    private final LimitAlgorithm algorithm;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitAvailable = lock.newCondition();
+
+    private volatile int limit;
+    private volatile int inFlight;
+
+    public AdaptiveConcurrencyLimiter(LimitAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        this.limit = Math.max(1, algorithm.initialLimit());
+    }
+
+    @Override
+    public String name() {
+        return algorithm.name();
+    }
+
+    @Override
+    public long acquire() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (inFlight >= limit) {
+                permitAvailable.await();
+            }
+            inFlight++;
+        } finally {
+            lock.unlock();
+        }
+        return System.nanoTime();
+    }
+
+    @Override
+    public void release(long acquireNanos, boolean dropped) {
+        long rttNanos = System.nanoTime() - acquireNanos;
+        lock.lock();
+        try {
+            int previous = limit;
+            limit = Math.max(1, algorithm.update(previous, rttNanos, inFlight, dropped));
+            inFlight--;
+            // A raised limit may admit several waiters at once.
+            if (limit > previous) {
+                permitAvailable.signalAll();
+            } else {
+                permitAvailable.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int limit() {
+        return limit;
+    }
+
+    @Override
+    public int inFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.architecting.limiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.architecting.throughput.LatencyHistogram;
+import com.example.architecting.throughput.LatencyStats;
+import com.example.architecting.throughput.ResultExporter;
+import com.example.architecting.throughput.TaskLatencyRecorder;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * Shows an adaptive limiter holding throughput steady while the downstream dependency degrades.
+ * <p>
+ * A fixed population of virtual-thread clients calls a {@link SimulatedDownstream} in a loop.
+ * The run has three phases: normal, degraded (lower capacity, higher latency) and recovered.
+ * Without a limiter every client hits the dependency at once and its overload penalty collapses
+ * throughput; the adaptive limiters keep concurrency near what the dependency can serve.
+ */
+public class AdaptiveLimiterDemo {
+
+    private static final int CLIENTS = 400;
+    private static final Duration PHASE_DURATION = Duration.ofSeconds(3);
+
+    private record Phase(String name, int capacity, Duration baseLatency) {
+    }
+
+    private static final List<Phase> PHASES = List.of(
+            new Phase("normal", 100, Duration.ofMillis(10)),
+            new Phase("degraded", 40, Duration.ofMillis(25)),
+            new Phase("recovered", 100, Duration.ofMillis(10)));
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("==================================================");
+        System.out.println("      Adaptive Concurrency Limiter Demo           ");
+        System.out.println("==================================================");
+        System.out.println("  Clients: " + CLIENTS + " virtual threads");
+        for (Phase phase : PHASES) {
+            System.out.printf("  Phase %-10s capacity %d, base latency %d ms, %d s%n", phase.name(),
+                    phase.capacity(), phase.baseLatency().toMillis(), PHASE_DURATION.toSeconds());
+        }
+        System.out.println("==================================================");
+
+        List<ConcurrencyLimiter> limiters = List.of(
+                ConcurrencyLimiter.unlimited(),
+                new AdaptiveConcurrencyLimiter(new AimdLimit(20, 1_000, 0.9, Duration.ofMillis(30))),
+                new AdaptiveConcurrencyLimiter(new VegasLimit(20, 1_000, 5_000)),
+                new AdaptiveConcurrencyLimiter(new GradientLimit(20, 1_000, 0.2, 5_000)));
+
+        ResultExporter exporter = new ResultExporter("AdaptiveLimiterDemo")
+                .config("clients", CLIENTS)
+                .config("phaseSeconds", PHASE_DURATION.toSeconds());
+        for (ConcurrencyLimiter limiter : limiters) {
+            runScenario(limiter).forEach(exporter::add);
+        }
+        exporter.writeAndReport();
+    }
+
+    /**
+     * Runs every phase against a fresh downstream; one result per phase, with call latency as
+     * end-to-end latency.
+     */
+    private static List<TaskSimulator.SimulationResult> runScenario(ConcurrencyLimiter limiter)
+            throws InterruptedException {
+        System.out.println("\nStarting " + limiter.name() + "...");
+        Phase first = PHASES.getFirst();
+        SimulatedDownstream downstream = new SimulatedDownstream(first.capacity(), first.baseLatency());
+        LongAdder completed = new LongAdder();
+        LatencyHistogram latency = new LatencyHistogram();
+        List<TaskSimulator.SimulationResult> results = new ArrayList<>();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.execute(() -> {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        long start = System.nanoTime();
+                        try {
+                            limiter.call(() -> {
+                                downstream.call();
+                                return null;
+                            });
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                        latency.recordValue(System.nanoTime() - start);
+                        completed.increment();
+                    }
+                });
+            }
+
+            for (Phase phase : PHASES) {
+                downstream.degrade(phase.capacity(), phase.baseLatency());
+                latency.reset();
+                long before = completed.sum();
+                Thread.sleep(PHASE_DURATION);
+                long calls = completed.sum() - before;
+                double throughput = calls / (double) PHASE_DURATION.toSeconds();
+                LatencyStats stats = latency.snapshot();
+                System.out.printf("[%s] %-10s %8.0f calls/sec, p50 %7.1f ms, p99 %7.1f ms, limit %s%n",
+                        limiter.name(), phase.name(), throughput, LatencyStats.toMillis(stats.p50Nanos()),
+                        LatencyStats.toMillis(stats.p99Nanos()),
+                        limiter.limit() == Integer.MAX_VALUE ? "-" : String.valueOf(limiter.limit()));
+                results.add(new TaskSimulator.SimulationResult(limiter.name() + " " + phase.name(),
+                        Math.toIntExact(calls), PHASE_DURATION.toMillis(), throughput,
+                        TaskLatencyRecorder.LatencyReport.ofEndToEnd(stats)));
+            }
+            clients.shutdownNow();
+        }
+        return results;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.architecting.limiter;
+
+import java.time.Duration;
+
+/**
+ * Additive-increase / multiplicative-decrease, as in TCP congestion control.
+ * <p>
+ * The limit grows by one per successful call while the limiter is at least half utilized, and
+ * is multiplied by {@code backoffRatio} when a call is dropped or slower than {@code timeout}.
+ * At most one decrease happens per {@code timeout}: the slow calls that complete right after a
+ * decrease were admitted under the old limit and say nothing about the new one.
+ */
+public final class AimdLimit implements LimitAlgorithm {
+
+    private final int initialLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long timeoutNanos;
+
+    private long lastDecreaseNanos;
+
+    public AimdLimit(int initialLimit, int maxLimit, double backoffRatio, Duration timeout) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be in (0, 1)");
+        }
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.timeoutNanos = timeout.toNanos();
+        // nanoTime() has an arbitrary origin, so 0 could look like a recent decrease; start a full timeout back
+        // so the first slow call may decrease right away.
+        this.lastDecreaseNanos = System.nanoTime() - timeoutNanos;
+    }
+
+    @Override
+    public String name() {
+        return "AIMD";
+    }
+
+    @Override
+    public int initialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int update(int limit, long rttNanos, int inFlight, boolean dropped) {
+        if (dropped || rttNanos > timeoutNanos) {
+            long now = System.nanoTime();
+            if (now - lastDecreaseNanos < timeoutNanos) {
+                return limit;
+            }
+            lastDecreaseNanos = now;
+            return (int) (limit * backoffRatio);
+        }
+        if (inFlight * 2 >= limit) {
+            return Math.min(maxLimit, limit + 1);
+        }
+        return limit;
+    }
+}
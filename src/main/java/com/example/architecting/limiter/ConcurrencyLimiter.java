@@ -0,0 +1,59 @@
+package com.example.architecting.limiter;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Caps the number of concurrent calls to a downstream dependency.
+ * <p>
+ * With virtual threads nothing bounds concurrency by default: every blocked request is a cheap
+ * parked thread, so a slow dependency simply receives more and more concurrent calls. A limiter
+ * makes callers wait (parking their virtual thread, not a carrier) once {@link #limit()} calls
+ * are in flight.
+ */
+public interface ConcurrencyLimiter {
+
+    /**
+     * Blocks until a call may start.
+     *
+     * @return Token to pass to {@link #release}; the time the call was admitted.
+     */
+    long acquire() throws InterruptedException;
+
+    /**
+     * Reports that a call admitted at {@code acquireNanos} finished.
+     *
+     * @param dropped {@code true} if the call failed or timed out (a congestion signal).
+     */
+    void release(long acquireNanos, boolean dropped);
+
+    /** Name used in reports. */
+    String name();
+
+    /** Current concurrency limit. */
+    int limit();
+
+    /** Calls currently admitted. */
+    int inFlight();
+
+    /**
+     * Runs {@code call} under the limiter, reporting it as dropped if it throws.
+     */
+    default <T> T call(Callable<T> call) throws Exception {
+        long token = acquire();
+        boolean dropped = true;
+        try {
+            T result = call.call();
+            dropped = false;
+            return result;
+        } finally {
+            release(token, dropped);
+        }
+    }
+
+    /**
+     * A limiter that never blocks; the default when no limiting is configured.
+     */
+    static ConcurrencyLimiter unlimited() {
+        return new UnlimitedLimiter();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.architecting.limiter;
+
+/**
+ * Gradient limit: compares the no-load latency with each new sample.
+ * <p>
+ * {@code gradient = clamp(tolerance * rttNoLoad / rtt, 0.5, 1.0)} stays at 1 while latency is
+ * within {@code tolerance} times the best latency seen, and falls as the dependency starts
+ * queueing. The new limit is {@code limit * gradient + sqrt(limit)} (the square root leaves
+ * headroom to probe for more capacity), smoothed to avoid oscillation. Like {@link VegasLimit},
+ * the no-load latency is re-learned periodically.
+ */
+public final class GradientLimit implements LimitAlgorithm {
+
+    private static final double TOLERANCE = 2.0;
+
+    private final int initialLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final int probeInterval;
+
+    private long rttNoLoadNanos = Long.MAX_VALUE;
+    private int samplesSinceProbe;
+    private double estimatedLimit;
+
+    /**
+     * @param smoothing     Weight of each new estimate in (0, 1]; lower is steadier.
+     * @param probeInterval Number of samples after which the no-load latency is re-learned.
+     */
+    public GradientLimit(int initialLimit, int maxLimit, double smoothing, int probeInterval) {
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.probeInterval = probeInterval;
+        this.estimatedLimit = initialLimit;
+    }
+
+    @Override
+    public String name() {
+        return "Gradient";
+    }
+
+    @Override
+    public int initialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int update(int limit, long rttNanos, int inFlight, boolean dropped) {
+        if (++samplesSinceProbe >= probeInterval) {
+            samplesSinceProbe = 0;
+            rttNoLoadNanos = rttNanos;
+        }
+        rttNoLoadNanos = Math.min(rttNoLoadNanos, rttNanos);
+
+        double gradient = dropped ? 0.5
+                : Math.clamp(TOLERANCE * rttNoLoadNanos / Math.max(1, rttNanos), 0.5, 1.0);
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+        // Don't grow an under-utilized limit: latency says nothing about capacity we are not using.
+        if (newLimit > estimatedLimit && inFlight * 2 < estimatedLimit) {
+            return limit;
+        }
+        estimatedLimit = Math.clamp(estimatedLimit * (1 - smoothing) + newLimit * smoothing, 1.0, maxLimit);
+        return (int) estimatedLimit;
+    }
+}
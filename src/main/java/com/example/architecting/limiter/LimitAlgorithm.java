@@ -0,0 +1,21 @@
+package com.example.architecting.limiter;
+
+/**
+ * Strategy that derives a new concurrency limit from each completed call.
+ * Implementations are only called under the limiter's lock, so they need not be thread-safe.
+ */
+public interface LimitAlgorithm {
+
+    String name();
+
+    int initialLimit();
+
+    /**
+     * @param limit    Current limit.
+     * @param rttNanos Latency of the call that just completed.
+     * @param inFlight Calls in flight when it completed (including itself).
+     * @param dropped  Whether the call failed or timed out.
+     * @return The new limit; the limiter clamps it to at least 1.
+     */
+    int update(int limit, long rttNanos, int inFlight, boolean dropped);
+}
@@ -0,0 +1,42 @@
+package com.example.architecting.limiter;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A downstream dependency (database, remote service) that degrades under overload.
+ * <p>
+ * Up to {@code capacity} concurrent calls each take {@code baseLatency}. Beyond that the latency
+ * grows quadratically with the overload ratio, modelling thrashing: once overloaded, adding
+ * concurrency lowers throughput instead of just queueing. Capacity and latency can be changed
+ * while running to simulate a degraded dependency.
+ */
+public final class SimulatedDownstream {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int capacity;
+    private volatile long baseLatencyNanos;
+
+    public SimulatedDownstream(int capacity, Duration baseLatency) {
+        degrade(capacity, baseLatency);
+    }
+
+    /**
+     * Changes the dependency's capacity and base latency for all subsequent calls.
+     */
+    public void degrade(int capacity, Duration baseLatency) {
+        this.capacity = capacity;
+        this.baseLatencyNanos = baseLatency.toNanos();
+    }
+
+    public void call() throws InterruptedException {
+        int concurrent = inFlight.incrementAndGet();
+        try {
+            double overload = Math.max(0, concurrent - capacity) / (double) capacity;
+            long latency = (long) (baseLatencyNanos * (1 + overload * overload));
+            Thread.sleep(Duration.ofNanos(latency));
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+}
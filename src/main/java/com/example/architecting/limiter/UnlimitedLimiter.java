@@ -0,0 +1,37 @@
+package com.example.architecting.limiter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * No-op {@link ConcurrencyLimiter} that only counts in-flight calls.
+ */
+final class UnlimitedLimiter implements ConcurrencyLimiter {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Override
+    public String name() {
+        return "Unlimited";
+    }
+
+    @Override
+    public long acquire() {
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    @Override
+    public void release(long acquireNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+    }
+
+    @Override
+    public int limit() {
+        return Integer.MAX_VALUE;
+    }
+
+    @Override
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.architecting.limiter;
+
+/**
+ * Delay-based limit modelled on TCP Vegas.
+ * <p>
+ * The lowest latency seen is taken as the no-load latency. The estimated queue at the
+ * dependency is {@code limit * (1 - rttNoLoad / rtt)}; the limit grows while that queue is
+ * below {@code alpha} and shrinks once it exceeds {@code beta}, both scaled by
+ * {@code log10(limit)} so large limits move faster.
+ */
+public final class VegasLimit implements LimitAlgorithm {
+
+    private static final int ALPHA_FACTOR = 3;
+    private static final int BETA_FACTOR = 6;
+
+    private final int initialLimit;
+    private final int maxLimit;
+    private final int probeInterval;
+
+    private long rttNoLoadNanos = Long.MAX_VALUE;
+    private int samplesSinceProbe;
+
+    /**
+     * @param probeInterval Number of samples after which the no-load latency is re-learned, so a
+     *                      permanent latency shift is not mistaken for queueing forever.
+     */
+    public VegasLimit(int initialLimit, int maxLimit, int probeInterval) {
+        this.initialLimit = initialLimit;
+        this.maxLimit = maxLimit;
+        this.probeInterval = probeInterval;
+    }
+
+    @Override
+    public String name() {
+        return "Vegas";
+    }
+
+    @Override
+    public int initialLimit() {
+        return initialLimit;
+    }
+
+    @Override
+    public int update(int limit, long rttNanos, int inFlight, boolean dropped) {
+        if (++samplesSinceProbe >= probeInterval) {
+            samplesSinceProbe = 0;
+            rttNoLoadNanos = rttNanos;
+        }
+        rttNoLoadNanos = Math.min(rttNoLoadNanos, rttNanos);
+
+        double log = Math.max(1.0, Math.log10(limit));
+        if (dropped) {
+            return (int) (limit - log);
+        }
+
+        double queue = limit * (1.0 - (double) rttNoLoadNanos / Math.max(1, rttNanos));
+        if (queue < ALPHA_FACTOR * log) {
+            return (int) Math.min(maxLimit, limit + log);
+        }
+        if (queue > BETA_FACTOR * log) {
+            return (int) (limit - log);
+        }
+        return limit;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.architecting.metrics;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns on live metrics for the duration of a demo: scheduler and pinning metrics, plus a
+ * {@link PrometheusEndpoint} and/or a {@link MetricsTicker}. Simulators start publishing their
+ * {@link TaskMetrics} once this is running.
+ * <p>
+ * Demos open it from system properties, so a normal run is unchanged:
+ * <ul>
+ * <li>{@code -Dmetrics.port=9464} serves {@code http://127.0.0.1:9464/metrics}
+ * ({@code 0} picks a free port),</li>
+ * <li>{@code -Dmetrics.tickMillis=1000} prints a console line every second.</li>
+ * </ul>
+ */
+public final class LiveMetrics implements AutoCloseable {
+
+    public static final String PORT_PROPERTY = "metrics.port";
+    public static final String TICK_PROPERTY = "metrics.tickMillis";
+
+    private static final AtomicInteger RUNNING = new AtomicInteger();
+
+    private final Optional<SchedulerMetrics> scheduler;
+    private final Optional<PrometheusEndpoint> endpoint;
+    private final Optional<MetricsTicker> ticker;
+
+    private LiveMetrics(Optional<SchedulerMetrics> scheduler, Optional<PrometheusEndpoint> endpoint,
+            Optional<MetricsTicker> ticker) {
+        this.scheduler = scheduler;
+        this.endpoint = endpoint;
+        this.ticker = ticker;
+    }
+
+    /**
+     * Starts whatever {@value #PORT_PROPERTY} and {@value #TICK_PROPERTY} ask for; with neither set
+     * nothing is started and simulators publish nothing.
+     */
+    public static LiveMetrics fromSystemProperties() {
+        String port = System.getProperty(PORT_PROPERTY, "").trim();
+        String tickMillis = System.getProperty(TICK_PROPERTY, "").trim();
+        return start(port.isEmpty() ? OptionalInt.empty() : OptionalInt.of(Integer.parseInt(port)),
+                tickMillis.isEmpty() ? Optional.empty() : Optional.of(Duration.ofMillis(Long.parseLong(tickMillis))));
+    }
+
+    public static LiveMetrics start(OptionalInt port, Optional<Duration> tickInterval) {
+        if (port.isEmpty() && tickInterval.isEmpty()) {
+            return new LiveMetrics(Optional.empty(), Optional.empty(), Optional.empty());
+        }
+        MetricsRegistry registry = MetricsRegistry.global();
+        SchedulerMetrics scheduler = SchedulerMetrics.start(registry);
+        Optional<PrometheusEndpoint> endpoint = port.isPresent()
+                ? Optional.of(PrometheusEndpoint.start(registry, port.getAsInt()))
+                : Optional.empty();
+        endpoint.ifPresent(server -> System.out.println("Live metrics at " + server.url()));
+        Optional<MetricsTicker> ticker = tickInterval.map(interval -> MetricsTicker.start(registry, interval));
+        RUNNING.incrementAndGet();
+        return new LiveMetrics(Optional.of(scheduler), endpoint, ticker);
+    }
+
+    /**
+     * Whether any live view is open, i.e. whether simulators should publish.
+     */
+    public static boolean isRunning() {
+        return RUNNING.get() > 0;
+    }
+
+    public Optional<PrometheusEndpoint> endpoint() {
+        return endpoint;
+    }
+
+    @Override
+    public void close() {
+        if (scheduler.isEmpty()) {
+            return;
+        }
+        RUNNING.decrementAndGet();
+        ticker.ifPresent(MetricsTicker::close);
+        endpoint.ifPresent(PrometheusEndpoint::close);
+        scheduler.get().close();
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.architecting.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+import com.example.architecting.throughput.LatencyHistogram;
+import com.example.architecting.throughput.LatencyStats;
+
+/**
+ * In-process registry of live metrics, read while a simulation runs by {@link PrometheusEndpoint}
+ * and {@link MetricsTicker}.
+ * <p>
+ * Updates are lock-free: counters are {@link LongAdder}s, summaries are {@link LatencyHistogram}s,
+ * and gauges are callbacks evaluated only when scraped. Registration is get-or-create, so code that
+ * runs once per simulation can ask for its series every time and keeps accumulating into the same
+ * one. A series is identified by its metric name plus label pairs, as in Prometheus.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+    /** Quantiles exposed for every summary. */
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private enum Type {
+        COUNTER, GAUGE, SUMMARY;
+
+        String prometheusName() {
+            return name().toLowerCase();
+        }
+    }
+
+    /** One metric name: its type, help text and series by rendered labels. */
+    private record Family(String name, Type type, String help, ConcurrentMap<String, Object> series) {
+    }
+
+    /**
+     * Monotonic count, e.g. completed tasks.
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long sum() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Latency distribution in nanoseconds, exposed as a Prometheus summary in seconds. Quantiles
+     * cover everything recorded since the series was created.
+     */
+    public static final class Summary {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        public void record(long nanos) {
+            histogram.recordValue(nanos);
+        }
+
+        public LatencyStats snapshot() {
+            return histogram.snapshot();
+        }
+    }
+
+    private final ConcurrentMap<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * The registry the simulators publish to.
+     */
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @param labels Alternating label names and values, e.g. {@code "model", "Virtual Threads"}.
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, Type.COUNTER, help).series()
+                .computeIfAbsent(renderLabels(labels), key -> new Counter());
+    }
+
+    /**
+     * Registers a gauge whose value is read from {@code value} on every scrape; registering the same
+     * series again replaces the callback.
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        family(name, Type.GAUGE, help).series().put(renderLabels(labels), value);
+    }
+
+    public Summary summary(String name, String help, String... labels) {
+        return (Summary) family(name, Type.SUMMARY, help).series()
+                .computeIfAbsent(renderLabels(labels), key -> new Summary());
+    }
+
+    /**
+     * Current value of a counter or gauge summed over all its series; 0 if nothing is registered
+     * under {@code name}.
+     */
+    public double sum(String name) {
+        Family family = families.get(name);
+        if (family == null) {
+            return 0;
+        }
+        double sum = 0;
+        for (Object series : family.series().values()) {
+            sum += switch (series) {
+                case Counter counter -> counter.sum();
+                case DoubleSupplier gauge -> gauge.getAsDouble();
+                default -> throw new IllegalArgumentException(name + " is a " + family.type().prometheusName());
+            };
+        }
+        return sum;
+    }
+
+    /**
+     * Renders every series in the Prometheus text exposition format (version 0.0.4), sorted by name.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder();
+        writeTo(out);
+        return out.toString();
+    }
+
+    public void writeTo(Appendable out) {
+        try {
+            for (Family family : new TreeMap<>(families).values()) {
+                out.append("# HELP ").append(family.name()).append(' ').append(escapeHelp(family.help())).append('\n');
+                out.append("# TYPE ").append(family.name()).append(' ').append(family.type().prometheusName())
+                        .append('\n');
+                for (Map.Entry<String, Object> series : new TreeMap<>(family.series()).entrySet()) {
+                    writeSeries(out, family.name(), series.getKey(), series.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Family family(String name, Type type, String help) {
+        Family family = families.computeIfAbsent(name, key -> new Family(key, type, help, new ConcurrentHashMap<>()));
+        if (family.type() != type) {
+            throw new IllegalArgumentException(name + " is already registered as a " + family.type().prometheusName());
+        }
+        return family;
+    }
+
+    private static void writeSeries(Appendable out, String name, String labels, Object series) throws IOException {
+        switch (series) {
+            case Counter counter -> sample(out, name, labels, counter.sum());
+            case DoubleSupplier gauge -> sample(out, name, labels, gauge.getAsDouble());
+            case Summary summary -> {
+                LatencyStats stats = summary.snapshot();
+                long[] values = { stats.p50Nanos(), stats.p90Nanos(), stats.p99Nanos(), stats.p999Nanos() };
+                for (int i = 0; i < QUANTILES.length; i++) {
+                    sample(out, name, withLabel(labels, "quantile", String.valueOf(QUANTILES[i])), values[i] / 1e9);
+                }
+                sample(out, name + "_sum", labels, stats.meanNanos() * stats.count() / 1e9);
+                sample(out, name + "_count", labels, stats.count());
+            }
+            default -> throw new IllegalStateException("Unknown series type " + series.getClass());
+        }
+    }
+
+    private static void sample(Appendable out, String name, String labels, double value) throws IOException {
+        out.append(name).append(labels).append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        }
+        if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        }
+        return value == Math.rint(value) && Math.abs(value) < 1e15 ? String.valueOf((long) value)
+                : String.valueOf(value);
+    }
+
+    private static String renderLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        String rendered = "";
+        for (int i = 0; i < labels.length; i += 2) {
+            rendered = withLabel(rendered, labels[i], labels[i + 1]);
+        }
+        return rendered;
+    }
+
+    private static String withLabel(String rendered, String name, String value) {
+        String label = name + "=\"" + escapeLabelValue(value) + "\"";
+        if (rendered.isEmpty()) {
+            return "{" + label + "}";
+        }
+        return rendered.substring(0, rendered.length() - 1) + "," + label + "}";
+    }
+
+    private static String escapeLabelValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String escapeHelp(String help) {
+        return help.replace("\\", "\\\\").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.architecting.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prints one line of live metrics to the console at a fixed interval, e.g.
+ * <pre>
+ * [live] 48211 tasks/s, in flight 10000, carriers 8/8 (mounted 8, queued 9734), pinned +0 (total 0)
+ * </pre>
+ * Throughput is the change in completed tasks over the last interval, so a collapse shows up within
+ * one tick rather than in the end-of-run average. The carrier pool is reported as pool size over
+ * parallelism; pinned events as new since the last tick.
+ */
+public final class MetricsTicker implements AutoCloseable {
+
+    private final MetricsRegistry registry;
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("metrics-ticker").daemon().factory());
+    private long lastNanos = System.nanoTime();
+    private double lastCompleted;
+    private double lastPinned;
+
+    private MetricsTicker(MetricsRegistry registry) {
+        this.registry = registry;
+        this.lastCompleted = registry.sum(TaskMetrics.COMPLETED);
+        this.lastPinned = registry.sum(SchedulerMetrics.PINNED);
+    }
+
+    public static MetricsTicker start(MetricsRegistry registry, Duration interval) {
+        MetricsTicker ticker = new MetricsTicker(registry);
+        ticker.ticker.scheduleAtFixedRate(ticker::tick, interval.toNanos(), interval.toNanos(),
+                TimeUnit.NANOSECONDS);
+        return ticker;
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        double completed = registry.sum(TaskMetrics.COMPLETED);
+        double pinned = registry.sum(SchedulerMetrics.PINNED);
+        double rate = (completed - lastCompleted) / ((now - lastNanos) / 1e9);
+        System.out.printf("[live] %.0f tasks/s, in flight %.0f, carriers %.0f/%.0f (mounted %.0f, queued %.0f), "
+                + "pinned +%.0f (total %.0f)%n", rate, registry.sum(TaskMetrics.IN_FLIGHT),
+                registry.sum(SchedulerMetrics.POOL_SIZE), registry.sum(SchedulerMetrics.PARALLELISM),
+                registry.sum(SchedulerMetrics.MOUNTED), registry.sum(SchedulerMetrics.QUEUED), pinned - lastPinned,
+                pinned);
+        lastNanos = now;
+        lastCompleted = completed;
+        lastPinned = pinned;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.architecting.metrics;
+
+/**
+ * {@link TaskMetrics#DISABLED}: every update is dropped.
+ */
+final class NoOpTaskMetrics implements TaskMetrics {
+
+    static final NoOpTaskMetrics INSTANCE = new NoOpTaskMetrics();
+
+    private NoOpTaskMetrics() {
+    }
+
+    @Override
+    public void submitted(long count) {
+        // Not published.
+    }
+
+    @Override
+    public void completed(long latencyNanos) {
+        // Not published.
+    }
+
+    @Override
+    public void failed() {
+        // Not published.
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.architecting.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link TaskMetrics} backed by a {@link MetricsRegistry}; one instance per model name.
+ */
+final class RegistryTaskMetrics implements TaskMetrics {
+
+    private static final ConcurrentMap<String, RegistryTaskMetrics> MODELS = new ConcurrentHashMap<>();
+
+    private final MetricsRegistry.Counter submitted;
+    private final MetricsRegistry.Counter completed;
+    private final MetricsRegistry.Summary latency;
+
+    private RegistryTaskMetrics(MetricsRegistry registry, String model) {
+        this.submitted = registry.counter(SUBMITTED, "Tasks handed to the model's executor.", "model", model);
+        this.completed = registry.counter(COMPLETED, "Tasks finished, successfully or not.", "model", model);
+        this.latency = registry.summary(LATENCY, "Task latency from submission to completion.", "model", model);
+        registry.gauge(IN_FLIGHT, "Tasks submitted but not yet finished, queued or running.",
+                () -> this.submitted.sum() - this.completed.sum(), "model", model);
+    }
+
+    static RegistryTaskMetrics forModel(MetricsRegistry registry, String model) {
+        return MODELS.computeIfAbsent(model, name -> new RegistryTaskMetrics(registry, name));
+    }
+
+    @Override
+    public void submitted(long count) {
+        submitted.add(count);
+    }
+
+    @Override
+    public void completed(long latencyNanos) {
+        completed.increment();
+        latency.record(latencyNanos);
+    }
+
+    @Override
+    public void failed() {
+        completed.increment();
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.architecting.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import jdk.jfr.consumer.RecordingStream;
+import jdk.management.VirtualThreadSchedulerMXBean;
+
+import com.example.architecting.diagnostics.VirtualThreadMonitor;
+
+/**
+ * Publishes the virtual-thread scheduler's carrier pool and pinning activity as live metrics.
+ * <p>
+ * Carrier gauges read {@link VirtualThreadSchedulerMXBean} on every scrape, as
+ * {@code CarrierPoolSampler} does between runs: a pool size above parallelism means the scheduler
+ * is compensating for blocked carriers, and a growing queue means the carriers are saturated.
+ * Pinned events are counted from a JFR stream of {@code jdk.VirtualThreadPinned}, without stack
+ * traces so it stays cheap enough to leave on; {@link VirtualThreadMonitor} attributes them.
+ */
+public final class SchedulerMetrics implements AutoCloseable {
+
+    public static final String PARALLELISM = "jvm_virtual_thread_scheduler_parallelism";
+    public static final String POOL_SIZE = "jvm_virtual_thread_scheduler_pool_size";
+    public static final String MOUNTED = "jvm_virtual_thread_scheduler_mounted_threads";
+    public static final String QUEUED = "jvm_virtual_thread_scheduler_queued_threads";
+    public static final String PINNED = "jvm_virtual_thread_pinned_total";
+    public static final String SUBMIT_FAILED = "jvm_virtual_thread_submit_failed_total";
+
+    private final RecordingStream stream = new RecordingStream();
+
+    private SchedulerMetrics(MetricsRegistry registry) {
+        VirtualThreadSchedulerMXBean scheduler = ManagementFactory.getPlatformMXBean(
+                VirtualThreadSchedulerMXBean.class);
+        registry.gauge(PARALLELISM, "Carrier threads the scheduler targets.", scheduler::getParallelism);
+        registry.gauge(POOL_SIZE, "Carrier threads alive, including ones added to compensate for blocking.",
+                scheduler::getPoolSize);
+        registry.gauge(MOUNTED, "Virtual threads currently mounted on a carrier.",
+                scheduler::getMountedVirtualThreadCount);
+        registry.gauge(QUEUED, "Virtual threads waiting for a carrier.", scheduler::getQueuedVirtualThreadCount);
+
+        MetricsRegistry.Counter pinned = registry.counter(PINNED,
+                "Virtual threads that blocked while pinned to their carrier, above the JFR threshold.");
+        MetricsRegistry.Counter submitFailed = registry.counter(SUBMIT_FAILED,
+                "Virtual thread continuations the scheduler rejected.");
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(VirtualThreadMonitor.DEFAULT_PINNED_THRESHOLD)
+                .withoutStackTrace();
+        stream.enable("jdk.VirtualThreadSubmitFailed").withoutStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", event -> pinned.increment());
+        stream.onEvent("jdk.VirtualThreadSubmitFailed", event -> submitFailed.increment());
+    }
+
+    public static SchedulerMetrics start(MetricsRegistry registry) {
+        SchedulerMetrics metrics = new SchedulerMetrics(registry);
+        metrics.stream.startAsync();
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.architecting.metrics;
+
+/**
+ * Live task counters of one simulation model, published to {@link MetricsRegistry#global()} with a
+ * {@code model} label: submitted and completed tasks, their difference as the in-flight gauge, and
+ * end-to-end latency.
+ * <p>
+ * Simulators publish through {@code TaskLatencyRecorder}, which holds one of these. While
+ * {@link LiveMetrics} is not running, {@link #forModel} returns {@link #DISABLED}, a no-op, so runs
+ * without a live view pay one well-predicted virtual call per task and nothing else.
+ */
+public interface TaskMetrics {
+
+    String SUBMITTED = "simulation_tasks_submitted_total";
+    String COMPLETED = "simulation_tasks_completed_total";
+    String IN_FLIGHT = "simulation_tasks_in_flight";
+    String LATENCY = "simulation_task_latency_seconds";
+
+    /** Publishes nothing. */
+    TaskMetrics DISABLED = NoOpTaskMetrics.INSTANCE;
+
+    /**
+     * The metrics of {@code model}, shared by all its runs; {@link #DISABLED} unless
+     * {@link LiveMetrics} is running.
+     */
+    static TaskMetrics forModel(String model) {
+        if (!LiveMetrics.isRunning()) {
+            return DISABLED;
+        }
+        return RegistryTaskMetrics.forModel(MetricsRegistry.global(), model);
+    }
+
+    void submitted(long count);
+
+    void completed(long latencyNanos);
+
+    /**
+     * A task that finished without a result: it counts as completed, but not towards the latency.
+     */
+    void failed();
+}
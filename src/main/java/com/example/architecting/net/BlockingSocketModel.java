@@ -0,0 +1,180 @@
+package com.example.architecting.net;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.architecting.throughput.AllocationTracker;
+import com.example.architecting.throughput.ExecutorBackedSimulator;
+import com.example.architecting.throughput.StreamingSubmitter;
+import com.example.architecting.throughput.TaskLatencyRecorder;
+
+/**
+ * Thread-per-task model doing real blocking socket I/O against a {@link LoopbackServer}: each task
+ * spins for the CPU duration, borrows a pooled connection, writes a request asking for an
+ * {@code ioDuration} response delay, and blocks reading the echo.
+ * <p>
+ * On virtual threads the blocking read parks the thread and registers the socket with the JDK's
+ * read poller, releasing the carrier; on platform threads it blocks the OS thread. Unlike
+ * {@code Thread.sleep}, this exercises the poller, socket buffers and the copy into user space.
+ */
+public class BlockingSocketModel implements ExecutorBackedSimulator, AutoCloseable {
+
+    private final LoopbackServer server;
+    private final boolean virtual;
+    private final int platformThreads;
+    private final int maxConnections;
+    private final BlockingQueue<Connection> idle;
+    private final AtomicInteger opened = new AtomicInteger();
+
+    private BlockingSocketModel(LoopbackServer server, boolean virtual, int platformThreads, int maxConnections) {
+        this.server = server;
+        this.virtual = virtual;
+        this.platformThreads = platformThreads;
+        this.maxConnections = maxConnections;
+        this.idle = new ArrayBlockingQueue<>(maxConnections);
+    }
+
+    /**
+     * Virtual thread per task; tasks beyond {@code maxConnections} park waiting for a connection.
+     */
+    public static BlockingSocketModel virtualThreads(LoopbackServer server, int maxConnections) {
+        return new BlockingSocketModel(server, true, 0, maxConnections);
+    }
+
+    /**
+     * Fixed pool of platform threads, one connection per thread.
+     */
+    public static BlockingSocketModel platformThreads(LoopbackServer server, int threads) {
+        return new BlockingSocketModel(server, false, threads, threads);
+    }
+
+    @Override
+    public SimulationResult run(int taskCount, Duration ioDuration, Duration cpuDuration) {
+        System.out.println("Starting " + modelName() + " simulation...");
+
+        try (ExecutorService executor = newExecutor()) {
+            TaskLatencyRecorder recorder = new TaskLatencyRecorder(modelName());
+            AllocationTracker allocations = AllocationTracker.start();
+            long start = System.currentTimeMillis();
+
+            new StreamingSubmitter(StreamingSubmitter.UNBOUNDED).submitAll(executor, taskCount,
+                    newTask(ioDuration, cpuDuration), recorder);
+
+            long end = System.currentTimeMillis();
+            long totalTime = end - start;
+            double throughput = (double) taskCount / (totalTime / 1000.0);
+
+            return new SimulationResult(modelName(), taskCount, totalTime, throughput, recorder.report(),
+                    allocations.stop(taskCount));
+        }
+    }
+
+    @Override
+    public String modelName() {
+        return virtual
+                ? "Blocking Sockets (Virtual, " + maxConnections + " conns)"
+                : "Blocking Sockets (Platform Pool " + platformThreads + ")";
+    }
+
+    @Override
+    public ExecutorService newExecutor() {
+        return virtual ? Executors.newVirtualThreadPerTaskExecutor() : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @Override
+    public Callable<Void> newTask(Duration ioDuration, Duration cpuDuration) {
+        return () -> {
+            if (!cpuDuration.isZero()) {
+                long endCpu = System.nanoTime() + cpuDuration.toNanos();
+                while (System.nanoTime() < endCpu) {
+                    // busy spin
+                }
+            }
+
+            Connection connection = borrow();
+            try {
+                connection.exchange(ioDuration);
+            } catch (IOException e) {
+                connection.close();
+                opened.decrementAndGet();
+                throw e;
+            }
+            idle.add(connection);
+            return null;
+        };
+    }
+
+    private Connection borrow() throws IOException, InterruptedException {
+        Connection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        if (opened.incrementAndGet() <= maxConnections) {
+            try {
+                return new Connection(server);
+            } catch (IOException e) {
+                opened.decrementAndGet();
+                throw e;
+            }
+        }
+        opened.decrementAndGet();
+        return idle.take();
+    }
+
+    @Override
+    public void close() {
+        Connection connection;
+        while ((connection = idle.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * One blocking-mode connection with its own reusable frame buffers.
+     */
+    private static final class Connection {
+
+        private final SocketChannel channel;
+        private final ByteBuffer request;
+        private final ByteBuffer response;
+
+        Connection(LoopbackServer server) throws IOException {
+            this.channel = SocketChannel.open(server.address());
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            this.request = ByteBuffer.allocateDirect(server.payloadSize());
+            this.response = ByteBuffer.allocateDirect(server.payloadSize());
+        }
+
+        void exchange(Duration delay) throws IOException {
+            request.clear();
+            request.putLong(0, delay.toNanos());
+            while (request.hasRemaining()) {
+                channel.write(request);
+            }
+            response.clear();
+            while (response.hasRemaining()) {
+                if (channel.read(response) < 0) {
+                    throw new EOFException("server closed the connection");
+                }
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // nothing left to release
+            }
+        }
+    }
+}
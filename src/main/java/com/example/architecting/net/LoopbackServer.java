@@ -0,0 +1,177 @@
+package com.example.architecting.net;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process loopback echo server: a single selector thread, so the server itself is never the
+ * thread-count bottleneck being measured.
+ * <p>
+ * Protocol: the client writes a fixed-size frame of {@link #payloadSize()} bytes whose first
+ * {@link #HEADER_BYTES} bytes are the requested response delay in nanoseconds. The server reads
+ * the whole frame, waits for {@code baseDelay} plus the requested delay, and echoes the frame
+ * back. Connections are persistent and carry one request at a time.
+ */
+public final class LoopbackServer implements AutoCloseable {
+
+    /** Size of the delay header at the start of every frame. */
+    public static final int HEADER_BYTES = Long.BYTES;
+
+    private final int payloadSize;
+    private final long baseDelayNanos;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final ScheduledExecutorService delayer = Executors.newSingleThreadScheduledExecutor();
+    private final Queue<SelectionKey> readyToRespond = new ConcurrentLinkedQueue<>();
+    private final Thread loop;
+    private volatile boolean running = true;
+
+    /**
+     * Binds to an ephemeral loopback port and starts serving.
+     *
+     * @param payloadSize Frame size in bytes, at least {@link #HEADER_BYTES}.
+     * @param baseDelay   Delay added to every response on top of the requested one.
+     */
+    public LoopbackServer(int payloadSize, Duration baseDelay) throws IOException {
+        if (payloadSize < HEADER_BYTES) {
+            throw new IllegalArgumentException("payloadSize must be at least " + HEADER_BYTES + ": " + payloadSize);
+        }
+        this.payloadSize = payloadSize;
+        this.baseDelayNanos = baseDelay.toNanos();
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.loop = Thread.ofPlatform().name("loopback-server").daemon().start(this::serve);
+    }
+
+    public InetSocketAddress address() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int payloadSize() {
+        return payloadSize;
+    }
+
+    private void serve() {
+        try {
+            while (running) {
+                selector.select();
+                SelectionKey delayed;
+                while ((delayed = readyToRespond.poll()) != null) {
+                    if (delayed.isValid()) {
+                        ((ByteBuffer) delayed.attachment()).flip();
+                        delayed.interestOps(SelectionKey.OP_WRITE);
+                    }
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (key.isAcceptable()) {
+                            accept();
+                        } else if (key.isReadable()) {
+                            read(key);
+                        } else if (key.isWritable()) {
+                            write(key);
+                        }
+                    } catch (IOException e) {
+                        // The client went away; drop just this connection.
+                        closeQuietly(key);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (running) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel client;
+        while ((client = serverChannel.accept()) != null) {
+            client.configureBlocking(false);
+            client.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            client.register(selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(payloadSize));
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        ByteBuffer frame = (ByteBuffer) key.attachment();
+        if (((SocketChannel) key.channel()).read(frame) < 0) {
+            closeQuietly(key);
+            return;
+        }
+        if (frame.hasRemaining()) {
+            return;
+        }
+        key.interestOps(0);
+        long delayNanos = baseDelayNanos + frame.getLong(0);
+        if (delayNanos <= 0) {
+            frame.flip();
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else {
+            delayer.schedule(() -> {
+                readyToRespond.add(key);
+                selector.wakeup();
+            }, delayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        ByteBuffer frame = (ByteBuffer) key.attachment();
+        ((SocketChannel) key.channel()).write(frame);
+        if (!frame.hasRemaining()) {
+            frame.clear();
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    private static void closeQuietly(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException ignored) {
+            // already closing
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        delayer.shutdownNow();
+        selector.wakeup();
+        try {
+            loop.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (SelectionKey key : selector.keys()) {
+            closeQuietly(key);
+        }
+        selector.close();
+        serverChannel.close();
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.architecting.net;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.example.architecting.throughput.AllocationTracker;
+import com.example.architecting.throughput.TaskLatencyRecorder;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * Reactor-style baseline for {@link BlockingSocketModel}: one selector loop per CPU drives all
+ * requests over non-blocking connections, with no thread per task at all. CPU work runs on the
+ * loop thread, as handler code does in Netty-style servers.
+ * <p>
+ * All tasks are "submitted" at start; each connection claims the next task as soon as its
+ * previous response has arrived, so queue wait is the time spent waiting for a free connection.
+ */
+public class NioClientModel implements TaskSimulator {
+
+    private final LoopbackServer server;
+    private final int connections;
+    private final int loops;
+
+    public NioClientModel(LoopbackServer server, int connections) {
+        this(server, connections, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param connections Total connections, spread across the loops.
+     * @param loops       Number of selector threads.
+     */
+    public NioClientModel(LoopbackServer server, int connections, int loops) {
+        this.server = server;
+        this.connections = connections;
+        this.loops = Math.min(loops, connections);
+    }
+
+    @Override
+    public SimulationResult run(int taskCount, Duration ioDuration, Duration cpuDuration) {
+        System.out.println("Starting " + modelName() + " simulation...");
+
+        TaskLatencyRecorder recorder = new TaskLatencyRecorder(modelName());
+        AtomicInteger remaining = new AtomicInteger(taskCount);
+        AllocationTracker allocations = AllocationTracker.start();
+        long start = System.currentTimeMillis();
+        long submitNanos = System.nanoTime();
+        recorder.submitted(taskCount);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < loops; i++) {
+            int loopConnections = connections / loops + (i < connections % loops ? 1 : 0);
+            EventLoop loop = new EventLoop(loopConnections, remaining, submitNanos, ioDuration, cpuDuration,
+                    recorder);
+            threads.add(Thread.ofPlatform().name("nio-client-" + i)
+                    .uncaughtExceptionHandler((thread, e) -> failure.compareAndSet(null, e))
+                    .start(loop::run));
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for NIO client loops", e);
+        }
+        if (failure.get() != null) {
+            throw new RuntimeException("NIO client loop failed", failure.get());
+        }
+
+        long end = System.currentTimeMillis();
+        long totalTime = end - start;
+        double throughput = (double) taskCount / (totalTime / 1000.0);
+
+        return new SimulationResult(modelName(), taskCount, totalTime, throughput, recorder.report(),
+                allocations.stop(taskCount));
+    }
+
+    @Override
+    public String modelName() {
+        return "NIO Selector Client (" + loops + " loops, " + connections + " conns)";
+    }
+
+    /**
+     * One selector thread and its connections. Each connection alternates between writing a
+     * request and reading its echo until no tasks remain.
+     */
+    private final class EventLoop {
+
+        private final int connectionCount;
+        private final AtomicInteger remaining;
+        private final long submitNanos;
+        private final long ioNanos;
+        private final Duration cpuDuration;
+        private final TaskLatencyRecorder recorder;
+
+        EventLoop(int connectionCount, AtomicInteger remaining, long submitNanos, Duration ioDuration,
+                Duration cpuDuration, TaskLatencyRecorder recorder) {
+            this.connectionCount = connectionCount;
+            this.remaining = remaining;
+            this.submitNanos = submitNanos;
+            this.ioNanos = ioDuration.toNanos();
+            this.cpuDuration = cpuDuration;
+            this.recorder = recorder;
+        }
+
+        void run() {
+            try (Selector selector = Selector.open()) {
+                int live = 0;
+                for (int i = 0; i < connectionCount; i++) {
+                    Exchange exchange = new Exchange(server.payloadSize());
+                    if (!startNext(exchange)) {
+                        break;
+                    }
+                    SocketChannel channel = SocketChannel.open(server.address());
+                    channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    channel.configureBlocking(false);
+                    channel.register(selector, SelectionKey.OP_WRITE, exchange);
+                    live++;
+                }
+
+                while (live > 0) {
+                    selector.select();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        SocketChannel channel = (SocketChannel) key.channel();
+                        Exchange exchange = (Exchange) key.attachment();
+                        if (key.isWritable()) {
+                            channel.write(exchange.request);
+                            if (!exchange.request.hasRemaining()) {
+                                key.interestOps(SelectionKey.OP_READ);
+                            }
+                        } else if (key.isReadable()) {
+                            if (channel.read(exchange.response) < 0) {
+                                throw new IOException("server closed the connection");
+                            }
+                            if (exchange.response.hasRemaining()) {
+                                continue;
+                            }
+                            recorder.record(submitNanos, exchange.startNanos, System.nanoTime());
+                            if (startNext(exchange)) {
+                                key.interestOps(SelectionKey.OP_WRITE);
+                            } else {
+                                key.cancel();
+                                channel.close();
+                                live--;
+                            }
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Claims the next task, runs its CPU phase and arms the request; false when none remain.
+         */
+        private boolean startNext(Exchange exchange) {
+            if (remaining.getAndDecrement() <= 0) {
+                return false;
+            }
+            exchange.startNanos = System.nanoTime();
+            if (!cpuDuration.isZero()) {
+                long endCpu = exchange.startNanos + cpuDuration.toNanos();
+                while (System.nanoTime() < endCpu) {
+                    // busy spin
+                }
+            }
+            exchange.request.clear();
+            exchange.request.putLong(0, ioNanos);
+            exchange.response.clear();
+            return true;
+        }
+    }
+
+    private static final class Exchange {
+
+        final ByteBuffer request;
+        final ByteBuffer response;
+        long startNanos;
+
+        Exchange(int payloadSize) {
+            this.request = ByteBuffer.allocateDirect(payloadSize);
+            this.response = ByteBuffer.allocateDirect(payloadSize);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.architecting.net;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import com.example.architecting.metrics.LiveMetrics;
+import com.example.architecting.throughput.LatencyStats;
+import com.example.architecting.throughput.ResultExporter;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * Compares real socket I/O against an in-process {@link LoopbackServer}: blocking sockets on
+ * virtual threads, blocking sockets on a platform pool, and a selector-based NIO client.
+ * <p>
+ * Usage: {@code SocketIoDemo [taskCount] [ioMillis] [payloadBytes] [connections]}
+ */
+public class SocketIoDemo {
+
+    private static final int PLATFORM_THREADS = 200;
+
+    public static void main(String[] args) throws IOException {
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+            Duration ioDuration = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 10);
+            int payloadBytes = args.length > 2 ? Integer.parseInt(args[2]) : 1024;
+            int connections = args.length > 3 ? Integer.parseInt(args[3]) : 1_000;
+            Duration cpuDuration = Duration.ofNanos(50_000); // 50 µs of request handling
+
+            System.out.println("==================================================");
+            System.out.println("      Socket I/O Throughput Demo                  ");
+            System.out.println("==================================================");
+            System.out.println("  Tasks: " + taskCount);
+            System.out.println("  Server Response Delay: " + ioDuration.toMillis() + "ms");
+            System.out.println("  Payload: " + payloadBytes + " bytes");
+            System.out.println("  Connections: " + connections);
+            System.out.println("==================================================\n");
+
+            try (LoopbackServer server = new LoopbackServer(payloadBytes, Duration.ZERO);
+                    BlockingSocketModel platform = BlockingSocketModel.platformThreads(server, PLATFORM_THREADS);
+                    BlockingSocketModel virtual = BlockingSocketModel.virtualThreads(server, connections)) {
+                TaskSimulator nio = new NioClientModel(server, connections);
+
+                TaskSimulator.SimulationResult platformResult = platform.run(taskCount, ioDuration, cpuDuration);
+                System.out.println(platformResult);
+                TaskSimulator.SimulationResult virtualResult = virtual.run(taskCount, ioDuration, cpuDuration);
+                System.out.println(virtualResult);
+                TaskSimulator.SimulationResult nioResult = nio.run(taskCount, ioDuration, cpuDuration);
+                System.out.println(nioResult);
+
+                System.out.println("\n==================================================");
+                System.out.println("Summary (end-to-end latency in ms):");
+                System.out.printf("%-45s: %12s %9s %9s %9s%n", "Model", "tasks/sec", "p50", "p99", "max");
+                printSummaryRow(platformResult);
+                printSummaryRow(virtualResult);
+                printSummaryRow(nioResult);
+                System.out.println("==================================================");
+
+                new ResultExporter("SocketIoDemo")
+                        .config("tasks", taskCount)
+                        .config("ioMillis", ioDuration.toMillis())
+                        .config("payloadBytes", payloadBytes)
+                        .config("connections", connections)
+                        .config("platformThreads", PLATFORM_THREADS)
+                        .add(platformResult)
+                        .add(virtualResult)
+                        .add(nioResult)
+                        .writeAndReport();
+            }
+        }
+    }
+
+    private static void printSummaryRow(TaskSimulator.SimulationResult result) {
+        LatencyStats latency = result.latency().endToEnd();
+        System.out.printf("%-45s: %12.2f %9.2f %9.2f %9.2f%n", result.modelName(), result.throughputPerSecond(),
+                LatencyStats.toMillis(latency.p50Nanos()), LatencyStats.toMillis(latency.p99Nanos()),
+                LatencyStats.toMillis(latency.maxNanos()));
+    }
+}
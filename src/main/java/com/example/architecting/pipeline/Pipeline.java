@@ -0,0 +1,342 @@
+package com.example.architecting.pipeline;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import com.example.architecting.throughput.LatencyHistogram;
+import com.example.architecting.throughput.LatencyStats;
+import com.example.architecting.throughput.TaskLatencyRecorder;
+
+/**
+ * Staged execution: each stage has its own workers (virtual threads for blocking I/O, a few
+ * platform threads for CPU work) and a bounded input queue. A worker that finishes an item
+ * blocks putting it into the next stage's queue while that queue is full, so a saturated stage
+ * pushes back all the way to {@link #submit}: memory stays bounded and the slow stage is visible
+ * in {@link #metrics()} as the one with high utilization and a full queue.
+ * <p>
+ * Workers pull from their queue, so a CPU stage uses dedicated platform threads rather than a
+ * {@code ForkJoinPool}, whose workers should not block on a queue.
+ *
+ * @param <I> Type of the items submitted to the first stage.
+ */
+public final class Pipeline<I> implements AutoCloseable {
+
+    /**
+     * @param workers       Threads pulling from this stage's queue (its maximum concurrency).
+     * @param virtual       Virtual worker threads, for stages that block; platform ones for CPU work.
+     * @param queueCapacity Bound of the hand-off queue in front of the stage.
+     */
+    public record StageConfig(int workers, boolean virtual, int queueCapacity) {
+
+        public static StageConfig io(int workers, int queueCapacity) {
+            return new StageConfig(workers, true, queueCapacity);
+        }
+
+        public static StageConfig cpu(int workers, int queueCapacity) {
+            return new StageConfig(workers, false, queueCapacity);
+        }
+    }
+
+    /**
+     * Work done by one stage on one item.
+     */
+    @FunctionalInterface
+    public interface StageFunction<T, R> {
+        R apply(T input) throws Exception;
+    }
+
+    /**
+     * @param utilization  Busy time over {@code workers x elapsed}; near 1.0 marks the bottleneck.
+     * @param peakQueue    Longest the stage's input queue got.
+     * @param meanQueue    Input queue length averaged over hand-offs.
+     * @param blockedNanos Time this stage's workers spent waiting for room downstream.
+     * @param serviceTime  Time to process one item, excluding queueing and hand-off.
+     */
+    public record StageMetrics(String name, int workers, int queueCapacity, long processed, long failed,
+            double utilization, int peakQueue, double meanQueue, long blockedNanos, LatencyStats serviceTime) {
+
+        @Override
+        public String toString() {
+            return String.format("  %-10s workers %5d, processed %8d, failed %d, util %5.1f%%, "
+                    + "queue peak %d/%d mean %.1f, blocked %.0f ms%n    service: %s", name, workers, processed, failed,
+                    utilization * 100, peakQueue, queueCapacity, meanQueue, blockedNanos / 1e6, serviceTime);
+        }
+    }
+
+    /**
+     * @param submitBlockedNanos Time {@link #submit} callers spent blocked by backpressure.
+     * @param latency            Per-item latency: queue-wait before the first stage, then until the last.
+     */
+    public record Metrics(List<StageMetrics> stages, long submitBlockedNanos,
+            TaskLatencyRecorder.LatencyReport latency) {
+
+        /**
+         * The stage with the highest utilization.
+         */
+        public StageMetrics bottleneck() {
+            return stages.stream().max(Comparator.comparingDouble(StageMetrics::utilization)).orElseThrow();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            stages.forEach(stage -> sb.append(stage).append(System.lineSeparator()));
+            sb.append(String.format("  submit blocked %.0f ms, bottleneck: %s%n", submitBlockedNanos / 1e6,
+                    bottleneck().name()));
+            return sb.append(latency).toString();
+        }
+    }
+
+    private final List<Stage> stages;
+    private final Consumer<Object> sink;
+    private final TaskLatencyRecorder recorder = new TaskLatencyRecorder("Pipeline");
+    private final Semaphore completions = new Semaphore(0);
+    private final LongAdder submitBlockedNanos = new LongAdder();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    private final long createdNanos = System.nanoTime();
+
+    private Pipeline(List<StageDefinition> definitions, Consumer<Object> sink) {
+        this.sink = sink;
+        this.stages = new ArrayList<>();
+        for (StageDefinition definition : definitions) {
+            stages.add(new Stage(definition));
+        }
+        for (int i = 0; i < stages.size() - 1; i++) {
+            stages.get(i).next = stages.get(i + 1);
+        }
+        stages.forEach(Stage::start);
+    }
+
+    public static <I> Builder<I, I> builder() {
+        return new Builder<>(new ArrayList<>());
+    }
+
+    /**
+     * Hands {@code input} to the first stage, blocking while its queue is full.
+     */
+    public void submit(I input) throws InterruptedException {
+        Item item = new Item(input, System.nanoTime());
+        recorder.submitted();
+        long blocked = stages.getFirst().put(item);
+        submitBlockedNanos.add(blocked);
+    }
+
+    /**
+     * Waits until {@code count} more items have left the pipeline, completed or failed.
+     *
+     * @throws RuntimeException wrapping the first failure of a stage or of the sink, if any item failed.
+     */
+    public void awaitCompleted(int count) throws InterruptedException {
+        completions.acquire(count);
+        Throwable failure = firstFailure.get();
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    public Metrics metrics() {
+        long elapsed = System.nanoTime() - createdNanos;
+        List<StageMetrics> stageMetrics = stages.stream().map(stage -> stage.metrics(elapsed)).toList();
+        return new Metrics(stageMetrics, submitBlockedNanos.sum(), recorder.report());
+    }
+
+    /**
+     * Stops all workers; items still queued are discarded.
+     */
+    @Override
+    public void close() {
+        for (Stage stage : stages) {
+            stage.workers.forEach(Thread::interrupt);
+        }
+        for (Stage stage : stages) {
+            for (Thread worker : stage.workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void complete(Item item, long endNanos) {
+        recorder.record(item.submitNanos, item.startNanos, endNanos);
+        completions.release();
+    }
+
+    /**
+     * Lets a failed item leave the pipeline: it releases its completion but stays out of the
+     * latencies, so failing fast does not pass for a fast completion.
+     */
+    private void fail(Throwable failure) {
+        firstFailure.compareAndSet(null, failure);
+        recorder.failed();
+        completions.release();
+    }
+
+    private static final class Item {
+
+        final long submitNanos;
+        Object value;
+        long startNanos;
+
+        Item(Object value, long submitNanos) {
+            this.value = value;
+            this.submitNanos = submitNanos;
+        }
+    }
+
+    private record StageDefinition(String name, StageConfig config, StageFunction<Object, Object> function) {
+    }
+
+    private final class Stage {
+
+        final String name;
+        final StageConfig config;
+        final StageFunction<Object, Object> function;
+        final BlockingQueue<Item> queue;
+        final List<Thread> workers = new ArrayList<>();
+        Stage next;
+
+        final LongAdder busyNanos = new LongAdder();
+        final LongAdder blockedNanos = new LongAdder();
+        final LongAdder processed = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder handOffs = new LongAdder();
+        final LongAdder queueLengthSum = new LongAdder();
+        final AtomicInteger peakQueue = new AtomicInteger();
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+
+        Stage(StageDefinition definition) {
+            this.name = definition.name();
+            this.config = definition.config();
+            this.function = definition.function();
+            this.queue = new ArrayBlockingQueue<>(config.queueCapacity());
+        }
+
+        void start() {
+            ThreadFactory factory = config.virtual() ? Thread.ofVirtual().name(name + "-", 0).factory()
+                    : Thread.ofPlatform().name(name + "-", 0).daemon().factory();
+            for (int i = 0; i < config.workers(); i++) {
+                Thread worker = factory.newThread(this::work);
+                workers.add(worker);
+                worker.start();
+            }
+        }
+
+        /**
+         * Puts {@code item} on this stage's queue, returning how long the caller was blocked.
+         */
+        long put(Item item) throws InterruptedException {
+            long blocked = 0;
+            if (!queue.offer(item)) {
+                long start = System.nanoTime();
+                queue.put(item);
+                blocked = System.nanoTime() - start;
+            }
+            int length = queue.size();
+            handOffs.increment();
+            queueLengthSum.add(length);
+            peakQueue.accumulateAndGet(length, Math::max);
+            return blocked;
+        }
+
+        void work() {
+            boolean first = this == stages.getFirst();
+            try {
+                while (true) {
+                    Item item = queue.take();
+                    long start = System.nanoTime();
+                    if (first) {
+                        item.startNanos = start;
+                    }
+                    try {
+                        item.value = function.apply(item.value);
+                        processed.increment();
+                    } catch (InterruptedException e) {
+                        throw e;
+                    } catch (Throwable t) {
+                        // Any Throwable, Errors included, fails just this item; the worker moves on to the next.
+                        failed.increment();
+                        fail(t);
+                        continue;
+                    } finally {
+                        long end = System.nanoTime();
+                        busyNanos.add(end - start);
+                        serviceTime.recordValue(end - start);
+                    }
+
+                    if (next != null) {
+                        blockedNanos.add(next.put(item));
+                    } else {
+                        try {
+                            sink.accept(item.value);
+                        } catch (Throwable t) {
+                            fail(t);
+                            continue;
+                        }
+                        complete(item, System.nanoTime());
+                    }
+                }
+            } catch (InterruptedException e) {
+                // Pipeline closed.
+            }
+        }
+
+        StageMetrics metrics(long elapsedNanos) {
+            long handOffCount = handOffs.sum();
+            double utilization = (double) busyNanos.sum() / ((double) config.workers() * elapsedNanos);
+            double meanQueue = handOffCount == 0 ? 0 : (double) queueLengthSum.sum() / handOffCount;
+            return new StageMetrics(name, config.workers(), config.queueCapacity(), processed.sum(), failed.sum(),
+                    utilization, peakQueue.get(), meanQueue, blockedNanos.sum(), serviceTime.snapshot());
+        }
+    }
+
+    /**
+     * Builds a pipeline stage by stage; {@code T} is the output type of the last stage so far.
+     */
+    public static final class Builder<I, T> {
+
+        private final List<StageDefinition> definitions;
+
+        private Builder(List<StageDefinition> definitions) {
+            this.definitions = definitions;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <R> Builder<I, R> stage(String name, StageConfig config,
+                StageFunction<? super T, ? extends R> function) {
+            definitions.add(new StageDefinition(name, config, input -> function.apply((T) input)));
+            return (Builder<I, R>) this;
+        }
+
+        /**
+         * Starts the pipeline, discarding the last stage's output.
+         */
+        public Pipeline<I> build() {
+            return build(output -> {
+            });
+        }
+
+        /**
+         * Starts the pipeline, handing every output of the last stage to {@code sink}.
+         */
+        @SuppressWarnings("unchecked")
+        public Pipeline<I> build(Consumer<? super T> sink) {
+            if (definitions.isEmpty()) {
+                throw new IllegalStateException("pipeline needs at least one stage");
+            }
+            return new Pipeline<>(List.copyOf(definitions), output -> sink.accept((T) output));
+        }
+    }
+}
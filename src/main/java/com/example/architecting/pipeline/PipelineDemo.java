@@ -0,0 +1,87 @@
+package com.example.architecting.pipeline;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.example.architecting.cpu.FibonacciStrategy;
+import com.example.architecting.cpu.MixedWorkloadDemo;
+import com.example.architecting.cpu.NaiveFibonacci;
+import com.example.architecting.metrics.LiveMetrics;
+import com.example.architecting.throughput.ResultExporter;
+import com.example.architecting.throughput.TaskSimulator;
+
+/**
+ * The {@link MixedWorkloadDemo} workload (I/O -> Fib -> I/O) run thread-per-request and as a
+ * three-stage {@link Pipeline}, printing per-stage utilization, queue lengths and the bottleneck.
+ * <p>
+ * Usage: {@code PipelineDemo [taskCount] [ioMillis] [fibNumber] [ioWorkers]}
+ */
+public class PipelineDemo {
+
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+            Duration ioDuration = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 10);
+            int fibNumber = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+            int ioWorkers = args.length > 3 ? Integer.parseInt(args[3]) : 1_000;
+            int cpus = Runtime.getRuntime().availableProcessors();
+
+            System.out.println("==================================================");
+            System.out.println("      Staged Pipeline vs Thread-per-Request       ");
+            System.out.println("==================================================");
+            System.out.println("Task: " + ioDuration.toMillis() + "ms I/O -> Fib(" + fibNumber + ") -> "
+                    + ioDuration.toMillis() + "ms I/O");
+            System.out.println("Task Count: " + taskCount);
+            System.out.println("==================================================");
+
+            List<TaskSimulator.SimulationResult> results = new ArrayList<>();
+
+            // 1. Thread-per-request baselines
+            results.add(MixedWorkloadDemo.runPureVirtual(taskCount, ioDuration, fibNumber));
+            try (ExecutorService cpuPool = Executors.newFixedThreadPool(cpus)) {
+                results.add(MixedWorkloadDemo.runOffloaded(taskCount, ioDuration, fibNumber, cpuPool));
+            }
+
+            // 2. Staged: I/O stages on virtual threads, the CPU stage on one platform thread per core
+            FibonacciStrategy fibonacci = new NaiveFibonacci();
+            System.out.println("\nStarting Staged Pipeline...");
+            try (Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+                    .stage("receive", Pipeline.StageConfig.io(ioWorkers, ioWorkers), request -> {
+                        Thread.sleep(ioDuration);
+                        return request;
+                    })
+                    .stage("compute", Pipeline.StageConfig.cpu(cpus, cpus * 4), request -> fibonacci.compute(fibNumber))
+                    .stage("respond", Pipeline.StageConfig.io(ioWorkers, ioWorkers), result -> {
+                        Thread.sleep(ioDuration);
+                        return result;
+                    })
+                    .build()) {
+                long start = System.nanoTime();
+                for (int i = 0; i < taskCount; i++) {
+                    pipeline.submit(i);
+                }
+                pipeline.awaitCompleted(taskCount);
+                long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+                double throughput = taskCount / (millis / 1000.0);
+
+                System.out.printf("[Staged Pipeline] Time: %d ms, Throughput: %.2f tasks/sec%n", millis, throughput);
+                Pipeline.Metrics metrics = pipeline.metrics();
+                System.out.println(metrics);
+                results.add(new TaskSimulator.SimulationResult("Staged Pipeline", taskCount, millis, throughput,
+                        metrics.latency()));
+            }
+
+            ResultExporter exporter = new ResultExporter("PipelineDemo")
+                    .config("tasks", taskCount)
+                    .config("ioMillis", ioDuration.toMillis())
+                    .config("fibNumber", fibNumber)
+                    .config("ioWorkers", ioWorkers);
+            results.forEach(exporter::add);
+            exporter.writeAndReport();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.architecting.pool;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.architecting.throughput.LatencyHistogram;
+import com.example.architecting.throughput.LatencyStats;
+
+/**
+ * Simulated JDBC/HTTP connection pool: the resource limit a service actually hits once its
+ * request threads are virtual and therefore effectively unlimited.
+ * <p>
+ * A {@link Semaphore} hands out permits (fair = FIFO hand-off to the longest waiter, unfair =
+ * a releasing thread may barge back in), and idle connections are reused most-recently-used
+ * first, as HikariCP does, so hot connections stay hot. Borrowing can optionally pay a
+ * validation round trip ({@code SELECT 1}), which parks the caller like real I/O would.
+ */
+public final class ConnectionPool {
+
+    /**
+     * @param size           Connections in the pool.
+     * @param acquireTimeout How long a caller waits for a connection before giving up.
+     * @param validationCost Round trip paid on every borrow to validate the connection; zero to skip.
+     * @param fair           FIFO hand-off to waiters instead of allowing barging.
+     */
+    public record Config(int size, Duration acquireTimeout, Duration validationCost, boolean fair) {
+
+        public static Config of(int size) {
+            return new Config(size, Duration.ofSeconds(30), Duration.ZERO, false);
+        }
+
+        public Config withAcquireTimeout(Duration acquireTimeout) {
+            return new Config(size, acquireTimeout, validationCost, fair);
+        }
+
+        public Config withValidationCost(Duration validationCost) {
+            return new Config(size, acquireTimeout, validationCost, fair);
+        }
+
+        public Config withFair(boolean fair) {
+            return new Config(size, acquireTimeout, validationCost, fair);
+        }
+    }
+
+    /**
+     * @param acquired    Successful borrows.
+     * @param timeouts    Borrows that gave up after the acquire timeout.
+     * @param validations Validation round trips paid.
+     * @param peakInUse   Most connections out at once.
+     * @param acquireWait Time spent waiting for a connection, timeouts included.
+     */
+    public record Metrics(int size, long acquired, long timeouts, long validations, int peakInUse,
+            LatencyStats acquireWait) {
+
+        @Override
+        public String toString() {
+            return String.format("  pool: size %d, acquired %d, timeouts %d, validations %d, peak in use %d%n"
+                    + "  acquire wait: %s", size, acquired, timeouts, validations, peakInUse, acquireWait);
+        }
+    }
+
+    /**
+     * A borrowed connection; closing it returns it to the pool.
+     */
+    public final class Connection implements AutoCloseable {
+
+        private final int id;
+        private boolean borrowed;
+
+        private Connection(int id) {
+            this.id = id;
+        }
+
+        public int id() {
+            return id;
+        }
+
+        @Override
+        public void close() {
+            if (borrowed) {
+                borrowed = false;
+                release(this);
+            }
+        }
+    }
+
+    private final Config config;
+    private final Semaphore permits;
+    private final Deque<Connection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakInUse = new AtomicInteger();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder validations = new LongAdder();
+    private final LatencyHistogram acquireWait = new LatencyHistogram();
+
+    public ConnectionPool(Config config) {
+        this.config = config;
+        this.permits = new Semaphore(config.size(), config.fair());
+        for (int i = 0; i < config.size(); i++) {
+            idle.push(new Connection(i));
+        }
+    }
+
+    public Config config() {
+        return config;
+    }
+
+    /**
+     * Borrows a connection, waiting up to the acquire timeout. Waiting parks the caller; on a
+     * virtual thread that frees the carrier.
+     *
+     * @throws TimeoutException if no connection became free in time.
+     */
+    public Connection acquire() throws InterruptedException, TimeoutException {
+        long start = System.nanoTime();
+        boolean admitted = permits.tryAcquire(config.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        acquireWait.recordValue(System.nanoTime() - start);
+        if (!admitted) {
+            timeouts.increment();
+            throw new TimeoutException("no connection within " + config.acquireTimeout().toMillis() + " ms (pool of "
+                    + config.size() + ")");
+        }
+
+        // Holding a permit guarantees an idle connection.
+        Connection connection = idle.pop();
+        connection.borrowed = true;
+        peakInUse.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+        acquired.increment();
+        if (!config.validationCost().isZero()) {
+            validations.increment();
+            try {
+                Thread.sleep(config.validationCost());
+            } catch (InterruptedException e) {
+                connection.close();
+                throw e;
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Runs {@code work} holding a connection.
+     */
+    public <T> T withConnection(Callable<T> work) throws Exception {
+        try (Connection connection = acquire()) {
+            return work.call();
+        }
+    }
+
+    public Metrics metrics() {
+        return new Metrics(config.size(), acquired.sum(), timeouts.sum(), validations.sum(), peakInUse.get(),
+                acquireWait.snapshot());
+    }
+
+    private void release(Connection connection) {
+        inUse.decrementAndGet();
+        idle.push(connection);
+        permits.release();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.architecting.pool;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.architecting.metrics.LiveMetrics;
+import com.example.architecting.throughput.LatencyStats;
+import com.example.architecting.throughput.ResultExporter;
+import com.example.architecting.throughput.TaskSimulator;
+import com.example.architecting.throughput.VirtualThreadModel;
+
+/**
+ * Sweeps connection-pool size against task concurrency on {@link VirtualThreadModel}.
+ * <p>
+ * For each concurrency (the model's in-flight cap) throughput first grows with the pool and then
+ * flattens once the pool is no longer the bottleneck. The sweep reports the <em>knee</em>: the
+ * smallest pool reaching {@value #KNEE_FRACTION} of the best throughput seen for that
+ * concurrency. It also reports how connection wait grows as the pool shrinks below it.
+ * <p>
+ * Usage: {@code PoolSizeSweep [taskCount] [ioMillis] [acquireTimeoutMillis]}
+ */
+public class PoolSizeSweep {
+
+    private static final double KNEE_FRACTION = 0.9;
+    private static final int[] CONCURRENCY = { 100, 1_000, 10_000 };
+    private static final int[] POOL_SIZES = { 10, 25, 50, 100, 200, 400, 800 };
+
+    /**
+     * One cell of the sweep.
+     */
+    public record Point(int concurrency, int poolSize, TaskSimulator.SimulationResult result,
+            ConnectionPool.Metrics pool) {
+
+        public double throughputPerSecond() {
+            return result.throughputPerSecond();
+        }
+
+        /**
+         * The run's result, named after its cell of the sweep.
+         */
+        public TaskSimulator.SimulationResult toSimulationResult() {
+            return new TaskSimulator.SimulationResult(result.modelName() + " c=" + concurrency + " pool=" + poolSize,
+                    result.taskCount(), result.totalTimeMillis(), result.throughputPerSecond(), result.latency(),
+                    result.allocation());
+        }
+    }
+
+    public static void main(String[] args) {
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 5_000;
+            Duration ioDuration = Duration.ofMillis(args.length > 1 ? Long.parseLong(args[1]) : 10);
+            Duration acquireTimeout = Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 30_000);
+
+            System.out.println("==================================================");
+            System.out.println("      Connection Pool Size Sweep                  ");
+            System.out.println("==================================================");
+            System.out.println("  Tasks per point: " + taskCount);
+            System.out.println("  I/O Duration: " + ioDuration.toMillis() + "ms (holding a connection)");
+            System.out.println("  Acquire Timeout: " + acquireTimeout.toMillis() + "ms");
+            System.out.println("==================================================\n");
+
+            ResultExporter exporter = new ResultExporter("PoolSizeSweep")
+                    .config("tasks", taskCount)
+                    .config("ioMillis", ioDuration.toMillis())
+                    .config("acquireTimeoutMillis", acquireTimeout.toMillis());
+
+            System.out.printf("%11s %9s: %12s %12s %12s %9s%n", "concurrency", "pool", "tasks/sec", "wait p50 ms",
+                    "wait p99 ms", "timeouts");
+            for (int concurrency : CONCURRENCY) {
+                List<Point> points = new ArrayList<>();
+                for (int poolSize : POOL_SIZES) {
+                    Point point = run(concurrency, poolSize, taskCount, ioDuration, acquireTimeout);
+                    points.add(point);
+                    exporter.add(point.toSimulationResult());
+                    LatencyStats wait = point.pool().acquireWait();
+                    System.out.printf("%11d %9d: %12.1f %12.3f %12.3f %9d%n", concurrency, poolSize,
+                            point.throughputPerSecond(), LatencyStats.toMillis(wait.p50Nanos()),
+                            LatencyStats.toMillis(wait.p99Nanos()), point.pool().timeouts());
+                }
+                Point knee = knee(points);
+                if (knee.poolSize() == POOL_SIZES[POOL_SIZES.length - 1]) {
+                    System.out.printf("  -> still pool-bound at %d connections; no knee in the swept range%n%n",
+                            knee.poolSize());
+                } else {
+                    System.out.printf("  -> knee at pool %d (%.1f tasks/sec)%n%n", knee.poolSize(),
+                            knee.throughputPerSecond());
+                }
+            }
+            exporter.writeAndReport();
+        }
+    }
+
+    /**
+     * Runs {@code taskCount} tasks with at most {@code concurrency} in flight against a fresh pool.
+     */
+    public static Point run(int concurrency, int poolSize, int taskCount, Duration ioDuration,
+            Duration acquireTimeout) {
+        ConnectionPool pool = new ConnectionPool(ConnectionPool.Config.of(poolSize).withAcquireTimeout(acquireTimeout));
+        TaskSimulator model = new VirtualThreadModel(concurrency, pool);
+        TaskSimulator.SimulationResult result = model.run(taskCount, ioDuration, Duration.ZERO);
+        return new Point(concurrency, poolSize, result, pool.metrics());
+    }
+
+    /**
+     * The smallest pool whose throughput reaches {@value #KNEE_FRACTION} of the best in {@code points}.
+     */
+    public static Point knee(List<Point> points) {
+        double best = points.stream().mapToDouble(Point::throughputPerSecond).max().orElse(0);
+        return points.stream()
+                .filter(point -> point.throughputPerSecond() >= KNEE_FRACTION * best)
+                .min((a, b) -> Integer.compare(a.poolSize(), b.poolSize()))
+                .orElseThrow();
+    }
+}
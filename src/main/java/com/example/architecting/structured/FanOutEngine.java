@@ -0,0 +1,169 @@
+package com.example.architecting.structured;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Joiner;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.example.architecting.context.RequestContext;
+import com.example.architecting.throughput.LatencyHistogram;
+import com.example.architecting.throughput.LatencyStats;
+
+/**
+ * Fan-out of downstream calls on {@link StructuredTaskScope}, with deadlines, fail-fast or quorum
+ * joining, and hedged requests.
+ * <ul>
+ * <li><b>Deadlines</b>: every fan-out has an overall deadline (the scope's timeout), capped by
+ * the bound {@link RequestContext}'s deadline; a {@link Call} may also carry its own, enforced by
+ * a nested scope around that call.</li>
+ * <li><b>Fail-fast</b> ({@link #invokeAll}): the first failure cancels the siblings.</li>
+ * <li><b>Quorum</b> ({@link #invokeQuorum}): completes once enough calls succeeded and cancels the
+ * rest; fails as soon as the quorum becomes unreachable.</li>
+ * <li><b>Hedging</b>: if a hedged call has not answered after the p95 latency observed for that
+ * call name, a duplicate is fired and the first result wins; the loser is cancelled.</li>
+ * </ul>
+ * Because every helper is itself a scope, cancellation always propagates: no call outlives the
+ * fan-out that started it.
+ */
+public final class FanOutEngine {
+
+    /** Samples needed before the observed p95 replaces the initial hedge delay. */
+    private static final long MIN_HEDGE_SAMPLES = 20;
+    private static final double HEDGE_PERCENTILE = 95.0;
+
+    /**
+     * One downstream call.
+     *
+     * @param name    Key under which latencies are tracked (and hedge delays derived).
+     * @param timeout Per-call deadline, in addition to the fan-out's overall deadline.
+     * @param hedged  Whether to fire a duplicate after the p95 delay.
+     */
+    public record Call<T>(String name, Callable<T> callable, Optional<Duration> timeout, boolean hedged) {
+
+        public static <T> Call<T> of(String name, Callable<T> callable) {
+            return new Call<>(name, callable, Optional.empty(), false);
+        }
+
+        public Call<T> withTimeout(Duration timeout) {
+            return new Call<>(name, callable, Optional.of(timeout), hedged);
+        }
+
+        public Call<T> withHedging() {
+            return new Call<>(name, callable, timeout, true);
+        }
+    }
+
+    private final Duration initialHedgeDelay;
+    private final ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final LongAdder hedgesFired = new LongAdder();
+
+    /**
+     * @param initialHedgeDelay Hedge delay used until enough latency samples exist for a call name.
+     */
+    public FanOutEngine(Duration initialHedgeDelay) {
+        this.initialHedgeDelay = initialHedgeDelay;
+    }
+
+    /**
+     * Runs all calls in parallel and returns their results in order. The first failure, or the
+     * deadline expiring, cancels the remaining calls.
+     *
+     * @throws StructuredTaskScope.FailedException  if a call failed.
+     * @throws StructuredTaskScope.TimeoutException if {@code deadline} expired.
+     */
+    public <T> List<T> invokeAll(List<Call<T>> calls, Duration deadline) throws InterruptedException {
+        try (var scope = StructuredTaskScope.open(Joiner.<T>allSuccessfulOrThrow(),
+                cfg -> cfg.withTimeout(RequestContext.remainingOr(deadline)))) {
+            for (Call<T> call : calls) {
+                scope.fork(guarded(call));
+            }
+            return scope.join().map(Subtask::get).toList();
+        }
+    }
+
+    /**
+     * Runs all calls in parallel and returns the first {@code quorum} successful results in
+     * completion order, cancelling the stragglers.
+     *
+     * @throws StructuredTaskScope.FailedException  if so many calls failed that the quorum is unreachable.
+     * @throws StructuredTaskScope.TimeoutException if {@code deadline} expired first.
+     */
+    public <T> List<T> invokeQuorum(List<Call<T>> calls, int quorum, Duration deadline) throws InterruptedException {
+        try (var scope = StructuredTaskScope.open(new QuorumJoiner<T>(calls.size(), quorum),
+                cfg -> cfg.withTimeout(RequestContext.remainingOr(deadline)))) {
+            for (Call<T> call : calls) {
+                scope.fork(guarded(call));
+            }
+            return scope.join();
+        }
+    }
+
+    /**
+     * Wraps a call with its per-call deadline, hedging and latency tracking, for forking into a
+     * caller-owned scope (e.g. when the results have different types).
+     */
+    public <T> Callable<T> guarded(Call<T> call) {
+        return () -> {
+            long start = System.nanoTime();
+            T result = call.timeout().isPresent()
+                    ? withTimeout(() -> maybeHedged(call), call.timeout().get())
+                    : maybeHedged(call);
+            histogram(call.name()).recordValue(System.nanoTime() - start);
+            return result;
+        };
+    }
+
+    public LatencyStats stats(String name) {
+        return histogram(name).snapshot();
+    }
+
+    public long hedgesFired() {
+        return hedgesFired.sum();
+    }
+
+    /**
+     * The delay after which a hedged call with this name fires its duplicate.
+     */
+    public Duration hedgeDelay(String name) {
+        LatencyHistogram histogram = histogram(name);
+        if (histogram.getTotalCount() < MIN_HEDGE_SAMPLES) {
+            return initialHedgeDelay;
+        }
+        return Duration.ofNanos(histogram.getValueAtPercentile(HEDGE_PERCENTILE));
+    }
+
+    private <T> T maybeHedged(Call<T> call) throws Exception {
+        if (!call.hedged()) {
+            return call.callable().call();
+        }
+        Duration delay = hedgeDelay(call.name());
+        try (var scope = StructuredTaskScope.open(Joiner.<T>anySuccessfulResultOrThrow())) {
+            scope.fork(call.callable());
+            scope.fork(() -> {
+                // Interrupted (cancelled) here if the primary answers within the delay.
+                Thread.sleep(delay);
+                hedgesFired.increment();
+                return call.callable().call();
+            });
+            return scope.join();
+        }
+    }
+
+    private static <T> T withTimeout(Callable<T> callable, Duration timeout) throws InterruptedException {
+        try (var scope = StructuredTaskScope.open(Joiner.<T>anySuccessfulResultOrThrow(),
+                cfg -> cfg.withTimeout(timeout))) {
+            scope.fork(callable);
+            return scope.join();
+        }
+    }
+
+    private LatencyHistogram histogram(String name) {
+        return latencies.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+}
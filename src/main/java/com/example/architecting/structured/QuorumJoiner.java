@@ -0,0 +1,60 @@
+package com.example.architecting.structured;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.StructuredTaskScope.Subtask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Joiner that succeeds once {@code quorum} of {@code total} subtasks succeeded and fails as soon
+ * as more than {@code total - quorum} failed. Either outcome cancels the scope, interrupting the
+ * subtasks still running.
+ */
+final class QuorumJoiner<T> implements StructuredTaskScope.Joiner<T, List<T>> {
+
+    private final int total;
+    private final int quorum;
+    private final Queue<T> results = new ConcurrentLinkedQueue<>();
+    private final Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger successCount = new AtomicInteger();
+    private final AtomicInteger failureCount = new AtomicInteger();
+
+    QuorumJoiner(int total, int quorum) {
+        if (quorum < 1 || quorum > total) {
+            throw new IllegalArgumentException("quorum must be in [1, " + total + "]: " + quorum);
+        }
+        this.total = total;
+        this.quorum = quorum;
+    }
+
+    @Override
+    public boolean onComplete(Subtask<? extends T> subtask) {
+        return switch (subtask.state()) {
+            case SUCCESS -> {
+                results.add(subtask.get());
+                yield successCount.incrementAndGet() >= quorum;
+            }
+            case FAILED -> {
+                failures.add(subtask.exception());
+                yield total - failureCount.incrementAndGet() < quorum;
+            }
+            case UNAVAILABLE -> false;
+        };
+    }
+
+    @Override
+    public List<T> result() throws Throwable {
+        if (successCount.get() >= quorum) {
+            List<T> completed = new ArrayList<>(results);
+            return List.copyOf(completed.subList(0, quorum));
+        }
+        // join() rethrows this wrapped in a StructuredTaskScope.FailedException.
+        IllegalStateException failure = new IllegalStateException(
+                "quorum of " + quorum + "/" + total + " unreachable: " + failureCount.get() + " failed");
+        failures.forEach(failure::addSuppressed);
+        throw failure;
+    }
+}
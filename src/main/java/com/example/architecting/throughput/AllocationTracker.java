@@ -0,0 +1,80 @@
+package com.example.architecting.throughput;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap allocation and GC activity over one run.
+ * <p>
+ * Allocation comes from {@link com.sun.management.ThreadMXBean#getTotalThreadAllocatedMemory()},
+ * which covers every thread in the JVM. Virtual threads allocate in their carrier's TLAB, so their
+ * allocations count towards the carriers. Background threads such as JFR or samplers add a little
+ * noise, so the per-task figure is an upper bound.
+ */
+public final class AllocationTracker {
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final long startBytes;
+    private final long startGcCount;
+    private final long startGcMillis;
+
+    private AllocationTracker() {
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (threads.isThreadAllocatedMemorySupported() && !threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+        this.startBytes = allocatedBytes();
+        this.startGcCount = gcCount();
+        this.startGcMillis = gcMillis();
+    }
+
+    public static AllocationTracker start() {
+        return new AllocationTracker();
+    }
+
+    /**
+     * Returns what was allocated and collected since {@link #start()}.
+     */
+    public AllocationReport stop(int taskCount) {
+        long allocated = startBytes < 0 ? -1 : allocatedBytes() - startBytes;
+        return new AllocationReport(allocated, allocated < 0 ? -1 : (double) allocated / taskCount,
+                gcCount() - startGcCount, gcMillis() - startGcMillis);
+    }
+
+    private long allocatedBytes() {
+        return threads.isThreadAllocatedMemoryEnabled() ? threads.getTotalThreadAllocatedMemory() : -1;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+
+    /**
+     * @param allocatedBytes Heap bytes allocated during the run, or -1 if the JVM can't measure it.
+     * @param bytesPerTask   {@code allocatedBytes / taskCount}, or -1.
+     * @param gcCount        Collections across all collectors during the run.
+     * @param gcTimeMillis   Accumulated collection time during the run.
+     */
+    public record AllocationReport(long allocatedBytes, double bytesPerTask, long gcCount, long gcTimeMillis) {
+
+        public static final AllocationReport EMPTY = new AllocationReport(-1, -1, 0, 0);
+
+        @Override
+        public String toString() {
+            return String.format("  allocation: %.1f MB (%.0f B/task), %d GCs, %d ms GC",
+                    allocatedBytes / (1024.0 * 1024.0), bytesPerTask, gcCount, gcTimeMillis);
+        }
+    }
+}
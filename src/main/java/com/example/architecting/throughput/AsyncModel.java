@@ -0,0 +1,124 @@
+package com.example.architecting.throughput;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Simulates throughput with non-blocking async composition: each task is a
+ * {@link CompletableFuture} chain on a small event-loop pool, the way reactive and
+ * {@code CompletableFuture}-based services are written without virtual threads.
+ * <p>
+ * The CPU phase runs on an event-loop thread. The I/O phase does not block any thread: a
+ * {@link ScheduledExecutorService} completes a future after the simulated latency, the way a
+ * non-blocking client completes one when the response arrives, and the rest of the chain hops
+ * back onto the event loop. Concurrency is therefore bounded by neither thread count nor stack
+ * memory, only by the futures and closures each chain allocates.
+ */
+public class AsyncModel implements TaskSimulator {
+
+    private final int eventLoops;
+
+    public AsyncModel() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param eventLoops Threads running the chains' stages (typically one per core).
+     */
+    public AsyncModel(int eventLoops) {
+        this.eventLoops = eventLoops;
+    }
+
+    @Override
+    public SimulationResult run(int taskCount, Duration ioDuration, Duration cpuDuration) {
+        System.out.println("Starting Async (CompletableFuture) simulation with " + eventLoops + " event loops...");
+
+        try (ExecutorService loop = newEventLoops();
+                ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("async-timer").daemon().factory())) {
+            TaskLatencyRecorder recorder = new TaskLatencyRecorder(modelName());
+            CountDownLatch completed = new CountDownLatch(taskCount);
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            AllocationTracker allocations = AllocationTracker.start();
+            long start = System.currentTimeMillis();
+
+            // All tasks are issued up front, like the thread models' unbounded submission. Each is timed from
+            // its own submission, so queue wait does not include the time spent issuing the tasks before it.
+            for (int i = 0; i < taskCount; i++) {
+                long submitNanos = System.nanoTime();
+                recorder.submitted();
+                CompletableFuture.supplyAsync(() -> {
+                    long started = System.nanoTime();
+                    spin(cpuDuration);
+                    return started;
+                }, loop)
+                        .thenCompose(started -> latency(timer, ioDuration).thenApplyAsync(ignored -> started, loop))
+                        .whenComplete((started, error) -> {
+                            if (error != null) {
+                                failure.compareAndSet(null, error);
+                                recorder.failed();
+                            } else {
+                                recorder.record(submitNanos, started, System.nanoTime());
+                            }
+                            completed.countDown();
+                        });
+            }
+
+            try {
+                completed.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for async tasks", e);
+            }
+            if (failure.get() != null) {
+                throw new RuntimeException("Async task failed", failure.get());
+            }
+
+            long end = System.currentTimeMillis();
+            long totalTime = end - start;
+            double throughput = (double) taskCount / (totalTime / 1000.0);
+
+            return new SimulationResult(modelName(), taskCount, totalTime, throughput, recorder.report(),
+                    allocations.stop(taskCount));
+        }
+    }
+
+    @Override
+    public String modelName() {
+        return "Async CompletableFuture (" + eventLoops + " loops)";
+    }
+
+    /**
+     * The event-loop pool the chains' stages run on.
+     */
+    private ExecutorService newEventLoops() {
+        return Executors.newFixedThreadPool(eventLoops, Thread.ofPlatform().name("async-loop-", 0).factory());
+    }
+
+    /**
+     * A future completed by {@code timer} after {@code ioDuration}; no thread waits for it.
+     */
+    private static CompletableFuture<Void> latency(ScheduledExecutorService timer, Duration ioDuration) {
+        if (ioDuration.isZero()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        CompletableFuture<Void> response = new CompletableFuture<>();
+        timer.schedule(() -> response.complete(null), ioDuration.toNanos(), TimeUnit.NANOSECONDS);
+        return response;
+    }
+
+    private static void spin(Duration cpuDuration) {
+        if (!cpuDuration.isZero()) {
+            long endCpu = System.nanoTime() + cpuDuration.toNanos();
+            while (System.nanoTime() < endCpu) {
+                // busy spin
+            }
+        }
+    }
+}
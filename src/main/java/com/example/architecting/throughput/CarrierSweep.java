@@ -0,0 +1,185 @@
+package com.example.architecting.throughput;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Sweeps virtual-thread carrier configurations by running the same {@link VirtualThreadModel}
+ * workload in a fresh JVM per configuration.
+ * <p>
+ * The default scheduler is a ForkJoinPool configured once at JVM start from the
+ * {@code jdk.virtualThreadScheduler.parallelism} and {@code jdk.virtualThreadScheduler.maxPoolSize}
+ * system properties, so each configuration needs its own JVM. On Linux a configuration can also
+ * be restricted to a CPU set with {@code taskset}, to emulate smaller hosts or test affinity.
+ */
+public class CarrierSweep {
+
+    /**
+     * One carrier configuration.
+     *
+     * @param parallelism Carrier threads normally available to run virtual threads.
+     * @param maxPoolSize Upper bound including carriers added to compensate for pinning/blocking.
+     * @param cpuSet      Optional {@code taskset -c} CPU list, e.g. {@code "0-3"}.
+     */
+    public record CarrierConfig(int parallelism, int maxPoolSize, Optional<String> cpuSet) {
+
+        public String label() {
+            return "parallelism=" + parallelism + ", maxPoolSize=" + maxPoolSize
+                    + cpuSet.map(cpus -> ", cpus=" + cpus).orElse("");
+        }
+    }
+
+    /**
+     * Outcome of one forked run; latency values are end-to-end nanoseconds.
+     */
+    public record SweepResult(CarrierConfig config, double throughputPerSecond, LatencyStats latency) {
+
+        /**
+         * The worker reports only throughput and end-to-end latency, so run time is derived from the
+         * throughput and the queue-wait and run-time columns are empty.
+         */
+        public TaskSimulator.SimulationResult toSimulationResult(int taskCount) {
+            long millis = throughputPerSecond > 0 ? Math.round(taskCount * 1_000.0 / throughputPerSecond) : 0;
+            return new TaskSimulator.SimulationResult("Virtual Threads " + config.label(), taskCount, millis,
+                    throughputPerSecond, TaskLatencyRecorder.LatencyReport.ofEndToEnd(latency));
+        }
+    }
+
+    private static final Duration WORKER_TIMEOUT = Duration.ofMinutes(10);
+    /** How long to wait for the worker's last output once it has exited. */
+    private static final Duration OUTPUT_DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final int taskCount;
+    private final Duration ioDuration;
+    private final Duration cpuDuration;
+    private final int warmupRuns;
+
+    public CarrierSweep(int taskCount, Duration ioDuration, Duration cpuDuration, int warmupRuns) {
+        this.taskCount = taskCount;
+        this.ioDuration = ioDuration;
+        this.cpuDuration = cpuDuration;
+        this.warmupRuns = warmupRuns;
+    }
+
+    public static void main(String[] args) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        CarrierSweep sweep = new CarrierSweep(20_000, Duration.ofMillis(5), Duration.ofNanos(200_000), 1);
+
+        List<CarrierConfig> configs = new ArrayList<>();
+        for (int parallelism : new int[] { 1, Math.max(1, cpus / 2), cpus, cpus * 2 }) {
+            configs.add(new CarrierConfig(parallelism, Math.max(256, parallelism), Optional.empty()));
+        }
+        if (cpus > 1 && System.getProperty("os.name").toLowerCase().contains("linux")) {
+            // Same parallelism, but all carriers squeezed onto half the CPUs.
+            configs.add(new CarrierConfig(cpus, 256, Optional.of("0-" + (cpus / 2 - 1))));
+        }
+
+        System.out.println("==================================================");
+        System.out.println("      Virtual Thread Carrier Configuration Sweep  ");
+        System.out.println("==================================================");
+        System.out.println("  Tasks: " + sweep.taskCount + ", I/O: " + sweep.ioDuration.toMillis() + "ms, CPU: "
+                + sweep.cpuDuration.toNanos() / 1_000 + "us, CPUs: " + cpus);
+        System.out.println("==================================================");
+
+        List<SweepResult> results = sweep.run(configs);
+
+        System.out.println("\nSweep Report (end-to-end latency in ms):");
+        System.out.printf("%-48s %12s %9s %9s %9s %9s%n", "Configuration", "Tasks/Sec", "p50", "p99", "p99.9",
+                "max");
+        for (SweepResult result : results) {
+            LatencyStats latency = result.latency();
+            System.out.printf("%-48s %12.2f %9.2f %9.2f %9.2f %9.2f%n", result.config().label(),
+                    result.throughputPerSecond(), LatencyStats.toMillis(latency.p50Nanos()),
+                    LatencyStats.toMillis(latency.p99Nanos()), LatencyStats.toMillis(latency.p999Nanos()),
+                    LatencyStats.toMillis(latency.maxNanos()));
+        }
+
+        ResultExporter exporter = new ResultExporter("CarrierSweep")
+                .config("tasks", sweep.taskCount)
+                .config("ioMillis", sweep.ioDuration.toMillis())
+                .config("cpuMicros", sweep.cpuDuration.toNanos() / 1_000)
+                .config("warmupRuns", sweep.warmupRuns);
+        for (SweepResult result : results) {
+            exporter.add(result.toSimulationResult(sweep.taskCount));
+        }
+        exporter.writeAndReport();
+    }
+
+    public List<SweepResult> run(List<CarrierConfig> configs) {
+        List<SweepResult> results = new ArrayList<>();
+        for (CarrierConfig config : configs) {
+            System.out.println("\nForking JVM with " + config.label() + "...");
+            results.add(runForked(config));
+        }
+        return List.copyOf(results);
+    }
+
+    private SweepResult runForked(CarrierConfig config) {
+        List<String> command = new ArrayList<>();
+        config.cpuSet().ifPresent(cpus -> command.addAll(List.of("taskset", "-c", cpus)));
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("--enable-preview");
+        command.add("-Djdk.virtualThreadScheduler.parallelism=" + config.parallelism());
+        command.add("-Djdk.virtualThreadScheduler.maxPoolSize=" + config.maxPoolSize());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(CarrierSweepWorker.class.getName());
+        command.add(String.valueOf(taskCount));
+        command.add(String.valueOf(ioDuration.toNanos() / 1_000));
+        command.add(String.valueOf(cpuDuration.toNanos() / 1_000));
+        command.add(String.valueOf(warmupRuns));
+
+        try {
+            Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            // Drained on its own thread so that a hung worker is caught by the timeout below instead of
+            // blocking this thread on a read.
+            AtomicReference<String> resultLine = new AtomicReference<>();
+            Thread output = Thread.ofVirtual().name("sweep-worker-output").start(() -> {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        if (line.startsWith(CarrierSweepWorker.RESULT_PREFIX)) {
+                            resultLine.set(line);
+                        } else {
+                            System.out.println("  | " + line);
+                        }
+                    }
+                } catch (IOException e) {
+                    // The worker exited or was destroyed.
+                }
+            });
+            if (!process.waitFor(WORKER_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+                throw new IllegalStateException("Worker timed out for " + config.label());
+            }
+            output.join(OUTPUT_DRAIN_TIMEOUT);
+            if (process.exitValue() != 0 || resultLine.get() == null) {
+                throw new IllegalStateException(
+                        "Worker failed for " + config.label() + " (exit code " + process.exitValue() + ")");
+            }
+            return parse(config, resultLine.get());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static SweepResult parse(CarrierConfig config, String line) {
+        String[] fields = line.substring(CarrierSweepWorker.RESULT_PREFIX.length()).trim().split(" ");
+        LatencyStats latency = new LatencyStats(Long.parseLong(fields[1]), 0, Long.parseLong(fields[2]),
+                Long.parseLong(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5]),
+                Long.parseLong(fields[6]));
+        return new SweepResult(config, Double.parseDouble(fields[0]), latency);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.architecting.throughput;
+
+import java.time.Duration;
+
+/**
+ * Entry point of the JVMs forked by {@link CarrierSweep}. Runs {@link VirtualThreadModel} under
+ * whatever {@code jdk.virtualThreadScheduler.*} settings the JVM was launched with and prints one
+ * machine-readable line:
+ * <pre>
+ * RESULT &lt;tasks/sec&gt; &lt;count&gt; &lt;p50 ns&gt; &lt;p90 ns&gt; &lt;p99 ns&gt; &lt;p99.9 ns&gt; &lt;max ns&gt;
+ * </pre>
+ * Usage: {@code CarrierSweepWorker <taskCount> <ioMicros> <cpuMicros> <warmupRuns>}
+ */
+public class CarrierSweepWorker {
+
+    static final String RESULT_PREFIX = "RESULT ";
+
+    public static void main(String[] args) {
+        int taskCount = Integer.parseInt(args[0]);
+        Duration ioDuration = Duration.ofNanos(Long.parseLong(args[1]) * 1_000);
+        Duration cpuDuration = Duration.ofNanos(Long.parseLong(args[2]) * 1_000);
+        int warmupRuns = Integer.parseInt(args[3]);
+
+        TaskSimulator model = new VirtualThreadModel();
+        for (int i = 0; i < warmupRuns; i++) {
+            model.run(taskCount, ioDuration, cpuDuration);
+        }
+        TaskSimulator.SimulationResult result = model.run(taskCount, ioDuration, cpuDuration);
+
+        LatencyStats latency = result.latency().endToEnd();
+        System.out.println(RESULT_PREFIX + result.throughputPerSecond() + " " + latency.count() + " "
+                + latency.p50Nanos() + " " + latency.p90Nanos() + " " + latency.p99Nanos() + " "
+                + latency.p999Nanos() + " " + latency.maxNanos());
+    }
+}
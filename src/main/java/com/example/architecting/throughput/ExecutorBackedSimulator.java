@@ -0,0 +1,24 @@
+package com.example.architecting.throughput;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A {@link TaskSimulator} whose tasks are independent blocking callables run on an executor, so
+ * drivers other than {@link #run} (e.g. {@link OpenLoopDriver}) can schedule them themselves.
+ * Models that drive their own event loops or compose futures implement only {@link TaskSimulator}.
+ */
+public interface ExecutorBackedSimulator extends TaskSimulator {
+
+    /**
+     * Creates the executor this model runs tasks on; the caller closes it.
+     */
+    ExecutorService newExecutor();
+
+    /**
+     * Creates one simulated task: {@code cpuDuration} of busy spinning followed by
+     * {@code ioDuration} of blocking I/O.
+     */
+    Callable<Void> newTask(Duration ioDuration, Duration cpuDuration);
+}
@@ -0,0 +1,187 @@
+package com.example.architecting.throughput;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free, allocation-free latency histogram with log-linear buckets (HdrHistogram style).
+ * <p>
+ * Values are nanoseconds. Every power-of-two range is split into {@code 2^SUB_BUCKET_BITS}
+ * linear sub-buckets, so any recorded value is reported with a relative error below
+ * {@code 1 / 2^SUB_BUCKET_BITS} (~0.4%). Recording is a single atomic increment on a
+ * pre-sized array, which keeps it safe to call from millions of virtual threads without
+ * creating garbage on the hot path.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final long DEFAULT_HIGHEST_TRACKABLE = TimeUnit.HOURS.toNanos(1);
+
+    private final long highestTrackableValue;
+    private final AtomicLongArray counts;
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(DEFAULT_HIGHEST_TRACKABLE);
+    }
+
+    /**
+     * @param highestTrackableValue Largest value (ns) kept exactly; larger values are clamped to it.
+     */
+    public LatencyHistogram(long highestTrackableValue) {
+        if (highestTrackableValue < 1) {
+            throw new IllegalArgumentException("highestTrackableValue must be positive");
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new AtomicLongArray(indexFor(highestTrackableValue) + 1);
+    }
+
+    /**
+     * Records one value in nanoseconds. Negative values are recorded as zero.
+     */
+    public void recordValue(long nanos) {
+        long value = Math.clamp(nanos, 0L, highestTrackableValue);
+        counts.incrementAndGet(indexFor(value));
+        sum.add(value);
+        // Cheap read first so the common case does not contend on the CAS.
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    /**
+     * Adds all counts of {@code other} into this histogram.
+     */
+    public void add(LatencyHistogram other) {
+        int length = Math.min(counts.length(), other.counts.length());
+        for (int i = 0; i < length; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        sum.add(other.sum.sum());
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    /**
+     * Serializes the raw counts, so a histogram recorded in another JVM can be {@link #decode decoded}
+     * and {@link #add added} exactly; percentiles themselves cannot be merged. The format is one
+     * whitespace-free token: {@code highestTrackable;sum;max;index:count,index:count...} with only
+     * non-empty buckets listed.
+     */
+    public String encode() {
+        StringBuilder buckets = new StringBuilder();
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            if (count != 0) {
+                if (!buckets.isEmpty()) {
+                    buckets.append(',');
+                }
+                buckets.append(i).append(':').append(count);
+            }
+        }
+        return highestTrackableValue + ";" + sum.sum() + ";" + max.get() + ";" + buckets;
+    }
+
+    /**
+     * Parses the output of {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if {@code encoded} is malformed.
+     */
+    public static LatencyHistogram decode(String encoded) {
+        String[] fields = encoded.split(";", -1);
+        if (fields.length != 4) {
+            throw new IllegalArgumentException("Malformed histogram: " + encoded);
+        }
+        try {
+            LatencyHistogram histogram = new LatencyHistogram(Long.parseLong(fields[0]));
+            histogram.sum.add(Long.parseLong(fields[1]));
+            histogram.max.set(Long.parseLong(fields[2]));
+            if (!fields[3].isEmpty()) {
+                for (String bucket : fields[3].split(",")) {
+                    int colon = bucket.indexOf(':');
+                    histogram.counts.addAndGet(Integer.parseInt(bucket.substring(0, colon)),
+                            Long.parseLong(bucket.substring(colon + 1)));
+                }
+            }
+            return histogram;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Malformed histogram: " + encoded, e);
+        }
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0);
+        }
+        sum.reset();
+        max.set(0);
+    }
+
+    public long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    public long getMaxValue() {
+        return max.get();
+    }
+
+    /**
+     * Returns the highest value equivalent to the bucket holding the given percentile.
+     *
+     * @param percentile Percentile in the range [0, 100].
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = getTotalCount();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.clamp(percentile, 0.0, 100.0) / 100.0 * total));
+        long cumulative = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Takes a point-in-time summary. Concurrent recordings may or may not be included.
+     */
+    public LatencyStats snapshot() {
+        long total = getTotalCount();
+        if (total == 0) {
+            return LatencyStats.EMPTY;
+        }
+        return new LatencyStats(total, (double) sum.sum() / total,
+                getValueAtPercentile(50.0),
+                getValueAtPercentile(90.0),
+                getValueAtPercentile(99.0),
+                getValueAtPercentile(99.9),
+                max.get());
+    }
+
+    private static int indexFor(long value) {
+        // Values below 2 * SUB_BUCKET_COUNT are stored exactly (shift == 0); above that each
+        // power of two gets SUB_BUCKET_COUNT buckets addressed by the top SUB_BUCKET_BITS + 1 bits.
+        int shift = Math.max(0, 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS);
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    private static long highestEquivalentValue(int index) {
+        int shift = Math.max(0, (index >> SUB_BUCKET_BITS) - 1);
+        long top = index - ((long) shift << SUB_BUCKET_BITS);
+        return ((top + 1) << shift) - 1;
+    }
+}
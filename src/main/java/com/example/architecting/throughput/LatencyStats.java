@@ -0,0 +1,21 @@
+package com.example.architecting.throughput;
+
+/**
+ * Immutable percentile summary of a {@link LatencyHistogram}. All values are nanoseconds.
+ */
+public record LatencyStats(long count, double meanNanos, long p50Nanos, long p90Nanos, long p99Nanos,
+        long p999Nanos, long maxNanos) {
+
+    public static final LatencyStats EMPTY = new LatencyStats(0, 0, 0, 0, 0, 0, 0);
+
+    @Override
+    public String toString() {
+        return String.format("p50=%.3f p90=%.3f p99=%.3f p99.9=%.3f max=%.3f ms (n=%d)",
+                toMillis(p50Nanos), toMillis(p90Nanos), toMillis(p99Nanos), toMillis(p999Nanos),
+                toMillis(maxNanos), count);
+    }
+
+    public static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
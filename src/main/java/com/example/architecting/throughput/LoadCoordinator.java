@@ -0,0 +1,311 @@
+package com.example.architecting.throughput;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Splits one workload across N worker JVMs on this host and merges their results, to tell the
+ * limits of a single JVM's scheduler apart from the limits of the host, and to simulate a small
+ * fleet of instances sharing one box.
+ * <p>
+ * Each {@link LoadWorker} is forked with its share of the tasks and its own carrier settings,
+ * warms up, then connects back over a loopback socket. Once every worker is ready the coordinator
+ * tells them all to start at once, so their measured intervals overlap. Fleet throughput is the
+ * total task count over the time from that start signal to the last result. Latency percentiles
+ * come from the workers' raw histograms merged bucket by bucket, not from averaging their
+ * percentiles.
+ * <p>
+ * The default sweep compares carriers in one JVM against JVMs with one carrier each, at equal
+ * total carrier threads: where the two diverge, the single JVM (its scheduler, GC or shared
+ * state) is the limit rather than the host.
+ * <p>
+ * Usage: {@code LoadCoordinator [model] [taskCount] [maxScale]} where {@code model} is
+ * {@code VIRTUAL} or {@code PLATFORM}.
+ */
+public class LoadCoordinator {
+
+    /**
+     * Models a worker can run through their own executor.
+     */
+    public enum Model {
+        VIRTUAL(VirtualThreadModel::new),
+        PLATFORM(PlatformThreadModel::new);
+
+        private final Supplier<ExecutorBackedSimulator> factory;
+
+        Model(Supplier<ExecutorBackedSimulator> factory) {
+            this.factory = factory;
+        }
+
+        public ExecutorBackedSimulator create() {
+            return factory.get();
+        }
+    }
+
+    /**
+     * @param jvms        Worker JVMs sharing the load.
+     * @param parallelism Virtual-thread carriers per worker JVM.
+     */
+    public record FleetConfig(int jvms, int parallelism) {
+
+        public String label() {
+            return jvms + " JVM" + (jvms == 1 ? "" : "s") + " x " + parallelism + " carrier"
+                    + (parallelism == 1 ? "" : "s");
+        }
+    }
+
+    public record WorkerResult(int workerId, int tasks, long elapsedNanos) {
+
+        public double throughputPerSecond() {
+            return tasks / (elapsedNanos / 1e9);
+        }
+    }
+
+    /**
+     * @param wallNanos From the start signal until the last worker reported.
+     * @param latency   Merged over all workers.
+     */
+    public record FleetResult(FleetConfig config, int tasks, long wallNanos, List<WorkerResult> workers,
+            TaskLatencyRecorder.LatencyReport latency) {
+
+        /** Fleet throughput: all tasks over the common wall-clock interval. */
+        public double throughputPerSecond() {
+            return tasks / (wallNanos / 1e9);
+        }
+
+        /** Sum of each worker's own throughput; above the fleet figure when workers finish unevenly. */
+        public double workerThroughputSum() {
+            return workers.stream().mapToDouble(WorkerResult::throughputPerSecond).sum();
+        }
+
+        public TaskSimulator.SimulationResult toSimulationResult(Model model) {
+            return new TaskSimulator.SimulationResult(model + " " + config.label(), tasks, wallNanos / 1_000_000,
+                    throughputPerSecond(), latency);
+        }
+    }
+
+    private static final Duration WORKER_TIMEOUT = Duration.ofMinutes(10);
+
+    /** How often accepting workers checks whether one of them died before connecting. */
+    private static final Duration ACCEPT_POLL = Duration.ofSeconds(1);
+
+    private final Model model;
+    private final int taskCount;
+    private final Duration ioDuration;
+    private final Duration cpuDuration;
+    private final int warmupRuns;
+
+    /**
+     * @param taskCount Total tasks per configuration, split evenly across its JVMs.
+     */
+    public LoadCoordinator(Model model, int taskCount, Duration ioDuration, Duration cpuDuration, int warmupRuns) {
+        this.model = model;
+        this.taskCount = taskCount;
+        this.ioDuration = ioDuration;
+        this.cpuDuration = cpuDuration;
+        this.warmupRuns = warmupRuns;
+    }
+
+    public static void main(String[] args) {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        Model model = args.length > 0 ? Model.valueOf(args[0].toUpperCase()) : Model.VIRTUAL;
+        int taskCount = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        int maxScale = args.length > 2 ? Integer.parseInt(args[2]) : cpus;
+        LoadCoordinator coordinator = new LoadCoordinator(model, taskCount, Duration.ofMillis(5),
+                Duration.ofNanos(200_000), 1);
+
+        // Same total carrier threads either way: more carriers in one JVM, or more JVMs.
+        List<FleetConfig> configs = new ArrayList<>();
+        for (int scale = 1; scale <= maxScale; scale *= 2) {
+            configs.add(new FleetConfig(1, scale));
+        }
+        for (int scale = 2; scale <= maxScale; scale *= 2) {
+            configs.add(new FleetConfig(scale, 1));
+        }
+
+        System.out.println("==================================================");
+        System.out.println("      Multi-JVM Load Coordinator                  ");
+        System.out.println("==================================================");
+        System.out.println("  Model: " + model + ", Tasks: " + taskCount + " per configuration");
+        System.out.println("  I/O: " + coordinator.ioDuration.toMillis() + "ms, CPU: "
+                + coordinator.cpuDuration.toNanos() / 1_000 + "us, CPUs: " + cpus);
+        System.out.println("==================================================");
+
+        List<FleetResult> results = coordinator.run(configs);
+
+        System.out.println("\nFleet Report (end-to-end latency in ms):");
+        System.out.printf("%-26s %12s %12s %9s %9s %9s %9s%n", "Configuration", "Tasks/Sec", "Sum/Worker", "p50",
+                "p99", "p99.9", "max");
+        ResultExporter exporter = new ResultExporter("LoadCoordinator")
+                .config("model", model)
+                .config("tasks", taskCount)
+                .config("ioMillis", coordinator.ioDuration.toMillis())
+                .config("cpuMicros", coordinator.cpuDuration.toNanos() / 1_000);
+        for (FleetResult result : results) {
+            LatencyStats latency = result.latency().endToEnd();
+            System.out.printf("%-26s %12.2f %12.2f %9.2f %9.2f %9.2f %9.2f%n", result.config().label(),
+                    result.throughputPerSecond(), result.workerThroughputSum(),
+                    LatencyStats.toMillis(latency.p50Nanos()), LatencyStats.toMillis(latency.p99Nanos()),
+                    LatencyStats.toMillis(latency.p999Nanos()), LatencyStats.toMillis(latency.maxNanos()));
+            exporter.add(result.toSimulationResult(model));
+        }
+        exporter.writeAndReport();
+    }
+
+    public List<FleetResult> run(List<FleetConfig> configs) {
+        List<FleetResult> results = new ArrayList<>();
+        for (FleetConfig config : configs) {
+            System.out.println("\nForking " + config.label() + "...");
+            results.add(run(config));
+        }
+        return List.copyOf(results);
+    }
+
+    public FleetResult run(FleetConfig config) {
+        List<Process> processes = new ArrayList<>();
+        List<Socket> sockets = new ArrayList<>();
+        try (ServerSocket server = new ServerSocket(0, config.jvms(), InetAddress.getLoopbackAddress())) {
+            for (int worker = 0; worker < config.jvms(); worker++) {
+                processes.add(fork(config, worker, share(worker, config.jvms()), server.getLocalPort()));
+            }
+
+            List<BufferedReader> readers = new ArrayList<>();
+            List<PrintWriter> writers = new ArrayList<>();
+            while (sockets.size() < config.jvms()) {
+                Socket socket = accept(server, processes);
+                socket.setSoTimeout((int) WORKER_TIMEOUT.toMillis());
+                sockets.add(socket);
+                BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                String ready = reader.readLine();
+                if (ready == null || !ready.startsWith(LoadWorker.READY)) {
+                    throw new IllegalStateException("Expected " + LoadWorker.READY + " from worker, got " + ready);
+                }
+                readers.add(reader);
+                writers.add(new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8));
+            }
+
+            long go = System.nanoTime();
+            writers.forEach(writer -> writer.println(LoadWorker.GO));
+
+            // Results are read in connection order; the last one read is the last one sent, so the
+            // wall time still ends when the slowest worker finished.
+            List<WorkerResult> workers = new ArrayList<>();
+            TaskLatencyRecorder merged = new TaskLatencyRecorder();
+            for (int i = 0; i < readers.size(); i++) {
+                String line = readers.get(i).readLine();
+                if (line == null || !line.startsWith(LoadWorker.RESULT_PREFIX)) {
+                    throw new IllegalStateException("Worker " + i + " failed for " + config.label());
+                }
+                String[] fields = line.substring(LoadWorker.RESULT_PREFIX.length()).split(" ", 3);
+                workers.add(new WorkerResult(i, Integer.parseInt(fields[0]), Long.parseLong(fields[1])));
+                merged.add(TaskLatencyRecorder.decode(fields[2]));
+            }
+            long wallNanos = System.nanoTime() - go;
+
+            awaitExit(config, processes);
+            int tasks = workers.stream().mapToInt(WorkerResult::tasks).sum();
+            return new FleetResult(config, tasks, wallNanos, List.copyOf(workers), merged.report());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            for (Socket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Best effort; the worker exits either way.
+                }
+            }
+            processes.forEach(Process::destroyForcibly);
+        }
+    }
+
+    /** Tasks for one worker; the remainder goes to the first ones. */
+    private int share(int worker, int jvms) {
+        return taskCount / jvms + (worker < taskCount % jvms ? 1 : 0);
+    }
+
+    private Process fork(FleetConfig config, int worker, int tasks, int port) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("--enable-preview");
+        command.add("-Djdk.virtualThreadScheduler.parallelism=" + config.parallelism());
+        command.add("-Djdk.virtualThreadScheduler.maxPoolSize=" + Math.max(256, config.parallelism()));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoadWorker.class.getName());
+        command.add(String.valueOf(port));
+        command.add(String.valueOf(worker));
+        command.add(model.name());
+        command.add(String.valueOf(tasks));
+        command.add(String.valueOf(ioDuration.toNanos() / 1_000));
+        command.add(String.valueOf(cpuDuration.toNanos() / 1_000));
+        command.add(String.valueOf(warmupRuns));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Thread.ofVirtual().name("worker-output-" + worker).start(() -> {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    System.out.println("  | " + line);
+                }
+            } catch (IOException e) {
+                // The worker exited or was destroyed.
+            }
+        });
+        return process;
+    }
+
+    /**
+     * Accepts the next worker connection, failing fast if a worker exited before connecting
+     * instead of waiting out {@link #WORKER_TIMEOUT}.
+     */
+    private static Socket accept(ServerSocket server, List<Process> processes) throws IOException {
+        server.setSoTimeout((int) ACCEPT_POLL.toMillis());
+        long deadline = System.nanoTime() + WORKER_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                return server.accept();
+            } catch (SocketTimeoutException e) {
+                for (Process process : processes) {
+                    if (!process.isAlive()) {
+                        throw new IllegalStateException(
+                                "Worker exited before connecting (exit code " + process.exitValue() + ")");
+                    }
+                }
+            }
+        }
+        throw new IllegalStateException("Timed out waiting for workers to connect");
+    }
+
+    private static void awaitExit(FleetConfig config, List<Process> processes) {
+        try {
+            for (Process process : processes) {
+                if (!process.waitFor(WORKER_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new IllegalStateException("Worker timed out for " + config.label());
+                }
+                if (process.exitValue() != 0) {
+                    throw new IllegalStateException(
+                            "Worker failed for " + config.label() + " (exit code " + process.exitValue() + ")");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
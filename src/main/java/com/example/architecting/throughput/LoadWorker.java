@@ -0,0 +1,77 @@
+package com.example.architecting.throughput;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Entry point of the JVMs forked by {@link LoadCoordinator}. Connects back to the coordinator on
+ * the loopback interface and runs its share of the load when told to, so that all workers
+ * measure the same interval. The line protocol is:
+ * <pre>
+ * worker -&gt; READY &lt;workerId&gt;                        (after warm-up)
+ * coordinator -&gt; GO
+ * worker -&gt; RESULT &lt;tasks&gt; &lt;elapsed ns&gt; &lt;latency histograms&gt;
+ * </pre>
+ * The histograms are {@link TaskLatencyRecorder#encode() encoded} raw counts, so the coordinator can
+ * merge them exactly. Standard output is left for logging.
+ * <p>
+ * Usage: {@code LoadWorker <port> <workerId> <model> <taskCount> <ioMicros> <cpuMicros> <warmupRuns>}
+ */
+public class LoadWorker {
+
+    static final String READY = "READY";
+    static final String GO = "GO";
+    static final String RESULT_PREFIX = "RESULT ";
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.parseInt(args[0]);
+        int workerId = Integer.parseInt(args[1]);
+        LoadCoordinator.Model model = LoadCoordinator.Model.valueOf(args[2]);
+        int taskCount = Integer.parseInt(args[3]);
+        Duration ioDuration = Duration.ofNanos(Long.parseLong(args[4]) * 1_000);
+        Duration cpuDuration = Duration.ofNanos(Long.parseLong(args[5]) * 1_000);
+        int warmupRuns = Integer.parseInt(args[6]);
+
+        ExecutorBackedSimulator simulator = model.create();
+        for (int i = 0; i < warmupRuns; i++) {
+            run(simulator, taskCount, ioDuration, cpuDuration, new TaskLatencyRecorder());
+        }
+
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.UTF_8)) {
+            out.println(READY + " " + workerId);
+            String command = in.readLine();
+            if (!GO.equals(command)) {
+                throw new IllegalStateException("Expected " + GO + " from coordinator, got " + command);
+            }
+
+            TaskLatencyRecorder recorder = new TaskLatencyRecorder();
+            long elapsedNanos = run(simulator, taskCount, ioDuration, cpuDuration, recorder);
+            System.out.printf("worker %d: %d tasks in %d ms%n", workerId, taskCount, elapsedNanos / 1_000_000);
+            out.println(RESULT_PREFIX + taskCount + " " + elapsedNanos + " " + recorder.encode());
+        }
+    }
+
+    /**
+     * Runs the model's tasks through its own executor, the way the model's {@code run} does, but
+     * into a recorder whose histograms can be shipped to the coordinator.
+     */
+    private static long run(ExecutorBackedSimulator simulator, int taskCount, Duration ioDuration,
+            Duration cpuDuration, TaskLatencyRecorder recorder) {
+        long start = System.nanoTime();
+        try (ExecutorService executor = simulator.newExecutor()) {
+            new StreamingSubmitter(StreamingSubmitter.UNBOUNDED).submitAll(executor, taskCount,
+                    simulator.newTask(ioDuration, cpuDuration), recorder);
+        }
+        return System.nanoTime() - start;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.architecting.throughput;
+
+import java.time.Duration;
+import java.util.List;
+
+import com.example.architecting.metrics.LiveMetrics;
+
+/**
+ * Finds the sustainable open-loop throughput of each threading model: the highest arrival
+ * rate at which p99 end-to-end latency (measured from scheduled send time) stays within the
+ * objective.
+ */
+public class OpenLoopDemo {
+
+    public static void main(String[] args) {
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            Duration ioDuration = Duration.ofMillis(10);
+            Duration cpuDuration = Duration.ZERO;
+            Duration p99Objective = Duration.ofMillis(50);
+            OpenLoopDriver.Config config = new OpenLoopDriver.Config(1_000, Duration.ofSeconds(5),
+                    Duration.ofSeconds(1), OpenLoopDriver.Arrival.POISSON);
+
+            System.out.println("==================================================");
+            System.out.println("      Open-Loop Sustainable Throughput Demo       ");
+            System.out.println("==================================================");
+            System.out.println("  I/O Duration: " + ioDuration.toMillis() + "ms");
+            System.out.println("  Arrivals: " + config.arrival() + ", starting at " + config.targetRatePerSecond()
+                    + "/s, x2 per step");
+            System.out.println("  p99 Objective: " + p99Objective.toMillis() + "ms");
+            System.out.println("==================================================\n");
+
+            OpenLoopDriver driver = new OpenLoopDriver();
+            List<ExecutorBackedSimulator> models = List.of(new PlatformThreadModel(), new VirtualThreadModel());
+
+            List<OpenLoopDriver.SustainableRate> rates = models.stream()
+                    .map(model -> driver.findSustainableRate(model, config, 2.0, 8, p99Objective, ioDuration,
+                            cpuDuration))
+                    .toList();
+
+            System.out.println("\n==================================================");
+            System.out.println("Sustainable Throughput (p99 <= " + p99Objective.toMillis() + "ms):");
+            for (OpenLoopDriver.SustainableRate rate : rates) {
+                System.out.printf("%-40s: %.0f tasks/sec%n", rate.modelName(), rate.ratePerSecond());
+            }
+            System.out.println("==================================================");
+
+            ResultExporter exporter = new ResultExporter("OpenLoopDemo")
+                    .config("ioMillis", ioDuration.toMillis())
+                    .config("arrival", config.arrival())
+                    .config("windowSeconds", config.duration().toSeconds())
+                    .config("p99ObjectiveMillis", p99Objective.toMillis());
+            for (OpenLoopDriver.SustainableRate rate : rates) {
+                rate.steps().forEach(step -> exporter.add(step.toSimulationResult(config.duration())));
+            }
+            exporter.writeAndReport();
+        }
+    }
+}
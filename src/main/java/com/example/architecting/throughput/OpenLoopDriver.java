@@ -0,0 +1,219 @@
+package com.example.architecting.throughput;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator for {@link ExecutorBackedSimulator} implementations.
+ * <p>
+ * Unlike {@link TaskSimulator#run}, which submits a fixed batch and times the whole batch
+ * (closed loop), this driver issues tasks at a target arrival rate regardless of how fast
+ * earlier tasks complete. Every latency is measured from the task's <em>scheduled</em> send
+ * time, not from when the dispatcher actually managed to submit it, so a stalled executor
+ * cannot hide its own backlog (coordinated omission).
+ */
+public final class OpenLoopDriver {
+
+    /** Inter-arrival distribution. */
+    public enum Arrival {
+        /** Fixed gap of {@code 1 / rate}. */
+        CONSTANT,
+        /** Exponentially distributed gaps with mean {@code 1 / rate}. */
+        POISSON
+    }
+
+    /**
+     * @param targetRatePerSecond Steady-state arrival rate.
+     * @param duration            Measured steady-state window.
+     * @param rampUp              Warm-up window during which the rate grows linearly; not measured.
+     * @param arrival             Inter-arrival distribution.
+     */
+    public record Config(double targetRatePerSecond, Duration duration, Duration rampUp, Arrival arrival) {
+
+        public Config {
+            if (targetRatePerSecond <= 0) {
+                throw new IllegalArgumentException("targetRatePerSecond must be positive");
+            }
+            if (duration.isNegative() || duration.isZero() || rampUp.isNegative()) {
+                throw new IllegalArgumentException("duration must be positive and rampUp non-negative");
+            }
+        }
+
+        public Config withRate(double ratePerSecond) {
+            return new Config(ratePerSecond, duration, rampUp, arrival);
+        }
+    }
+
+    /**
+     * Outcome of one open-loop run. Only tasks scheduled after the ramp-up are counted.
+     *
+     * @param achievedRatePerSecond Completions inside the measured window per second.
+     * @param incomplete            Measured tasks that had not finished when the drain timeout expired.
+     */
+    public record OpenLoopResult(String modelName, double targetRatePerSecond, double achievedRatePerSecond,
+            long scheduled, long completed, long incomplete, TaskLatencyRecorder.LatencyReport latency) {
+
+        @Override
+        public String toString() {
+            return String.format("[%s] Target: %.0f/s, Achieved: %.0f/s, Scheduled: %d, Completed: %d, "
+                    + "Incomplete: %d%n%s", modelName, targetRatePerSecond, achievedRatePerSecond, scheduled,
+                    completed, incomplete, latency);
+        }
+
+        /**
+         * @param window The measured window of the run, i.e. {@link Config#duration()}.
+         */
+        public TaskSimulator.SimulationResult toSimulationResult(Duration window) {
+            return new TaskSimulator.SimulationResult(String.format("%s @ %.0f/s", modelName, targetRatePerSecond),
+                    Math.toIntExact(completed), window.toMillis(), achievedRatePerSecond, latency);
+        }
+    }
+
+    /**
+     * Highest rate that met the latency objective, plus every step that was tried.
+     */
+    public record SustainableRate(String modelName, double ratePerSecond, List<OpenLoopResult> steps) {
+    }
+
+    // Floor for the ramp so the first arrival is not scheduled infinitely far away.
+    private static final double MIN_RAMP_FRACTION = 0.01;
+    private static final double MIN_ACHIEVED_FRACTION = 0.95;
+
+    private final Duration drainTimeout;
+    private final long seed;
+
+    public OpenLoopDriver() {
+        this(Duration.ofSeconds(10), 42L);
+    }
+
+    /**
+     * @param drainTimeout How long to wait for outstanding tasks after the last arrival.
+     * @param seed         Seed for Poisson arrivals, so runs are repeatable.
+     */
+    public OpenLoopDriver(Duration drainTimeout, long seed) {
+        this.drainTimeout = drainTimeout;
+        this.seed = seed;
+    }
+
+    public OpenLoopResult run(ExecutorBackedSimulator model, Config config, Duration ioDuration,
+            Duration cpuDuration) {
+        System.out.printf("Starting open-loop %s at %.0f tasks/sec...%n", model.modelName(),
+                config.targetRatePerSecond());
+
+        TaskLatencyRecorder recorder = new TaskLatencyRecorder(model.modelName());
+        LongAdder completed = new LongAdder();
+        LongAdder completedInWindow = new LongAdder();
+        SplittableRandom random = new SplittableRandom(seed);
+        Callable<Void> task = model.newTask(ioDuration, cpuDuration);
+
+        long rampNanos = config.rampUp().toNanos();
+        long startNanos = System.nanoTime();
+        long windowStart = startNanos + rampNanos;
+        long windowEnd = windowStart + config.duration().toNanos();
+        long scheduled = 0;
+
+        ExecutorService executor = model.newExecutor();
+        try {
+            long intended = startNanos;
+            while (intended < windowEnd) {
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                long sendTime = intended;
+                boolean measured = sendTime >= windowStart;
+                if (measured) {
+                    recorder.submitted();
+                }
+                executor.execute(() -> {
+                    long taskStart = System.nanoTime();
+                    try {
+                        task.call();
+                    } catch (Exception e) {
+                        // A failed task still occupied the executor; it is recorded like any other.
+                    } finally {
+                        long taskEnd = System.nanoTime();
+                        if (measured) {
+                            recorder.record(sendTime, taskStart, taskEnd);
+                            completed.increment();
+                            if (taskEnd <= windowEnd) {
+                                completedInWindow.increment();
+                            }
+                        }
+                    }
+                });
+                if (measured) {
+                    scheduled++;
+                }
+                intended += nextGapNanos(config, intended - startNanos, random);
+            }
+
+            executor.shutdown();
+            if (!executor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+            throw new RuntimeException(e);
+        } finally {
+            executor.close();
+        }
+
+        double windowSeconds = config.duration().toNanos() / 1_000_000_000.0;
+        long done = completed.sum();
+        return new OpenLoopResult(model.modelName(), config.targetRatePerSecond(),
+                completedInWindow.sum() / windowSeconds, scheduled, done, scheduled - done, recorder.report());
+    }
+
+    /**
+     * Steps the arrival rate up geometrically from {@code config.targetRatePerSecond()} until a step
+     * misses the objective: p99 end-to-end latency above {@code p99Objective}, achieved rate below 95%
+     * of target, or tasks left incomplete. Returns the last rate that met it (0 if none did).
+     */
+    public SustainableRate findSustainableRate(ExecutorBackedSimulator model, Config config, double stepFactor,
+            int maxSteps, Duration p99Objective, Duration ioDuration, Duration cpuDuration) {
+        List<OpenLoopResult> steps = new ArrayList<>();
+        double sustainable = 0;
+        double rate = config.targetRatePerSecond();
+        for (int i = 0; i < maxSteps; i++) {
+            OpenLoopResult result = run(model, config.withRate(rate), ioDuration, cpuDuration);
+            System.out.println(result);
+            steps.add(result);
+            if (!meetsObjective(result, p99Objective)) {
+                break;
+            }
+            sustainable = rate;
+            rate *= stepFactor;
+        }
+        return new SustainableRate(model.modelName(), sustainable, List.copyOf(steps));
+    }
+
+    private static boolean meetsObjective(OpenLoopResult result, Duration p99Objective) {
+        return result.incomplete() == 0
+                && result.achievedRatePerSecond() >= MIN_ACHIEVED_FRACTION * result.targetRatePerSecond()
+                && result.latency().endToEnd().p99Nanos() <= p99Objective.toNanos();
+    }
+
+    private static long nextGapNanos(Config config, long elapsedNanos, SplittableRandom random) {
+        double rate = config.targetRatePerSecond();
+        long rampNanos = config.rampUp().toNanos();
+        if (elapsedNanos < rampNanos) {
+            rate *= Math.max(MIN_RAMP_FRACTION, (double) elapsedNanos / rampNanos);
+        }
+        double meanGapNanos = 1_000_000_000.0 / rate;
+        double gap = switch (config.arrival()) {
+            case CONSTANT -> meanGapNanos;
+            case POISSON -> -Math.log(1.0 - random.nextDouble()) * meanGapNanos;
+        };
+        return Math.max(1L, Math.round(gap));
+    }
+}
@@ -1,19 +1,41 @@
 package com.example.architecting.throughput;
 
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 
 /**
  * Simulates throughput using Platform Threads (OS threads).
  * This model is limited by the number of OS threads the system can handle
  * efficiently.
  */
-public class PlatformThreadModel implements TaskSimulator {
+public class PlatformThreadModel implements ExecutorBackedSimulator {
+
+    private static final int DEFAULT_MAX_THREADS = 200;
+
+    private final int maxThreads;
+    private final int maxInFlight;
+
+    public PlatformThreadModel() {
+        this(DEFAULT_MAX_THREADS);
+    }
+
+    /**
+     * @param maxThreads Size of the fixed pool (the "web server thread limit").
+     */
+    public PlatformThreadModel(int maxThreads) {
+        this(maxThreads, StreamingSubmitter.UNBOUNDED);
+    }
+
+    /**
+     * @param maxThreads  Size of the fixed pool (the "web server thread limit").
+     * @param maxInFlight Cap on outstanding tasks (running plus queued in the pool).
+     */
+    public PlatformThreadModel(int maxThreads, int maxInFlight) {
+        this.maxThreads = maxThreads;
+        this.maxInFlight = maxInFlight;
+    }
 
     @Override
     public SimulationResult run(int taskCount, Duration ioDuration, Duration cpuDuration) {
@@ -26,54 +48,58 @@ public class PlatformThreadModel implements TaskSimulator {
         // if we try to match virtual threads 1:1.
         // However, to avoid crashing the machine with 100k threads, we'll cap it or use
         // a large fixed pool.
-        // Let's use a fixed pool of 200 threads to simulate a typical web server limit.
-        int maxThreads = 200;
-
+        // Let's use a fixed pool (200 threads by default) to simulate a typical web server limit.
         System.out.println("Starting Platform Thread simulation with " + maxThreads + " threads...");
 
-        try (ExecutorService executor = Executors.newFixedThreadPool(maxThreads)) {
+        try (ExecutorService executor = newExecutor()) {
+            TaskLatencyRecorder recorder = new TaskLatencyRecorder(modelName());
+            AllocationTracker allocations = AllocationTracker.start();
             long start = System.currentTimeMillis();
 
-            List<Callable<Void>> tasks = new ArrayList<>(taskCount);
-            for (int i = 0; i < taskCount; i++) {
-                tasks.add(() -> {
-                    // Simulate CPU work
-                    if (!cpuDuration.isZero()) {
-                        long endCpu = System.nanoTime() + cpuDuration.toNanos();
-                        while (System.nanoTime() < endCpu) {
-                            // busy spin
-                        }
-                    }
-
-                    // Simulate Blocking I/O
-                    if (!ioDuration.isZero()) {
-                        try {
-                            Thread.sleep(ioDuration);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                    return null;
-                });
-            }
-
-            try {
-                List<Future<Void>> futures = executor.invokeAll(tasks);
-                // Wait for all to complete (invokeAll does this, but good to be explicit about
-                // intent)
-                for (Future<Void> f : futures) {
-                    f.get();
-                }
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+            // Without a cap, pending tasks wait in the pool's unbounded queue; with one they
+            // wait in the submitter instead, so the queue never holds more than maxInFlight.
+            new StreamingSubmitter(maxInFlight).submitAll(executor, taskCount, newTask(ioDuration, cpuDuration),
+                    recorder);
 
             long end = System.currentTimeMillis();
             long totalTime = end - start;
             double throughput = (double) taskCount / (totalTime / 1000.0);
 
-            return new SimulationResult("Platform Threads (Fixed Pool " + maxThreads + ")", taskCount, totalTime,
-                    throughput);
+            return new SimulationResult(modelName(), taskCount, totalTime, throughput, recorder.report(),
+                    allocations.stop(taskCount));
         }
     }
+
+    @Override
+    public String modelName() {
+        return "Platform Threads (Fixed Pool " + maxThreads + ")";
+    }
+
+    @Override
+    public ExecutorService newExecutor() {
+        return Executors.newFixedThreadPool(maxThreads);
+    }
+
+    @Override
+    public Callable<Void> newTask(Duration ioDuration, Duration cpuDuration) {
+        return () -> {
+            // Simulate CPU work
+            if (!cpuDuration.isZero()) {
+                long endCpu = System.nanoTime() + cpuDuration.toNanos();
+                while (System.nanoTime() < endCpu) {
+                    // busy spin
+                }
+            }
+
+            // Simulate Blocking I/O
+            if (!ioDuration.isZero()) {
+                try {
+                    Thread.sleep(ioDuration);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return null;
+        };
+    }
 }
@@ -0,0 +1,76 @@
+package com.example.architecting.throughput;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop request load for the service-side benchmarks ({@code CacheBenchmark},
+ * {@code BatchingBenchmark}): {@code threads} virtual threads, all started at once, each make
+ * {@code requestsPerThread} requests one after another, and every request is timed.
+ * <p>
+ * A failed request is counted and its latency recorded like any other; the benchmark's own
+ * result says what the requests did to the service behind them.
+ */
+public final class RequestLoad {
+
+    /** Header matching {@link Outcome#summaryColumns()}, for the benchmarks' summary tables. */
+    public static final String SUMMARY_HEADER = String.format("%12s %9s %9s", "Req/Sec", "p50", "p99");
+
+    /**
+     * @param millis   Wall time from the first request until the last thread finished.
+     * @param failures Requests that threw.
+     */
+    public record Outcome(long requests, long millis, long failures, LatencyStats latency) {
+
+        public double throughputPerSecond() {
+            return requests / Math.max(0.001, millis / 1000.0);
+        }
+
+        /** Throughput, p50 and p99 in ms, aligned with {@link #SUMMARY_HEADER}. */
+        public String summaryColumns() {
+            return String.format("%12.2f %9.2f %9.2f", throughputPerSecond(), LatencyStats.toMillis(latency.p50Nanos()),
+                    LatencyStats.toMillis(latency.p99Nanos()));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Time: %d ms, Throughput: %.2f req/sec", millis, throughputPerSecond());
+        }
+    }
+
+    private RequestLoad() {
+    }
+
+    /**
+     * Runs the load and waits for every thread to finish.
+     *
+     * @param request One request; called {@code threads x requestsPerThread} times, concurrently.
+     */
+    public static Outcome run(int threads, int requestsPerThread, Callable<?> request) {
+        LatencyHistogram latency = new LatencyHistogram();
+        LongAdder failures = new LongAdder();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < threads; t++) {
+                executor.submit(() -> {
+                    for (int r = 0; r < requestsPerThread; r++) {
+                        long requestStart = System.nanoTime();
+                        try {
+                            request.call();
+                        } catch (Exception e) {
+                            failures.increment();
+                        }
+                        latency.recordValue(System.nanoTime() - requestStart);
+                    }
+                });
+            }
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        if (failures.sum() > 0) {
+            System.out.println("  failed requests: " + failures.sum());
+        }
+        return new Outcome((long) threads * requestsPerThread, millis, failures.sum(), latency.snapshot());
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.architecting.throughput;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Compares two sets of runs exported by {@link ResultExporter} and flags regressions.
+ * <p>
+ * Each side is a CSV file or a directory of them; every file is one sample of each model it
+ * contains, so run the demo several times per side (e.g. five times on the old JDK, five on the
+ * new). Per model and metric the means are compared with Welch's t-test at 95% confidence. A
+ * change counts as a regression only if it is both significant and larger than the minimum
+ * effect, so noise on a quiet machine does not fail the comparison. With a single sample on either
+ * side there is no variance to test against; changes beyond the minimum effect are then reported
+ * as <em>untested</em>.
+ * <p>
+ * Usage: {@code ResultComparison <baseline csv|dir> <candidate csv|dir> [minEffectPercent]}
+ * <p>
+ * Exits with status 1 if any significant regression was found, so it can gate a CI job.
+ */
+public class ResultComparison {
+
+    /** Two-sided 95% critical values of Student's t for 1..30 degrees of freedom. */
+    private static final double[] T_CRITICAL_95 = { 12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262,
+            2.228, 2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086, 2.080, 2.074, 2.069,
+            2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042 };
+
+    public enum Verdict {
+        REGRESSION, IMPROVEMENT, UNCHANGED, UNTESTED_REGRESSION, UNTESTED_IMPROVEMENT
+    }
+
+    /**
+     * A compared quantity and which direction is better.
+     */
+    record Metric(String name, String column, boolean higherIsBetter) {
+    }
+
+    private static final List<Metric> METRICS = List.of(
+            new Metric("tasks/sec", "throughput", true),
+            new Metric("p50 ms", "p50_ns", false),
+            new Metric("p99 ms", "p99_ns", false),
+            new Metric("p99.9 ms", "p999_ns", false),
+            new Metric("GC ms", "gc_ms", false));
+
+    /**
+     * One model/metric comparison.
+     *
+     * @param changePercent Relative change of the candidate mean against the baseline mean; infinite if
+     *                      the baseline mean is 0 and the candidate's is not.
+     * @param t             Welch's t statistic, or NaN if either side has fewer than two samples.
+     */
+    public record Comparison(String suite, String model, String metric, int baselineSamples, double baselineMean,
+            int candidateSamples, double candidateMean, double changePercent, double t, Verdict verdict) {
+    }
+
+    /** One exported CSV row, keyed by column name. */
+    record Row(Map<String, String> fields) {
+
+        String get(String column) {
+            return fields.getOrDefault(column, "");
+        }
+
+        /**
+         * The column's value, or empty if the column is missing (files from older versions), blank or
+         * not a number.
+         */
+        OptionalDouble number(String column) {
+            try {
+                String value = get(column).trim();
+                return value.isEmpty() ? OptionalDouble.empty() : OptionalDouble.of(Double.parseDouble(value));
+            } catch (NumberFormatException e) {
+                return OptionalDouble.empty();
+            }
+        }
+
+        String key() {
+            return get("suite") + " / " + get("model");
+        }
+
+        String environment() {
+            OptionalDouble heapBytes = number("max_heap_bytes");
+            String heap = heapBytes.isPresent() ? ", heap " + (long) heapBytes.getAsDouble() / (1024 * 1024) + " MB"
+                    : "";
+            return "JDK " + get("jdk") + ", " + get("vm") + ", " + get("cpus") + " CPUs, " + get("os") + " "
+                    + get("arch") + heap;
+        }
+    }
+
+    private final double minEffect;
+
+    /**
+     * @param minEffectPercent Smallest relative change worth flagging, e.g. 5 for 5%.
+     */
+    public ResultComparison(double minEffectPercent) {
+        this.minEffect = minEffectPercent / 100.0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: ResultComparison <baseline csv|dir> <candidate csv|dir> [minEffectPercent]");
+            System.exit(2);
+        }
+        Path baseline = Path.of(args[0]);
+        Path candidate = Path.of(args[1]);
+        double minEffectPercent = args.length > 2 ? Double.parseDouble(args[2]) : 5.0;
+
+        List<Row> baselineRows = read(baseline);
+        List<Row> candidateRows = read(candidate);
+
+        System.out.println("==================================================");
+        System.out.println("      Result Comparison                           ");
+        System.out.println("==================================================");
+        System.out.println("  Baseline:  " + baseline + " (" + runs(baselineRows) + " runs)");
+        environments(baselineRows).forEach(env -> System.out.println("    " + env));
+        System.out.println("  Candidate: " + candidate + " (" + runs(candidateRows) + " runs)");
+        environments(candidateRows).forEach(env -> System.out.println("    " + env));
+        System.out.println("  Minimum effect: " + minEffectPercent + "%, significance: Welch's t-test, 95%");
+        System.out.println("==================================================\n");
+
+        List<Comparison> comparisons = new ResultComparison(minEffectPercent).compare(baselineRows, candidateRows);
+
+        System.out.printf("%-60s %-10s %12s %12s %9s %7s  %s%n", "Suite / Model", "Metric", "Baseline", "Candidate",
+                "Change", "t", "Verdict");
+        for (Comparison c : comparisons) {
+            System.out.printf("%-60s %-10s %12.2f %12.2f %9s %7s  %s%n", c.suite() + " / " + c.model(),
+                    c.metric(), c.baselineMean(), c.candidateMean(),
+                    Double.isInfinite(c.changePercent()) ? "from 0" : String.format("%+.1f%%", c.changePercent()),
+                    Double.isNaN(c.t()) ? "n/a" : String.format("%.2f", c.t()), c.verdict());
+        }
+
+        Set<String> baselineModels = byModel(baselineRows).keySet();
+        Set<String> candidateModels = byModel(candidateRows).keySet();
+        baselineModels.stream().filter(model -> !candidateModels.contains(model))
+                .forEach(model -> System.out.println("Only in baseline:  " + model));
+        candidateModels.stream().filter(model -> !baselineModels.contains(model))
+                .forEach(model -> System.out.println("Only in candidate: " + model));
+
+        long regressions = comparisons.stream().filter(c -> c.verdict() == Verdict.REGRESSION).count();
+        long untested = comparisons.stream().filter(c -> c.verdict() == Verdict.UNTESTED_REGRESSION).count();
+        System.out.println("\n==================================================");
+        System.out.printf("%d significant regressions, %d untested (single-sample) regressions%n", regressions,
+                untested);
+        System.out.println("==================================================");
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compares every model present on both sides, on every metric that both sides recorded.
+     */
+    List<Comparison> compare(List<Row> baselineRows, List<Row> candidateRows) {
+        Map<String, List<Row>> baseline = byModel(baselineRows);
+        Map<String, List<Row>> candidate = byModel(candidateRows);
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, List<Row>> entry : baseline.entrySet()) {
+            List<Row> candidateSamples = candidate.get(entry.getKey());
+            if (candidateSamples == null) {
+                continue;
+            }
+            Row first = entry.getValue().getFirst();
+            for (Metric metric : METRICS) {
+                double[] a = values(entry.getValue(), metric);
+                double[] b = values(candidateSamples, metric);
+                if (a.length > 0 && b.length > 0) {
+                    comparisons.add(compare(first.get("suite"), first.get("model"), metric, a, b));
+                }
+            }
+        }
+        return comparisons;
+    }
+
+    /**
+     * Samples of {@code metric} in {@code rows}, nanoseconds converted to milliseconds; rows without a
+     * value for it are skipped.
+     */
+    private static double[] values(List<Row> rows, Metric metric) {
+        double scale = metric.column().endsWith("_ns") ? 1_000_000.0 : 1.0;
+        return rows.stream().map(row -> row.number(metric.column())).filter(OptionalDouble::isPresent)
+                .mapToDouble(value -> value.getAsDouble() / scale).toArray();
+    }
+
+    Comparison compare(String suite, String model, Metric metric, double[] a, double[] b) {
+        double meanA = mean(a);
+        double meanB = mean(b);
+        // A zero baseline, e.g. no GC in a short run, has no relative change: any move away from it counts
+        // as infinitely large and the t-test alone decides whether it is real.
+        double change = meanA == 0 ? (meanB == 0 ? 0 : Math.copySign(Double.POSITIVE_INFINITY, meanB))
+                : (meanB - meanA) / Math.abs(meanA);
+        boolean worse = metric.higherIsBetter() ? change < 0 : change > 0;
+        boolean large = Math.abs(change) >= minEffect;
+
+        double t = Double.NaN;
+        Verdict verdict;
+        if (a.length < 2 || b.length < 2) {
+            verdict = !large ? Verdict.UNCHANGED : worse ? Verdict.UNTESTED_REGRESSION : Verdict.UNTESTED_IMPROVEMENT;
+        } else {
+            double varianceA = variance(a, meanA) / a.length;
+            double varianceB = variance(b, meanB) / b.length;
+            double standardError = Math.sqrt(varianceA + varianceB);
+            t = standardError == 0 ? (meanA == meanB ? 0 : Double.POSITIVE_INFINITY) : (meanB - meanA) / standardError;
+            // Welch-Satterthwaite degrees of freedom.
+            double df = standardError == 0 ? a.length + b.length - 2
+                    : Math.pow(varianceA + varianceB, 2) / (varianceA * varianceA / (a.length - 1)
+                            + varianceB * varianceB / (b.length - 1));
+            boolean significant = Math.abs(t) > tCritical(df);
+            verdict = !(significant && large) ? Verdict.UNCHANGED : worse ? Verdict.REGRESSION : Verdict.IMPROVEMENT;
+        }
+        return new Comparison(suite, model, metric.name(), a.length, meanA, b.length, meanB, change * 100, t, verdict);
+    }
+
+    /**
+     * Critical t value for {@code df} degrees of freedom; beyond the table, {@code 1.96 + 2.5 / df}
+     * stays within 0.002 of the exact value.
+     */
+    static double tCritical(double df) {
+        int whole = Math.max(1, (int) Math.floor(df));
+        return whole <= T_CRITICAL_95.length ? T_CRITICAL_95[whole - 1] : 1.96 + 2.5 / whole;
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    private static double variance(double[] values, double mean) {
+        double sum = 0;
+        for (double value : values) {
+            sum += (value - mean) * (value - mean);
+        }
+        return sum / (values.length - 1);
+    }
+
+    private static Map<String, List<Row>> byModel(List<Row> rows) {
+        Map<String, List<Row>> byModel = new LinkedHashMap<>();
+        rows.forEach(row -> byModel.computeIfAbsent(row.key(), key -> new ArrayList<>()).add(row));
+        return byModel;
+    }
+
+    private static long runs(List<Row> rows) {
+        return rows.stream().map(row -> row.get("suite") + row.get("timestamp")).distinct().count();
+    }
+
+    private static Set<String> environments(List<Row> rows) {
+        Set<String> environments = new LinkedHashSet<>();
+        rows.forEach(row -> environments.add(row.environment()));
+        return environments;
+    }
+
+    /**
+     * Reads every row of {@code path}, or of every CSV file directly inside it if it is a directory.
+     */
+    static List<Row> read(Path path) throws IOException {
+        List<Path> files;
+        if (Files.isDirectory(path)) {
+            try (Stream<Path> children = Files.list(path)) {
+                files = children.filter(file -> file.toString().endsWith(".csv")).sorted().toList();
+            }
+        } else {
+            files = List.of(path);
+        }
+        List<Row> rows = new ArrayList<>();
+        for (Path file : files) {
+            List<String> lines = Files.readAllLines(file);
+            if (lines.isEmpty()) {
+                continue;
+            }
+            List<String> header = ResultExporter.parseCsvLine(lines.getFirst());
+            for (String line : lines.subList(1, lines.size())) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> values = ResultExporter.parseCsvLine(line);
+                Map<String, String> fields = new LinkedHashMap<>();
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    fields.put(header.get(i), values.get(i));
+                }
+                rows.add(new Row(fields));
+            }
+        }
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("No results found in " + path);
+        }
+        return rows;
+    }
+}
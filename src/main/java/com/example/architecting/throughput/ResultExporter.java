@@ -0,0 +1,259 @@
+package com.example.architecting.throughput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Writes the results of one demo run to disk as JSON and CSV, together with the configuration and
+ * the environment they were measured in, so runs on different JDKs and hosts can be compared
+ * later with {@link ResultComparison}.
+ * <p>
+ * Files go to {@code target/results} as {@code <suite>-<timestamp>.json} and {@code .csv}, with a
+ * numeric suffix if a run of the same suite already wrote that name (e.g. a parallel job); set
+ * {@code -Dresults.dir=<dir>} to change the directory, or to an empty value to disable export.
+ * The CSV has one row per result, with the environment and configuration repeated on every row,
+ * so files from many runs can simply be concatenated or loaded into a spreadsheet.
+ */
+public final class ResultExporter {
+
+    public static final String RESULTS_DIR_PROPERTY = "results.dir";
+    private static final String DEFAULT_RESULTS_DIR = "target/results";
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS")
+            .withZone(ZoneOffset.UTC);
+
+    static final List<String> CSV_COLUMNS = List.of("suite", "timestamp", "jdk", "vm", "cpus", "os", "arch",
+            "max_heap_bytes", "config", "model", "tasks", "time_ms", "throughput", "p50_ns", "p90_ns", "p99_ns",
+            "p999_ns", "max_ns", "queue_wait_p99_ns", "allocated_bytes", "bytes_per_task", "gc_count", "gc_ms");
+
+    /**
+     * Where a run was measured. Differences here usually explain a result difference before the
+     * code does.
+     */
+    public record Environment(String jdkVersion, String vmName, int availableProcessors, String os, String arch,
+            long maxHeapBytes, List<String> jvmArguments) {
+
+        public static Environment current() {
+            return new Environment(Runtime.version().toString(), System.getProperty("java.vm.name"),
+                    Runtime.getRuntime().availableProcessors(),
+                    System.getProperty("os.name") + " " + System.getProperty("os.version"),
+                    System.getProperty("os.arch"), Runtime.getRuntime().maxMemory(),
+                    ManagementFactory.getRuntimeMXBean().getInputArguments());
+        }
+    }
+
+    private final String suite;
+    private final Instant timestamp = Instant.now();
+    private final Environment environment = Environment.current();
+    private final Map<String, String> config = new LinkedHashMap<>();
+    private final List<TaskSimulator.SimulationResult> results = new ArrayList<>();
+
+    /**
+     * @param suite Name of the demo producing the results, e.g. {@code "ThroughputDemo"}.
+     */
+    public ResultExporter(String suite) {
+        this.suite = suite;
+    }
+
+    /**
+     * Records one configuration parameter of the run.
+     */
+    public ResultExporter config(String key, Object value) {
+        config.put(key, String.valueOf(value));
+        return this;
+    }
+
+    public ResultExporter add(TaskSimulator.SimulationResult result) {
+        results.add(result);
+        return this;
+    }
+
+    /**
+     * Writes the JSON and CSV files, returning the CSV path, or empty if export is disabled.
+     */
+    public Optional<Path> write() {
+        String dir = System.getProperty(RESULTS_DIR_PROPERTY, DEFAULT_RESULTS_DIR);
+        if (dir.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Path directory = Files.createDirectories(Path.of(dir));
+            String baseName = suite + "-" + FILE_TIMESTAMP.format(timestamp);
+            for (int attempt = 1;; attempt++) {
+                String name = attempt == 1 ? baseName : baseName + "-" + attempt;
+                try {
+                    // Creating the CSV claims the name atomically, so concurrent runs never overwrite each other.
+                    Path csv = Files.writeString(directory.resolve(name + ".csv"), toCsv(),
+                            StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                    Files.writeString(directory.resolve(name + ".json"), toJson());
+                    return Optional.of(csv);
+                } catch (FileAlreadyExistsException e) {
+                    // Taken; try the next suffix.
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the files and prints where they went; for the end of a demo's {@code main}.
+     */
+    public void writeAndReport() {
+        write().ifPresent(path -> System.out.println("Results written to " + path + " (and .json)"));
+    }
+
+    String toJson() {
+        StringBuilder json = new StringBuilder();
+        json.append("{\n  \"suite\": ").append(quote(suite))
+                .append(",\n  \"timestamp\": ").append(quote(timestamp.toString()))
+                .append(",\n  \"environment\": {")
+                .append("\n    \"jdk\": ").append(quote(environment.jdkVersion()))
+                .append(",\n    \"vm\": ").append(quote(environment.vmName()))
+                .append(",\n    \"cpus\": ").append(environment.availableProcessors())
+                .append(",\n    \"os\": ").append(quote(environment.os()))
+                .append(",\n    \"arch\": ").append(quote(environment.arch()))
+                .append(",\n    \"maxHeapBytes\": ").append(environment.maxHeapBytes())
+                .append(",\n    \"jvmArguments\": [")
+                .append(environment.jvmArguments().stream().map(ResultExporter::quote)
+                        .collect(Collectors.joining(", ")))
+                .append("]\n  },\n  \"config\": {");
+        json.append(config.entrySet().stream()
+                .map(entry -> "\n    " + quote(entry.getKey()) + ": " + quote(entry.getValue()))
+                .collect(Collectors.joining(",")));
+        json.append("\n  },\n  \"results\": [");
+        for (int i = 0; i < results.size(); i++) {
+            TaskSimulator.SimulationResult result = results.get(i);
+            AllocationTracker.AllocationReport allocation = result.allocation();
+            json.append(i == 0 ? "\n" : ",\n")
+                    .append("    {\n      \"model\": ").append(quote(result.modelName()))
+                    .append(",\n      \"tasks\": ").append(result.taskCount())
+                    .append(",\n      \"timeMillis\": ").append(result.totalTimeMillis())
+                    .append(",\n      \"throughputPerSecond\": ").append(number(result.throughputPerSecond()))
+                    .append(",\n      \"latencyNanos\": {")
+                    .append("\n        \"queueWait\": ").append(json(result.latency().queueWait()))
+                    .append(",\n        \"runTime\": ").append(json(result.latency().runTime()))
+                    .append(",\n        \"endToEnd\": ").append(json(result.latency().endToEnd()))
+                    .append("\n      },\n      \"allocation\": {")
+                    .append("\"allocatedBytes\": ").append(allocation.allocatedBytes())
+                    .append(", \"bytesPerTask\": ").append(number(allocation.bytesPerTask()))
+                    .append(", \"gcCount\": ").append(allocation.gcCount())
+                    .append(", \"gcTimeMillis\": ").append(allocation.gcTimeMillis())
+                    .append("}\n    }");
+        }
+        return json.append("\n  ]\n}\n").toString();
+    }
+
+    String toCsv() {
+        String configField = config.entrySet().stream().map(entry -> entry.getKey() + "=" + entry.getValue())
+                .collect(Collectors.joining(";"));
+        StringBuilder csv = new StringBuilder(String.join(",", CSV_COLUMNS)).append('\n');
+        for (TaskSimulator.SimulationResult result : results) {
+            LatencyStats latency = result.latency().endToEnd();
+            LatencyStats queueWait = result.latency().queueWait();
+            AllocationTracker.AllocationReport allocation = result.allocation();
+            List<Object> row = List.of(suite, timestamp, environment.jdkVersion(), environment.vmName(),
+                    environment.availableProcessors(), environment.os(), environment.arch(),
+                    environment.maxHeapBytes(), configField, result.modelName(), result.taskCount(),
+                    result.totalTimeMillis(), result.throughputPerSecond(), nanos(latency, latency.p50Nanos()),
+                    nanos(latency, latency.p90Nanos()), nanos(latency, latency.p99Nanos()),
+                    nanos(latency, latency.p999Nanos()), nanos(latency, latency.maxNanos()),
+                    nanos(queueWait, queueWait.p99Nanos()), allocation.allocatedBytes(),
+                    allocation.bytesPerTask(), allocation.gcCount(), allocation.gcTimeMillis());
+            csv.append(row.stream().map(value -> csvField(String.valueOf(value))).collect(Collectors.joining(",")))
+                    .append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Splits one CSV line written by {@link #toCsv()}, honouring quoted fields.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * A latency cell, empty rather than 0 if nothing was recorded, e.g. the queue wait of a demo that only
+     * times whole calls, so {@link ResultComparison} skips it instead of comparing zeros.
+     */
+    private static String nanos(LatencyStats stats, long value) {
+        return stats.count() == 0 ? "" : String.valueOf(value);
+    }
+
+    private static String json(LatencyStats stats) {
+        return String.format("{\"count\": %d, \"mean\": %s, \"p50\": %d, \"p90\": %d, \"p99\": %d, \"p999\": %d, "
+                + "\"max\": %d}", stats.count(), number(stats.meanNanos()), stats.p50Nanos(), stats.p90Nanos(),
+                stats.p99Nanos(), stats.p999Nanos(), stats.maxNanos());
+    }
+
+    /** JSON has no NaN or infinity; those become null. */
+    private static String number(double value) {
+        return Double.isFinite(value) ? String.valueOf(value) : "null";
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+                }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
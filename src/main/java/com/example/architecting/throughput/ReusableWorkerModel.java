@@ -0,0 +1,62 @@
+package com.example.architecting.throughput;
+
+import java.time.Duration;
+
+/**
+ * The {@link VirtualThreadModel}/{@link PlatformThreadModel} workload run through
+ * {@link ReusableWorkerRunner}: same CPU spin and blocking sleep, but with one reusable task
+ * object per run and no per-task submission garbage. Compare its allocation report with the
+ * thread-per-task models to see how much of their GC pressure is bookkeeping rather than work.
+ */
+public class ReusableWorkerModel implements TaskSimulator {
+
+    private final boolean virtual;
+    private final int workers;
+
+    /**
+     * @param virtual Run workers as virtual threads rather than platform threads.
+     * @param workers Number of workers, i.e. concurrent tasks.
+     */
+    public ReusableWorkerModel(boolean virtual, int workers) {
+        this.virtual = virtual;
+        this.workers = workers;
+    }
+
+    @Override
+    public SimulationResult run(int taskCount, Duration ioDuration, Duration cpuDuration) {
+        System.out.println("Starting " + modelName() + " simulation...");
+
+        ReusableWorkerRunner runner = new ReusableWorkerRunner(
+                virtual ? Thread.ofVirtual().factory() : Thread.ofPlatform().factory(), workers);
+        long cpuNanos = cpuDuration.toNanos();
+        ReusableWorkerRunner.WorkerTask task = worker -> {
+            if (cpuNanos > 0) {
+                long endCpu = System.nanoTime() + cpuNanos;
+                while (System.nanoTime() < endCpu) {
+                    // busy spin
+                }
+            }
+            if (!ioDuration.isZero()) {
+                Thread.sleep(ioDuration);
+            }
+        };
+
+        TaskLatencyRecorder recorder = new TaskLatencyRecorder(modelName());
+        AllocationTracker allocations = AllocationTracker.start();
+        long start = System.currentTimeMillis();
+
+        runner.runAll(taskCount, task, recorder);
+
+        long end = System.currentTimeMillis();
+        long totalTime = end - start;
+        double throughput = (double) taskCount / (totalTime / 1000.0);
+
+        return new SimulationResult(modelName(), taskCount, totalTime, throughput, recorder.report(),
+                allocations.stop(taskCount));
+    }
+
+    @Override
+    public String modelName() {
+        return "Reusable Workers (" + (virtual ? "Virtual" : "Platform") + ", " + workers + ")";
+    }
+}
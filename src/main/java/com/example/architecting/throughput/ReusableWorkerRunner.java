@@ -0,0 +1,102 @@
+package com.example.architecting.throughput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Allocation-free alternative to {@link StreamingSubmitter}: a fixed set of worker threads, each
+ * running one reusable {@link WorkerTask} in a loop and claiming task indices from a shared
+ * counter. There is no executor queue, no per-task {@code Runnable} or {@code Future}, no boxed
+ * result, and completions are counted in a {@link LongAdder}.
+ * <p>
+ * The per-task cost is therefore just the task body and three histogram increments; only the
+ * worker threads themselves are allocated, once per run. Concurrency is fixed at the worker count,
+ * so for virtual threads pick it like a {@code maxInFlight} cap.
+ */
+public final class ReusableWorkerRunner {
+
+    /**
+     * One unit of work, reused for every task a worker runs.
+     */
+    @FunctionalInterface
+    public interface WorkerTask {
+
+        /**
+         * @param worker Index of the calling worker in {@code [0, workers)}; lets tasks use
+         *               per-worker state (e.g. a preallocated lock) instead of allocating.
+         */
+        void run(int worker) throws Exception;
+    }
+
+    private final ThreadFactory threadFactory;
+    private final int workers;
+
+    /**
+     * @param threadFactory Creates the workers, e.g. {@code Thread.ofVirtual().factory()}.
+     * @param workers       Number of workers, i.e. the concurrency of the run.
+     */
+    public ReusableWorkerRunner(ThreadFactory threadFactory, int workers) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive");
+        }
+        this.threadFactory = threadFactory;
+        this.workers = workers;
+    }
+
+    public int workers() {
+        return workers;
+    }
+
+    /**
+     * Runs {@code task} {@code taskCount} times and waits for all of them. Every task counts as
+     * submitted when the run starts, as in the batch models.
+     *
+     * @return Number of tasks that completed without throwing.
+     * @throws RuntimeException wrapping the first task failure, if any task failed.
+     */
+    public long runAll(int taskCount, WorkerTask task, TaskLatencyRecorder recorder) {
+        AtomicInteger nextTask = new AtomicInteger();
+        LongAdder completed = new LongAdder();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        long submitNanos = System.nanoTime();
+        recorder.submitted(taskCount);
+
+        List<Thread> threads = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int worker = w;
+            threads.add(threadFactory.newThread(() -> {
+                while (nextTask.getAndIncrement() < taskCount) {
+                    long startNanos = System.nanoTime();
+                    try {
+                        task.run(worker);
+                        completed.increment();
+                    } catch (Throwable t) {
+                        firstFailure.compareAndSet(null, t);
+                    } finally {
+                        recorder.record(submitNanos, startNanos, System.nanoTime());
+                    }
+                }
+            }));
+        }
+
+        try {
+            threads.forEach(Thread::start);
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        Throwable failure = firstFailure.get();
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+        return completed.sum();
+    }
+}
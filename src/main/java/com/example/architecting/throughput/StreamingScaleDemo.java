@@ -0,0 +1,59 @@
+package com.example.architecting.throughput;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.example.architecting.metrics.LiveMetrics;
+
+/**
+ * Runs a 10M task virtual-thread simulation through {@link StreamingSubmitter} and reports peak
+ * heap usage, showing that heap stays flat when in-flight work is capped.
+ * <p>
+ * Usage: {@code StreamingScaleDemo [taskCount] [maxInFlight] [ioMillis]}
+ */
+public class StreamingScaleDemo {
+
+    public static void main(String[] args) {
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+            int maxInFlight = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+            Duration ioDuration = Duration.ofMillis(args.length > 2 ? Long.parseLong(args[2]) : 1);
+
+            System.out.println("==================================================");
+            System.out.println("      Streaming Submission Scale Demo             ");
+            System.out.println("==================================================");
+            System.out.println("  Tasks: " + taskCount);
+            System.out.println("  Max In-Flight: " + maxInFlight);
+            System.out.println("  I/O Duration: " + ioDuration.toMillis() + "ms");
+            System.out.println("==================================================\n");
+
+            MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+            AtomicLong peakHeap = new AtomicLong();
+            TaskSimulator.SimulationResult result;
+            try (ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor()) {
+                sampler.scheduleAtFixedRate(
+                        () -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                        0, 100, TimeUnit.MILLISECONDS);
+
+                TaskSimulator model = new VirtualThreadModel(maxInFlight);
+                result = model.run(taskCount, ioDuration, Duration.ZERO);
+                System.out.println(result);
+                sampler.shutdownNow();
+            }
+
+            System.out.printf("%nPeak heap used during run: %.1f MB%n", peakHeap.get() / (1024.0 * 1024.0));
+            new ResultExporter("StreamingScaleDemo")
+                    .config("tasks", taskCount)
+                    .config("maxInFlight", maxInFlight)
+                    .config("ioMillis", ioDuration.toMillis())
+                    .config("peakHeapBytes", peakHeap.get())
+                    .add(result)
+                    .writeAndReport();
+        }
+    }
+}
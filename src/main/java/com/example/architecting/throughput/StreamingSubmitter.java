@@ -0,0 +1,110 @@
+package com.example.architecting.throughput;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Submits tasks one at a time instead of materializing a {@code List<Callable>} and calling
+ * {@code invokeAll}.
+ * <p>
+ * Tasks are generated lazily by the submitting thread, at most {@code maxInFlight} of them are
+ * outstanding at once (the submitter blocks on a semaphore when the cap is reached) and
+ * completion is tracked with a single latch instead of one {@code Future} per task. Heap usage
+ * is therefore proportional to {@code maxInFlight}, not to the task count, which is what makes
+ * 10M+ task simulations possible.
+ */
+public final class StreamingSubmitter {
+
+    /** No cap: every task is handed to the executor immediately, like {@code invokeAll}. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    private final int maxInFlight;
+
+    public StreamingSubmitter(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int maxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Runs {@code task} {@code taskCount} times on {@code executor} and waits for all of them.
+     * Each execution is recorded from the moment it was handed to the executor.
+     *
+     * @throws RuntimeException wrapping the first task failure, if any task failed.
+     */
+    public void submitAll(Executor executor, int taskCount, Callable<?> task, TaskLatencyRecorder recorder) {
+        submitAll(executor, taskCount, task, recorder, failure -> false);
+    }
+
+    /**
+     * Like {@link #submitAll(Executor, int, Callable, TaskLatencyRecorder)}, but a task failing with
+     * {@code expected} (e.g. a timed-out connection acquire) is a failed request rather than a
+     * broken run: it is reported to {@link TaskLatencyRecorder#failed()} instead of the latencies,
+     * and the remaining tasks carry on.
+     *
+     * @return Number of tasks that failed with {@code expected}.
+     * @throws RuntimeException wrapping the first other task failure, if any.
+     */
+    public long submitAll(Executor executor, int taskCount, Callable<?> task, TaskLatencyRecorder recorder,
+            Class<? extends Exception> expected) {
+        return submitAll(executor, taskCount, task, recorder, expected::isInstance);
+    }
+
+    private long submitAll(Executor executor, int taskCount, Callable<?> task, TaskLatencyRecorder recorder,
+            Predicate<Throwable> expected) {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        CountDownLatch remaining = new CountDownLatch(taskCount);
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        LongAdder failed = new LongAdder();
+
+        try {
+            for (int i = 0; i < taskCount; i++) {
+                inFlight.acquire();
+                long submitNanos = System.nanoTime();
+                recorder.submitted();
+                executor.execute(() -> {
+                    long startNanos = System.nanoTime();
+                    boolean succeeded = false;
+                    try {
+                        task.call();
+                        succeeded = true;
+                    } catch (Throwable t) {
+                        if (expected.test(t)) {
+                            failed.increment();
+                        } else {
+                            firstFailure.compareAndSet(null, t);
+                        }
+                    } finally {
+                        if (succeeded) {
+                            recorder.record(submitNanos, startNanos, System.nanoTime());
+                        } else {
+                            recorder.failed();
+                        }
+                        inFlight.release();
+                        remaining.countDown();
+                    }
+                });
+            }
+            remaining.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        Throwable failure = firstFailure.get();
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+        return failed.sum();
+    }
+}
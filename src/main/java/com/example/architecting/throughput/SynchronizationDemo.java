@@ -1,14 +1,15 @@
 package com.example.architecting.throughput;
 
 import java.time.Duration;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalInt;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * Demonstrates the interaction between Threading Models and Locking Strategies.
@@ -23,50 +24,79 @@ public class SynchronizationDemo {
     // count
     private static final Semaphore CARRIER_LIMIT = new Semaphore(Runtime.getRuntime().availableProcessors());
 
+    private final int maxInFlight;
+    private final OptionalInt reusableWorkers;
+
+    public SynchronizationDemo() {
+        this(StreamingSubmitter.UNBOUNDED);
+    }
+
+    /**
+     * @param maxInFlight Cap on outstanding tasks per scenario; see {@link StreamingSubmitter}.
+     */
+    public SynchronizationDemo(int maxInFlight) {
+        this(maxInFlight, OptionalInt.empty());
+    }
+
+    private SynchronizationDemo(int maxInFlight, OptionalInt reusableWorkers) {
+        this.maxInFlight = maxInFlight;
+        this.reusableWorkers = reusableWorkers;
+    }
+
+    /**
+     * Runs scenarios on a {@link ReusableWorkerRunner} instead of thread-per-task, with one
+     * preallocated lock per worker instead of a new lock per task.
+     *
+     * @param virtualWorkers Workers for the virtual scenarios; platform scenarios use one worker per
+     *                       pool thread. Must be well below the task count for workers to be reused.
+     */
+    public static SynchronizationDemo withReusableWorkers(int virtualWorkers) {
+        if (virtualWorkers <= 0) {
+            throw new IllegalArgumentException("virtualWorkers must be positive");
+        }
+        return new SynchronizationDemo(StreamingSubmitter.UNBOUNDED, OptionalInt.of(virtualWorkers));
+    }
+
     public TaskSimulator.SimulationResult runPlatformSynchronized(int taskCount, Duration ioDuration) {
-        return runDemo("Platform + Synchronized", Executors.newFixedThreadPool(200), taskCount, ioDuration, () -> {
-            // Simulate locking a resource specific to this task (e.g., user session)
-            Object localLock = new Object();
+        return runPlatformSynchronized(taskCount, ioDuration, 200);
+    }
+
+    public TaskSimulator.SimulationResult runPlatformSynchronized(int taskCount, Duration ioDuration, int poolSize) {
+        // Simulate locking a resource specific to this task (e.g., user session)
+        return runScenario("Platform + Synchronized", false, poolSize, taskCount, Object::new, localLock -> {
             synchronized (localLock) {
                 Thread.sleep(ioDuration);
             }
-            return null;
         });
     }
 
     public TaskSimulator.SimulationResult runVirtualSynchronized(int taskCount, Duration ioDuration) {
         // In Java 25, this will UNMOUNT. In Java 21, this would PIN.
-        return runDemo("Virtual + Synchronized (Java 25)", Executors.newVirtualThreadPerTaskExecutor(), taskCount,
-                ioDuration, () -> {
-                    Object localLock = new Object();
-                    synchronized (localLock) {
-                        Thread.sleep(ioDuration);
-                    }
-                    return null;
-                });
+        return runScenario("Virtual + Synchronized (Java 25)", true, 0, taskCount, Object::new, localLock -> {
+            synchronized (localLock) {
+                Thread.sleep(ioDuration);
+            }
+        });
     }
 
     public TaskSimulator.SimulationResult runVirtualReentrantLock(int taskCount, Duration ioDuration) {
-        return runDemo("Virtual + ReentrantLock", Executors.newVirtualThreadPerTaskExecutor(), taskCount, ioDuration,
-                () -> {
-                    ReentrantLock localLock = new ReentrantLock();
-                    localLock.lock();
-                    try {
-                        Thread.sleep(ioDuration);
-                    } finally {
-                        localLock.unlock();
-                    }
-                    return null;
-                });
+        return runScenario("Virtual + ReentrantLock", true, 0, taskCount, ReentrantLock::new, localLock -> {
+            localLock.lock();
+            try {
+                Thread.sleep(ioDuration);
+            } finally {
+                localLock.unlock();
+            }
+        });
     }
 
     public TaskSimulator.SimulationResult runVirtualPinnedSimulation(int taskCount, Duration ioDuration) {
         // Simulates Java 21 behavior where synchronized pins the carrier thread.
         // We enforce a limit equal to processor count to mimic the scarcity of carrier
         // threads.
-        return runDemo("Virtual + Pinned (Simulated Java 21)", Executors.newVirtualThreadPerTaskExecutor(), taskCount,
-                ioDuration, () -> {
-                    CARRIER_LIMIT.acquire();
+        return runScenario("Virtual + Pinned (Simulated Java 21)", true, 0, taskCount, () -> CARRIER_LIMIT,
+                carrierLimit -> {
+                    carrierLimit.acquire();
                     try {
                         // Even if we are technically virtual, we are holding a "permit" that represents
                         // a carrier thread.
@@ -74,36 +104,68 @@ public class SynchronizationDemo {
                         // running.
                         Thread.sleep(ioDuration);
                     } finally {
-                        CARRIER_LIMIT.release();
+                        carrierLimit.release();
                     }
-                    return null;
                 });
     }
 
+    /**
+     * Scenario body that runs holding a lock obtained from the scenario's lock factory.
+     */
+    @FunctionalInterface
+    private interface LockedTask<L> {
+        void run(L lock) throws Exception;
+    }
+
+    /**
+     * Runs a scenario either thread-per-task with a fresh lock per task, or on reusable workers
+     * with one preallocated lock per worker. A worker runs one task at a time, so its lock is as
+     * uncontended as a per-task one.
+     */
+    private <L> TaskSimulator.SimulationResult runScenario(String name, boolean virtual, int poolSize,
+            int taskCount, Supplier<L> lockFactory, LockedTask<L> task) {
+        if (reusableWorkers.isEmpty()) {
+            ExecutorService executor = virtual ? Executors.newVirtualThreadPerTaskExecutor()
+                    : Executors.newFixedThreadPool(poolSize);
+            return runDemo(name, executor, taskCount, () -> {
+                task.run(lockFactory.get());
+                return null;
+            });
+        }
+
+        int workers = Math.min(virtual ? reusableWorkers.getAsInt() : poolSize, taskCount);
+        List<L> locks = Stream.generate(lockFactory).limit(workers).toList();
+        ReusableWorkerRunner runner = new ReusableWorkerRunner(
+                virtual ? Thread.ofVirtual().factory() : Thread.ofPlatform().factory(), workers);
+        String label = name + " [reusable " + workers + "]";
+        System.out.println("Starting " + label + "...");
+
+        TaskLatencyRecorder recorder = new TaskLatencyRecorder(label);
+        AllocationTracker allocations = AllocationTracker.start();
+        long start = System.currentTimeMillis();
+        runner.runAll(taskCount, worker -> task.run(locks.get(worker)), recorder);
+
+        long end = System.currentTimeMillis();
+        long totalTime = end - start;
+        double throughput = (double) taskCount / (totalTime / 1000.0);
+        return new TaskSimulator.SimulationResult(label, taskCount, totalTime, throughput, recorder.report(),
+                allocations.stop(taskCount));
+    }
+
     private TaskSimulator.SimulationResult runDemo(String name, ExecutorService executor, int taskCount,
-            Duration ioDuration,
             Callable<Void> task) {
         System.out.println("Starting " + name + "...");
         try (executor) {
+            TaskLatencyRecorder recorder = new TaskLatencyRecorder(name);
+            AllocationTracker allocations = AllocationTracker.start();
             long start = System.currentTimeMillis();
-            List<Callable<Void>> tasks = new ArrayList<>(taskCount);
-            for (int i = 0; i < taskCount; i++) {
-                tasks.add(task);
-            }
-
-            try {
-                List<Future<Void>> futures = executor.invokeAll(tasks);
-                for (Future<Void> f : futures) {
-                    f.get();
-                }
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+            new StreamingSubmitter(maxInFlight).submitAll(executor, taskCount, task, recorder);
 
             long end = System.currentTimeMillis();
             long totalTime = end - start;
             double throughput = (double) taskCount / (totalTime / 1000.0);
-            return new TaskSimulator.SimulationResult(name, taskCount, totalTime, throughput);
+            return new TaskSimulator.SimulationResult(name, taskCount, totalTime, throughput, recorder.report(),
+                    allocations.stop(taskCount));
         }
     }
 }
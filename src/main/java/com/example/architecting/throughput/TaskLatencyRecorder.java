@@ -0,0 +1,141 @@
+package com.example.architecting.throughput;
+
+import java.util.concurrent.Callable;
+
+import com.example.architecting.metrics.TaskMetrics;
+
+/**
+ * Records the three latencies of every simulated task:
+ * <ul>
+ * <li><b>queue-wait</b>: submitted until a thread started running it,</li>
+ * <li><b>run time</b>: started until finished,</li>
+ * <li><b>end-to-end</b>: submitted until finished.</li>
+ * </ul>
+ * A recorder created with a model name also publishes live {@link TaskMetrics} while
+ * {@code LiveMetrics} is running; callers report submissions through {@link #submitted} so the
+ * in-flight count is known before tasks finish.
+ */
+public final class TaskLatencyRecorder {
+
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram runTime = new LatencyHistogram();
+    private final LatencyHistogram endToEnd = new LatencyHistogram();
+    private final TaskMetrics live;
+
+    /**
+     * A recorder that publishes nothing, e.g. for warm-up runs or merged results.
+     */
+    public TaskLatencyRecorder() {
+        this.live = TaskMetrics.DISABLED;
+    }
+
+    /**
+     * @param model Model name the live metrics are labelled with.
+     */
+    public TaskLatencyRecorder(String model) {
+        this.live = TaskMetrics.forModel(model);
+    }
+
+    public void submitted() {
+        live.submitted(1);
+    }
+
+    /**
+     * Reports {@code count} tasks submitted at once, as in the batch models.
+     */
+    public void submitted(long count) {
+        live.submitted(count);
+    }
+
+    public void record(long submitNanos, long startNanos, long endNanos) {
+        queueWait.recordValue(startNanos - submitNanos);
+        runTime.recordValue(endNanos - startNanos);
+        endToEnd.recordValue(endNanos - submitNanos);
+        live.completed(endNanos - submitNanos);
+    }
+
+    /**
+     * Reports a task that finished without doing its work, e.g. because its connection acquire
+     * timed out. It leaves the in-flight count but not the latencies, so failing fast cannot pass
+     * for low latency.
+     */
+    public void failed() {
+        live.failed();
+    }
+
+    /**
+     * Wraps {@code task} so that each call is recorded against {@code submitNanos}.
+     * <p>
+     * In the closed-loop batch models every task is submitted at the batch start, so one
+     * wrapper can be shared by all tasks of the batch and nothing is allocated per task.
+     */
+    public <T> Callable<T> timed(long submitNanos, Callable<T> task) {
+        return () -> {
+            long started = System.nanoTime();
+            try {
+                return task.call();
+            } finally {
+                record(submitNanos, started, System.nanoTime());
+            }
+        };
+    }
+
+    /**
+     * Adds all latencies recorded by {@code other}, e.g. by another worker or JVM.
+     */
+    public void add(TaskLatencyRecorder other) {
+        queueWait.add(other.queueWait);
+        runTime.add(other.runTime);
+        endToEnd.add(other.endToEnd);
+    }
+
+    /**
+     * Serializes the three histograms as space-separated {@link LatencyHistogram#encode()} tokens.
+     */
+    public String encode() {
+        return queueWait.encode() + " " + runTime.encode() + " " + endToEnd.encode();
+    }
+
+    /**
+     * Parses the output of {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if {@code encoded} is malformed.
+     */
+    public static TaskLatencyRecorder decode(String encoded) {
+        String[] histograms = encoded.trim().split(" ");
+        if (histograms.length != 3) {
+            throw new IllegalArgumentException("Expected 3 histograms, got " + histograms.length);
+        }
+        TaskLatencyRecorder recorder = new TaskLatencyRecorder();
+        recorder.queueWait.add(LatencyHistogram.decode(histograms[0]));
+        recorder.runTime.add(LatencyHistogram.decode(histograms[1]));
+        recorder.endToEnd.add(LatencyHistogram.decode(histograms[2]));
+        return recorder;
+    }
+
+    public LatencyReport report() {
+        return new LatencyReport(queueWait.snapshot(), runTime.snapshot(), endToEnd.snapshot());
+    }
+
+    /**
+     * Percentiles of the three task latencies.
+     */
+    public record LatencyReport(LatencyStats queueWait, LatencyStats runTime, LatencyStats endToEnd) {
+
+        public static final LatencyReport EMPTY = new LatencyReport(LatencyStats.EMPTY, LatencyStats.EMPTY,
+                LatencyStats.EMPTY);
+
+        /**
+         * A report for callers that only measure whole calls, with no separate queue wait.
+         */
+        public static LatencyReport ofEndToEnd(LatencyStats endToEnd) {
+            return new LatencyReport(LatencyStats.EMPTY, LatencyStats.EMPTY, endToEnd);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("  queue-wait: %s%n  run time:   %s%n  end-to-end: %s", queueWait, runTime,
+                    endToEnd);
+        }
+    }
+}
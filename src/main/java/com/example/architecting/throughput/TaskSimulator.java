@@ -17,11 +17,35 @@ public interface TaskSimulator {
      */
     SimulationResult run(int taskCount, Duration ioDuration, Duration cpuDuration);
 
-    record SimulationResult(String modelName, int taskCount, long totalTimeMillis, double throughputPerSecond) {
+    /**
+     * Name used in reports.
+     */
+    String modelName();
+
+    record SimulationResult(String modelName, int taskCount, long totalTimeMillis, double throughputPerSecond,
+            TaskLatencyRecorder.LatencyReport latency, AllocationTracker.AllocationReport allocation) {
+
+        public SimulationResult(String modelName, int taskCount, long totalTimeMillis, double throughputPerSecond) {
+            this(modelName, taskCount, totalTimeMillis, throughputPerSecond, TaskLatencyRecorder.LatencyReport.EMPTY);
+        }
+
+        public SimulationResult(String modelName, int taskCount, long totalTimeMillis, double throughputPerSecond,
+                TaskLatencyRecorder.LatencyReport latency) {
+            this(modelName, taskCount, totalTimeMillis, throughputPerSecond, latency,
+                    AllocationTracker.AllocationReport.EMPTY);
+        }
+
         @Override
         public String toString() {
-            return String.format("[%s] Tasks: %d, Time: %d ms, Throughput: %.2f tasks/sec",
+            String summary = String.format("[%s] Tasks: %d, Time: %d ms, Throughput: %.2f tasks/sec",
                     modelName, taskCount, totalTimeMillis, throughputPerSecond);
+            if (latency.endToEnd().count() > 0) {
+                summary += System.lineSeparator() + latency;
+            }
+            if (allocation.allocatedBytes() >= 0) {
+                summary += System.lineSeparator() + allocation;
+            }
+            return summary;
         }
     }
 }
@@ -1,6 +1,11 @@
 package com.example.architecting.throughput;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import com.example.architecting.diagnostics.VirtualThreadMonitor;
+import com.example.architecting.metrics.LiveMetrics;
 
 /**
  * Main entry point for the Throughput Demonstration.
@@ -8,66 +13,121 @@ import java.time.Duration;
  */
 public class ThroughputDemo {
 
+    private static final int REUSABLE_WORKERS = 1_000;
+
     public static void main(String[] args) {
-        System.out.println("==================================================");
-        System.out.println("      Java 25 Throughput & Threading Model Demo   ");
-        System.out.println("==================================================");
-
-        // Configuration
-        // We use a relatively high task count to show the difference,
-        // but low enough to run quickly for a demo.
-        int taskCount = 10_000;
-        Duration ioDuration = Duration.ofMillis(10); // 10ms latency
-        Duration cpuDuration = Duration.ZERO; // Pure I/O bound for this test
-
-        System.out.println("Configuration:");
-        System.out.println("  Tasks: " + taskCount);
-        System.out.println("  I/O Duration: " + ioDuration.toMillis() + "ms");
-        System.out.println("  CPU Duration: " + cpuDuration.toMillis() + "ms");
-        System.out.println("==================================================\n");
-
-        // 1. Baseline: Platform Threads
-        TaskSimulator platformModel = new PlatformThreadModel();
-        TaskSimulator.SimulationResult platformResult = platformModel.run(taskCount, ioDuration, cpuDuration);
-        System.out.println(platformResult);
-        System.out.println();
-
-        // 2. Target: Virtual Threads (Java 25)
-        TaskSimulator virtualModel = new VirtualThreadModel();
-        TaskSimulator.SimulationResult virtualResult = virtualModel.run(taskCount, ioDuration, cpuDuration);
-        System.out.println(virtualResult);
-        System.out.println();
-
-        // 3. Locking Strategy Comparison
-        System.out.println("--- Locking Strategy Comparison ---");
-        SynchronizationDemo syncDemo = new SynchronizationDemo();
-
-        // 3a. Platform + Synchronized
-        // We reduce task count for platform threads to avoid exhaustion if we were to
-        // scale up,
-        // but for 10k it's fine.
-        var syncPlatform = syncDemo.runPlatformSynchronized(taskCount, ioDuration);
-        System.out.println(syncPlatform);
-
-        // 3b. Virtual + Synchronized (Java 25 - Unmounts)
-        var syncVirtual = syncDemo.runVirtualSynchronized(taskCount, ioDuration);
-        System.out.println(syncVirtual);
-
-        // 3c. Virtual + ReentrantLock (Always Unmounts)
-        var lockVirtual = syncDemo.runVirtualReentrantLock(taskCount, ioDuration);
-        System.out.println(lockVirtual);
-
-        // 3d. Virtual + Pinned Simulation (Java 21 Behavior)
-        var pinnedVirtual = syncDemo.runVirtualPinnedSimulation(taskCount, ioDuration);
-        System.out.println(pinnedVirtual);
-
-        System.out.println("\n==================================================");
-        System.out.println("Summary of Results (Tasks/Sec):");
-        System.out.printf("%-40s: %.2f\n", platformResult.modelName(), platformResult.throughputPerSecond());
-        System.out.printf("%-40s: %.2f\n", virtualResult.modelName(), virtualResult.throughputPerSecond());
-        System.out.printf("%-40s: %.2f\n", syncPlatform.modelName(), syncPlatform.throughputPerSecond());
-        System.out.printf("%-40s: %.2f\n", syncVirtual.modelName(), syncVirtual.throughputPerSecond());
-        System.out.printf("%-40s: %.2f\n", pinnedVirtual.modelName(), pinnedVirtual.throughputPerSecond());
-        System.out.println("==================================================");
+        try (LiveMetrics live = LiveMetrics.fromSystemProperties()) {
+            System.out.println("==================================================");
+            System.out.println("      Java 25 Throughput & Threading Model Demo   ");
+            System.out.println("==================================================");
+
+            // Configuration
+            // We use a relatively high task count to show the difference,
+            // but low enough to run quickly for a demo.
+            int taskCount = 10_000;
+            Duration ioDuration = Duration.ofMillis(10); // 10ms latency
+            Duration cpuDuration = Duration.ZERO; // Pure I/O bound for this test
+
+            System.out.println("Configuration:");
+            System.out.println("  Tasks: " + taskCount);
+            System.out.println("  I/O Duration: " + ioDuration.toMillis() + "ms");
+            System.out.println("  CPU Duration: " + cpuDuration.toMillis() + "ms");
+            System.out.println("==================================================\n");
+
+            // 1. Baseline: Platform Threads
+            TaskSimulator platformModel = new PlatformThreadModel();
+            TaskSimulator.SimulationResult platformResult = runMonitored(
+                    () -> platformModel.run(taskCount, ioDuration, cpuDuration));
+            System.out.println();
+
+            // 2. Target: Virtual Threads (Java 25)
+            TaskSimulator virtualModel = new VirtualThreadModel();
+            TaskSimulator.SimulationResult virtualResult = runMonitored(
+                    () -> virtualModel.run(taskCount, ioDuration, cpuDuration));
+            System.out.println();
+
+            // 2b. Virtual Threads on reusable workers: same work, no per-task submission garbage
+            TaskSimulator reusableModel = new ReusableWorkerModel(true, REUSABLE_WORKERS);
+            TaskSimulator.SimulationResult reusableResult = runMonitored(
+                    () -> reusableModel.run(taskCount, ioDuration, cpuDuration));
+            System.out.println();
+
+            // 2c. Async composition: CompletableFuture chains on a few event loops, no thread per task
+            TaskSimulator asyncModel = new AsyncModel();
+            TaskSimulator.SimulationResult asyncResult = runMonitored(
+                    () -> asyncModel.run(taskCount, ioDuration, cpuDuration));
+            System.out.println();
+
+            // 3. Locking Strategy Comparison
+            System.out.println("--- Locking Strategy Comparison ---");
+            SynchronizationDemo syncDemo = new SynchronizationDemo();
+
+            // 3a. Platform + Synchronized
+            // We reduce task count for platform threads to avoid exhaustion if we were to
+            // scale up,
+            // but for 10k it's fine.
+            var syncPlatform = runMonitored(() -> syncDemo.runPlatformSynchronized(taskCount, ioDuration));
+
+            // 3b. Virtual + Synchronized (Java 25 - Unmounts)
+            var syncVirtual = runMonitored(() -> syncDemo.runVirtualSynchronized(taskCount, ioDuration));
+
+            // 3c. Virtual + ReentrantLock (Always Unmounts)
+            var lockVirtual = runMonitored(() -> syncDemo.runVirtualReentrantLock(taskCount, ioDuration));
+
+            // 3d. Virtual + Pinned Simulation (Java 21 Behavior)
+            var pinnedVirtual = runMonitored(() -> syncDemo.runVirtualPinnedSimulation(taskCount, ioDuration));
+
+            // 3e/3f. The unmounting lock scenarios on reusable workers, one preallocated lock per worker
+            SynchronizationDemo reusableSyncDemo = SynchronizationDemo.withReusableWorkers(REUSABLE_WORKERS);
+            var syncReusable = runMonitored(() -> reusableSyncDemo.runVirtualSynchronized(taskCount, ioDuration));
+            var lockReusable = runMonitored(() -> reusableSyncDemo.runVirtualReentrantLock(taskCount, ioDuration));
+
+            System.out.println("\n==================================================");
+            System.out.println(
+                    "Summary of Results (Tasks/Sec, end-to-end latency in ms, heap bytes allocated per task):");
+            System.out.printf("%-50s  %12s %9s %9s %9s %9s %9s %9s%n", "Model", "Tasks/Sec", "p50", "p90", "p99",
+                    "p99.9", "max", "B/task");
+            printSummaryRow(platformResult);
+            printSummaryRow(virtualResult);
+            printSummaryRow(reusableResult);
+            printSummaryRow(asyncResult);
+            printSummaryRow(syncPlatform);
+            printSummaryRow(syncVirtual);
+            printSummaryRow(lockVirtual);
+            printSummaryRow(pinnedVirtual);
+            printSummaryRow(syncReusable);
+            printSummaryRow(lockReusable);
+            System.out.println("==================================================");
+
+            ResultExporter exporter = new ResultExporter("ThroughputDemo")
+                    .config("tasks", taskCount)
+                    .config("ioMillis", ioDuration.toMillis())
+                    .config("cpuMillis", cpuDuration.toMillis())
+                    .config("reusableWorkers", REUSABLE_WORKERS);
+            for (TaskSimulator.SimulationResult result : List.of(platformResult, virtualResult, reusableResult,
+                    asyncResult, syncPlatform, syncVirtual, lockVirtual, pinnedVirtual, syncReusable, lockReusable)) {
+                exporter.add(result);
+            }
+            exporter.writeAndReport();
+        }
+    }
+
+    /**
+     * Runs one scenario with JFR virtual-thread monitoring and prints its result and pinning report.
+     */
+    private static TaskSimulator.SimulationResult runMonitored(Supplier<TaskSimulator.SimulationResult> scenario) {
+        VirtualThreadMonitor.Monitored<TaskSimulator.SimulationResult> monitored = VirtualThreadMonitor
+                .monitor(scenario);
+        System.out.println(monitored);
+        return monitored.result();
+    }
+
+    private static void printSummaryRow(TaskSimulator.SimulationResult result) {
+        LatencyStats latency = result.latency().endToEnd();
+        System.out.printf("%-50s: %12.2f %9.2f %9.2f %9.2f %9.2f %9.2f %9.0f%n", result.modelName(),
+                result.throughputPerSecond(), LatencyStats.toMillis(latency.p50Nanos()),
+                LatencyStats.toMillis(latency.p90Nanos()), LatencyStats.toMillis(latency.p99Nanos()),
+                LatencyStats.toMillis(latency.p999Nanos()), LatencyStats.toMillis(latency.maxNanos()),
+                result.allocation().bytesPerTask());
     }
 }
@@ -1,12 +1,14 @@
 package com.example.architecting.throughput;
 
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
+
+import com.example.architecting.limiter.ConcurrencyLimiter;
+import com.example.architecting.pool.ConnectionPool;
 
 /**
  * Simulates throughput using Virtual Threads.
@@ -14,57 +16,132 @@ import java.util.concurrent.Future;
  * tasks
  * as it is not limited by OS thread count.
  */
-public class VirtualThreadModel implements TaskSimulator {
+public class VirtualThreadModel implements ExecutorBackedSimulator {
+
+    private final int maxInFlight;
+    private final Optional<ConcurrencyLimiter> ioLimiter;
+    private final Optional<ConnectionPool> connectionPool;
+
+    public VirtualThreadModel() {
+        this(StreamingSubmitter.UNBOUNDED);
+    }
+
+    /**
+     * @param maxInFlight Cap on outstanding tasks; {@link StreamingSubmitter#UNBOUNDED} submits everything at once.
+     */
+    public VirtualThreadModel(int maxInFlight) {
+        this(maxInFlight, Optional.empty(), Optional.empty());
+    }
+
+    /**
+     * @param maxInFlight Cap on outstanding tasks; {@link StreamingSubmitter#UNBOUNDED} submits everything at once.
+     * @param ioLimiter   Limits how many tasks are in their I/O phase at once, i.e. the concurrency
+     *                    seen by the simulated downstream dependency.
+     */
+    public VirtualThreadModel(int maxInFlight, ConcurrencyLimiter ioLimiter) {
+        this(maxInFlight, Optional.of(ioLimiter), Optional.empty());
+    }
+
+    /**
+     * @param maxInFlight    Cap on outstanding tasks; {@link StreamingSubmitter#UNBOUNDED} submits everything at once.
+     * @param connectionPool Each task holds a connection for its I/O phase. A task whose acquire
+     *                       times out fails; {@link #run} leaves it out of the task count, throughput
+     *                       and latencies, and the pool's metrics count it.
+     */
+    public VirtualThreadModel(int maxInFlight, ConnectionPool connectionPool) {
+        this(maxInFlight, Optional.empty(), Optional.of(connectionPool));
+    }
+
+    private VirtualThreadModel(int maxInFlight, Optional<ConcurrencyLimiter> ioLimiter,
+            Optional<ConnectionPool> connectionPool) {
+        this.maxInFlight = maxInFlight;
+        this.ioLimiter = ioLimiter;
+        this.connectionPool = connectionPool;
+    }
 
     @Override
     public SimulationResult run(int taskCount, Duration ioDuration, Duration cpuDuration) {
         System.out.println("Starting Virtual Thread simulation...");
 
-        // In Java 25, this uses the ForkJoinPool as the scheduler.
-        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+        try (ExecutorService executor = newExecutor()) {
+            TaskLatencyRecorder recorder = new TaskLatencyRecorder(modelName());
+            AllocationTracker allocations = AllocationTracker.start();
             long start = System.currentTimeMillis();
 
-            List<Callable<Void>> tasks = new ArrayList<>(taskCount);
-            for (int i = 0; i < taskCount; i++) {
-                tasks.add(() -> {
-                    // Simulate CPU work
-                    if (!cpuDuration.isZero()) {
-                        long endCpu = System.nanoTime() + cpuDuration.toNanos();
-                        while (System.nanoTime() < endCpu) {
-                            // busy spin
-                        }
-                    }
+            // Tasks are generated lazily and no Future is kept per task, so heap usage
+            // stays flat even for 10M+ tasks when maxInFlight is bounded.
+            // A timed-out connection acquire fails only its own task.
+            long failed = new StreamingSubmitter(maxInFlight).submitAll(executor, taskCount,
+                    newTask(ioDuration, cpuDuration), recorder, TimeoutException.class);
+            int succeeded = (int) (taskCount - failed);
 
-                    // Simulate Blocking I/O
-                    // In Virtual Threads, this unmounts the thread, releasing the carrier.
-                    if (!ioDuration.isZero()) {
-                        try {
-                            Thread.sleep(ioDuration);
-                        } catch (InterruptedException e) {
-                            Thread.currentThread().interrupt();
-                        }
-                    }
-                    return null;
-                });
+            long end = System.currentTimeMillis();
+            long totalTime = end - start;
+            double throughput = (double) succeeded / (totalTime / 1000.0);
+            if (failed > 0) {
+                System.out.println("  " + failed + " tasks failed to acquire a connection; excluded from results");
             }
 
-            try {
-                // Submit all tasks.
-                // Note: For very large taskCount, creating the list might be the bottleneck,
-                // but for < 1 million it's usually fine.
-                List<Future<Void>> futures = executor.invokeAll(tasks);
-                for (Future<Void> f : futures) {
-                    f.get();
+            return new SimulationResult(modelName(), succeeded, totalTime, throughput, recorder.report(),
+                    allocations.stop(taskCount));
+        }
+    }
+
+    @Override
+    public String modelName() {
+        String name = "Virtual Threads (Java 25)";
+        if (maxInFlight != StreamingSubmitter.UNBOUNDED) {
+            name += " [in-flight " + maxInFlight + "]";
+        }
+        return name + ioLimiter.map(limiter -> " [" + limiter.name() + " limit]").orElse("")
+                + connectionPool.map(pool -> " [pool " + pool.config().size() + "]").orElse("");
+    }
+
+    @Override
+    public ExecutorService newExecutor() {
+        // In Java 25, this uses the ForkJoinPool as the scheduler.
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @Override
+    public Callable<Void> newTask(Duration ioDuration, Duration cpuDuration) {
+        return () -> {
+            // Simulate CPU work
+            if (!cpuDuration.isZero()) {
+                long endCpu = System.nanoTime() + cpuDuration.toNanos();
+                while (System.nanoTime() < endCpu) {
+                    // busy spin
                 }
-            } catch (Exception e) {
-                throw new RuntimeException(e);
             }
 
-            long end = System.currentTimeMillis();
-            long totalTime = end - start;
-            double throughput = (double) taskCount / (totalTime / 1000.0);
+            // Simulate Blocking I/O
+            // In Virtual Threads, this unmounts the thread, releasing the carrier.
+            // Waiting for a limiter permit or a pooled connection parks the virtual thread the same way.
+            if (!ioDuration.isZero()) {
+                try {
+                    if (ioLimiter.isPresent()) {
+                        ioLimiter.get().call(() -> {
+                            pooledSleep(ioDuration);
+                            return null;
+                        });
+                    } else {
+                        pooledSleep(ioDuration);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return null;
+        };
+    }
 
-            return new SimulationResult("Virtual Threads (Java 25)", taskCount, totalTime, throughput);
+    private void pooledSleep(Duration ioDuration) throws InterruptedException, TimeoutException {
+        if (connectionPool.isEmpty()) {
+            Thread.sleep(ioDuration);
+            return;
+        }
+        try (ConnectionPool.Connection connection = connectionPool.get().acquire()) {
+            Thread.sleep(ioDuration);
         }
     }
 }
@@ -0,0 +1,243 @@
+package com.example.architecting.batch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class BatchLoaderTest {
+
+    private static final long AWAIT_SECONDS = 5;
+    private static final Duration LONG_WINDOW = Duration.ofMinutes(1);
+
+    @Test
+    void concurrentLoadsShareOneBatch() throws Exception {
+        int callers = 10;
+        ConcurrentLinkedQueue<List<Integer>> batches = new ConcurrentLinkedQueue<>();
+        BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoader.Config.of(callers, LONG_WINDOW),
+                keys -> {
+                    batches.add(keys);
+                    return valuesFor(keys);
+                });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int key = 0; key < callers; key++) {
+                int k = key;
+                results.add(executor.submit(() -> loader.load(k)));
+            }
+            for (int key = 0; key < callers; key++) {
+                assertThat(results.get(key).get(AWAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value-" + key);
+            }
+        }
+
+        assertThat(batches).hasSize(1);
+        BatchLoader.Metrics metrics = loader.metrics();
+        assertThat(metrics.batches()).isEqualTo(1);
+        assertThat(metrics.fullBatches()).isEqualTo(1);
+        assertThat(metrics.timedOutBatches()).isZero();
+    }
+
+    @Test
+    void windowDispatchesPartialBatch() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoader.Config.of(100, Duration.ofMillis(20)),
+                BatchLoaderTest::valuesFor);
+
+        assertThat(loader.load(1)).isEqualTo("value-1");
+
+        BatchLoader.Metrics metrics = loader.metrics();
+        assertThat(metrics.timedOutBatches()).isEqualTo(1);
+        assertThat(metrics.fullBatches()).isZero();
+    }
+
+    @Test
+    void windowClosingAsBatchFillsDispatchesOnce() throws Exception {
+        // A window about as long as it takes to start the second caller, so over many rounds the window
+        // closes just as the second key fills the batch.
+        int rounds = 200;
+        ConcurrentLinkedQueue<Integer> loadedKeys = new ConcurrentLinkedQueue<>();
+        AtomicInteger calls = new AtomicInteger();
+        BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoader.Config.of(2, Duration.ofNanos(50_000)),
+                keys -> {
+                    calls.incrementAndGet();
+                    loadedKeys.addAll(keys);
+                    return valuesFor(keys);
+                });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int round = 0; round < rounds; round++) {
+                int first = 2 * round;
+                Future<String> a = executor.submit(() -> loader.load(first));
+                Future<String> b = executor.submit(() -> loader.load(first + 1));
+                assertThat(a.get(AWAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value-" + first);
+                assertThat(b.get(AWAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value-" + (first + 1));
+            }
+        }
+
+        // Every key was loaded exactly once: no batch was dispatched by both its window and its size.
+        assertThat(loadedKeys).hasSize(2 * rounds);
+        assertThat(Set.copyOf(loadedKeys)).hasSize(2 * rounds);
+        BatchLoader.Metrics metrics = loader.metrics();
+        assertThat(metrics.batches()).isEqualTo(calls.get());
+        assertThat(metrics.fullBatches() + metrics.timedOutBatches()).isEqualTo(metrics.batches());
+    }
+
+    @Test
+    void duplicateKeysAreLoadedOnceAndServeEveryCaller() throws Exception {
+        int callers = 3;
+        ConcurrentLinkedQueue<List<Integer>> batches = new ConcurrentLinkedQueue<>();
+        BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoader.Config.of(callers, LONG_WINDOW),
+                keys -> {
+                    batches.add(keys);
+                    return valuesFor(keys);
+                });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> loader.load(7)));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(AWAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value-7");
+            }
+        }
+
+        // Duplicates count towards the batch size, but the batch function sees each key once.
+        assertThat(batches).containsExactly(List.of(7));
+        assertThat(loader.metrics().fullBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void keyMissingFromResultFailsOnlyItsCaller() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoader.Config.of(2, LONG_WINDOW),
+                keys -> valuesFor(keys.stream().filter(key -> key != 2).toList()));
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> present = executor.submit(() -> loader.load(1));
+            Future<String> missing = executor.submit(() -> loader.load(2));
+
+            assertThat(present.get(AWAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value-1");
+            assertThat(causeOf(missing)).isInstanceOf(NoSuchElementException.class);
+        }
+
+        assertThat(loader.metrics().failedBatches()).isZero();
+    }
+
+    @Test
+    void failingBatchFunctionFailsEveryCaller() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoader.Config.of(2, LONG_WINDOW), keys -> {
+            throw new IllegalStateException("backend down");
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> loader.load(1));
+            Future<String> second = executor.submit(() -> loader.load(2));
+
+            assertThat(causeOf(first)).isInstanceOf(IllegalStateException.class);
+            assertThat(causeOf(second)).isInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(loader.metrics().failedBatches()).isEqualTo(1);
+    }
+
+    @Test
+    void batchFunctionErrorReachesCallersInsteadOfHanging() throws Exception {
+        BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoader.Config.unbatched(), keys -> {
+            throw new StackOverflowError();
+        });
+
+        assertThatThrownBy(() -> loader.load(1)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(StackOverflowError.class);
+    }
+
+    @Test
+    void interruptedCallerDoesNotFailItsBatch() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        BatchLoader<Integer, String> loader = new BatchLoader<>(BatchLoader.Config.of(2, LONG_WINDOW), keys -> {
+            calls.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return valuesFor(keys);
+        });
+
+        AtomicBoolean interrupted = new AtomicBoolean();
+        CountDownLatch firstDone = new CountDownLatch(1);
+        Thread first = Thread.ofVirtual().start(() -> {
+            try {
+                loader.load(1);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            } catch (ExecutionException e) {
+                // Not expected; the assertion on interrupted reports it.
+            } finally {
+                firstDone.countDown();
+            }
+        });
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> second = executor.submit(() -> loader.load(2));
+            // The second key fills the batch, so both callers are parked once the batch function runs.
+            await(loading);
+
+            first.interrupt();
+            await(firstDone);
+            release.countDown();
+
+            assertThat(interrupted.get()).isTrue();
+            assertThat(second.get(AWAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value-2");
+        }
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(loader.metrics().failedBatches()).isZero();
+    }
+
+    @Test
+    void invalidConfigIsRejected() {
+        assertThatThrownBy(() -> new BatchLoader<Integer, String>(BatchLoader.Config.of(0, LONG_WINDOW),
+                BatchLoaderTest::valuesFor)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BatchLoader<Integer, String>(BatchLoader.Config.of(1, Duration.ofMillis(-1)),
+                BatchLoaderTest::valuesFor)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static Map<Integer, String> valuesFor(List<Integer> keys) {
+        return keys.stream().collect(Collectors.toMap(Function.identity(), key -> "value-" + key));
+    }
+
+    /** The exception {@link BatchLoader#load} failed with, unwrapped from the future and its own wrapper. */
+    private static Throwable causeOf(Future<?> result) throws Exception {
+        try {
+            result.get(AWAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException fromFuture) {
+            if (fromFuture.getCause() instanceof ExecutionException fromLoad) {
+                return fromLoad.getCause();
+            }
+            return fromFuture.getCause();
+        }
+        throw new IllegalStateException("Load succeeded");
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        if (!latch.await(AWAIT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Timed out waiting for the test to release the batch");
+        }
+    }
+}
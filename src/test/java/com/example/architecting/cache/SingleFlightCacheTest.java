@@ -0,0 +1,246 @@
+package com.example.architecting.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightCacheTest {
+
+    private static final long AWAIT_SECONDS = 5;
+    private static final Duration LONG_TTL = Duration.ofMinutes(1);
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        int callers = 100;
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<Integer, String> cache = new SingleFlightCache<>(SingleFlightCache.Config.of(10, LONG_TTL),
+                key -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "value-" + key;
+                });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get(1)));
+            }
+            awaitRequests(cache, callers);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertThat(result.get(AWAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value-1");
+            }
+        }
+
+        SingleFlightCache.Stats stats = cache.stats();
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(1);
+        assertThat(stats.hits() + stats.coalesced()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void withoutCoalescingEveryMissLoads() throws Exception {
+        int callers = 10;
+        CountDownLatch allLoading = new CountDownLatch(callers);
+        SingleFlightCache<Integer, String> cache = new SingleFlightCache<>(
+                SingleFlightCache.Config.of(10, LONG_TTL).withCoalescing(false), key -> {
+                    allLoading.countDown();
+                    await(allLoading);
+                    return "value-" + key;
+                });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get(1)));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(AWAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value-1");
+            }
+        }
+
+        assertThat(cache.stats().loads()).isEqualTo(callers);
+    }
+
+    @Test
+    void evictionBoundsSize() throws Exception {
+        int maximumSize = 10;
+        SingleFlightCache<Integer, String> cache = new SingleFlightCache<>(
+                SingleFlightCache.Config.of(maximumSize, LONG_TTL), key -> "value-" + key);
+
+        for (int key = 0; key <= 100; key++) {
+            cache.get(key);
+        }
+
+        // The latest load only counts towards the bound once the next miss sweeps.
+        SingleFlightCache.Stats stats = cache.stats();
+        assertThat(stats.size()).isLessThanOrEqualTo(maximumSize + 1);
+        assertThat(stats.evictions()).isEqualTo(101 - stats.size());
+    }
+
+    @Test
+    void clockGivesReferencedEntriesASecondChance() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<Integer, String> cache = new SingleFlightCache<>(SingleFlightCache.Config.of(3, LONG_TTL),
+                key -> {
+                    loads.incrementAndGet();
+                    return "value-" + key;
+                });
+
+        // Every entry arrives referenced, so the first sweep clears them all and evicts the oldest, 0.
+        for (int key = 0; key <= 4; key++) {
+            cache.get(key);
+        }
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+
+        // Referencing 1 makes the next sweep pass over it and evict 2, the oldest unreferenced entry.
+        cache.get(1);
+        cache.get(5);
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+
+        for (int key : new int[] { 1, 3, 4, 5 }) {
+            assertThat(cache.get(key)).isEqualTo("value-" + key);
+        }
+        assertThat(loads.get()).isEqualTo(6);
+        assertThat(cache.stats().hits()).isEqualTo(5);
+    }
+
+    @Test
+    void entriesExpireAfterTtl() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(
+                SingleFlightCache.Config.of(10, Duration.ofMillis(50)), key -> loads.incrementAndGet());
+
+        assertThat(cache.get(1)).isEqualTo(1);
+        assertThat(cache.get(1)).isEqualTo(1);
+        Thread.sleep(100);
+        assertThat(cache.get(1)).isEqualTo(2);
+
+        SingleFlightCache.Stats stats = cache.stats();
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.expirations()).isEqualTo(1);
+        assertThat(stats.loads()).isEqualTo(2);
+    }
+
+    @Test
+    void refreshAheadServesCurrentValueWhileReloading() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>(
+                SingleFlightCache.Config.of(10, LONG_TTL).withRefreshAhead(Duration.ofMillis(200)),
+                key -> loads.incrementAndGet());
+
+        assertThat(cache.get(1)).isEqualTo(1);
+        Thread.sleep(300);
+        assertThat(cache.get(1)).isEqualTo(1);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(AWAIT_SECONDS);
+        while (cache.get(1) == 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(cache.get(1)).isEqualTo(2);
+        assertThat(cache.stats().refreshes()).isEqualTo(1);
+    }
+
+    @Test
+    void failedLoadIsNotCached() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        SingleFlightCache<Integer, String> cache = new SingleFlightCache<>(SingleFlightCache.Config.of(10, LONG_TTL),
+                key -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new IllegalStateException("backend down");
+                    }
+                    return "value-" + key;
+                });
+
+        assertThatThrownBy(() -> cache.get(1)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(cache.get(1)).isEqualTo("value-1");
+        assertThat(cache.stats().loadFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void loaderErrorReachesCallerInsteadOfHanging() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        SingleFlightCache<Integer, String> cache = new SingleFlightCache<>(SingleFlightCache.Config.of(10, LONG_TTL),
+                key -> {
+                    if (attempts.incrementAndGet() == 1) {
+                        throw new StackOverflowError();
+                    }
+                    return "value-" + key;
+                });
+
+        assertThatThrownBy(() -> cache.get(1)).isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(StackOverflowError.class);
+        assertThat(cache.get(1)).isEqualTo("value-1");
+    }
+
+    @Test
+    void interruptedCallerDoesNotFailOtherWaiters() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        SingleFlightCache<Integer, String> cache = new SingleFlightCache<>(SingleFlightCache.Config.of(10, LONG_TTL),
+                key -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return "value-" + key;
+                });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> first = executor.submit(() -> cache.get(1));
+            await(loading);
+            Future<String> second = executor.submit(() -> cache.get(1));
+            awaitRequests(cache, 2);
+
+            first.cancel(true);
+            release.countDown();
+
+            assertThat(second.get(AWAIT_SECONDS, TimeUnit.SECONDS)).isEqualTo("value-1");
+        }
+
+        assertThat(cache.get(1)).isEqualTo("value-1");
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats().loadFailures()).isZero();
+    }
+
+    @Test
+    void refreshAfterMustBeShorterThanTtl() {
+        SingleFlightCache.Config config = SingleFlightCache.Config.of(10, Duration.ofSeconds(1))
+                .withRefreshAhead(Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> new SingleFlightCache<Integer, String>(config, key -> "value"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void await(CountDownLatch latch) throws InterruptedException {
+        if (!latch.await(AWAIT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("Timed out waiting for the test to release the loader");
+        }
+    }
+
+    /** Waits until {@code count} calls have entered {@link SingleFlightCache#get}. */
+    private static void awaitRequests(SingleFlightCache<?, ?> cache, long count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(AWAIT_SECONDS);
+        while (cache.stats().requests() < count) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Only " + cache.stats().requests() + " of " + count + " requests");
+            }
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.architecting.throughput;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    private static final long[] VALUES = { 0, 1, 255, 511, 512, 10_000, 1_000_000, 12_345_678,
+            TimeUnit.SECONDS.toNanos(3), TimeUnit.HOURS.toNanos(2) };
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        LatencyHistogram histogram = histogramOf(VALUES);
+
+        LatencyHistogram decoded = LatencyHistogram.decode(histogram.encode());
+
+        assertThat(decoded.encode()).isEqualTo(histogram.encode());
+        assertThat(decoded.snapshot()).isEqualTo(histogram.snapshot());
+        assertThat(decoded.getTotalCount()).isEqualTo(VALUES.length);
+        assertThat(decoded.getMaxValue()).isEqualTo(TimeUnit.HOURS.toNanos(1));
+    }
+
+    @Test
+    void emptyHistogramRoundTrips() {
+        LatencyHistogram decoded = LatencyHistogram.decode(new LatencyHistogram().encode());
+
+        assertThat(decoded.getTotalCount()).isZero();
+        assertThat(decoded.snapshot()).isEqualTo(LatencyStats.EMPTY);
+    }
+
+    @Test
+    void decodeKeepsHighestTrackableValue() {
+        LatencyHistogram histogram = new LatencyHistogram(1_000_000);
+        histogram.recordValue(5_000_000);
+
+        LatencyHistogram decoded = LatencyHistogram.decode(histogram.encode());
+        decoded.recordValue(7_000_000);
+
+        assertThat(decoded.encode()).startsWith("1000000;");
+        assertThat(decoded.getMaxValue()).isEqualTo(1_000_000);
+        assertThat(decoded.getTotalCount()).isEqualTo(2);
+    }
+
+    @Test
+    void addingDecodedHistogramsMatchesRecordingInOne() {
+        LatencyHistogram first = histogramOf(1_000, 2_000, 3_000);
+        LatencyHistogram second = histogramOf(4_000_000, 5_000_000);
+
+        LatencyHistogram merged = new LatencyHistogram();
+        merged.add(LatencyHistogram.decode(first.encode()));
+        merged.add(LatencyHistogram.decode(second.encode()));
+
+        assertThat(merged.snapshot()).isEqualTo(histogramOf(1_000, 2_000, 3_000, 4_000_000, 5_000_000).snapshot());
+    }
+
+    @Test
+    void percentilesStayWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 10_000; value++) {
+            histogram.recordValue(value * 1_000);
+        }
+
+        assertThat((double) histogram.getValueAtPercentile(50)).isCloseTo(5_000_000, within(5_000_000 * 0.004));
+        assertThat((double) histogram.getValueAtPercentile(99)).isCloseTo(9_900_000, within(9_900_000 * 0.004));
+        assertThat(histogram.getValueAtPercentile(100)).isEqualTo(10_000_000);
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        for (String malformed : new String[] { "", "garbage", "1000;0;0", "x;0;0;", "1000;0;0;5",
+                "1000;0;0;1:x", "1000;0;0;99999:1", "0;0;0;" }) {
+            assertThatThrownBy(() -> LatencyHistogram.decode(malformed))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private static LatencyHistogram histogramOf(long... values) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value : values) {
+            histogram.recordValue(value);
+        }
+        return histogram;
+    }
+}
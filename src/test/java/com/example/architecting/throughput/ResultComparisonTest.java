@@ -0,0 +1,169 @@
+package com.example.architecting.throughput;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ResultComparisonTest {
+
+    private static final ResultComparison.Metric THROUGHPUT = new ResultComparison.Metric("tasks/sec", "throughput",
+            true);
+    private static final ResultComparison.Metric P99 = new ResultComparison.Metric("p99 ms", "p99_ns", false);
+    private static final ResultComparison.Metric GC = new ResultComparison.Metric("GC ms", "gc_ms", false);
+
+    private final ResultComparison comparison = new ResultComparison(5);
+
+    @Test
+    void tCriticalUsesTableUpToThirtyDegreesOfFreedom() {
+        assertThat(ResultComparison.tCritical(1)).isEqualTo(12.706);
+        assertThat(ResultComparison.tCritical(10)).isEqualTo(2.228);
+        assertThat(ResultComparison.tCritical(30)).isEqualTo(2.042);
+    }
+
+    @Test
+    void tCriticalRoundsFractionalDegreesOfFreedomDown() {
+        assertThat(ResultComparison.tCritical(4.9)).isEqualTo(ResultComparison.tCritical(4));
+        assertThat(ResultComparison.tCritical(0.5)).isEqualTo(ResultComparison.tCritical(1));
+    }
+
+    @Test
+    void tCriticalApproximationStaysCloseToExactValues() {
+        // Two-sided 95% values of Student's t.
+        assertThat(ResultComparison.tCritical(40)).isCloseTo(2.021, within(0.002));
+        assertThat(ResultComparison.tCritical(60)).isCloseTo(2.000, within(0.002));
+        assertThat(ResultComparison.tCritical(120)).isCloseTo(1.980, within(0.002));
+        assertThat(ResultComparison.tCritical(1_000_000)).isCloseTo(1.960, within(0.002));
+    }
+
+    @Test
+    void welchStatisticMatchesHandCalculation() {
+        // Means 3 and 8, both sample variances 2.5, so the standard error is sqrt(0.5 + 0.5) = 1.
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", P99,
+                new double[] { 1, 2, 3, 4, 5 }, new double[] { 6, 7, 8, 9, 10 });
+
+        assertThat(result.t()).isCloseTo(5.0, within(1e-9));
+        assertThat(result.baselineMean()).isEqualTo(3.0);
+        assertThat(result.candidateMean()).isEqualTo(8.0);
+        assertThat(result.changePercent()).isCloseTo(166.667, within(0.001));
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.REGRESSION);
+    }
+
+    @Test
+    void significantDropInThroughputIsRegression() {
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", THROUGHPUT,
+                new double[] { 1_000, 1_010, 990, 1_005 }, new double[] { 800, 810, 790, 805 });
+
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.REGRESSION);
+    }
+
+    @Test
+    void significantDropInLatencyIsImprovement() {
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", P99,
+                new double[] { 20, 21, 19, 20 }, new double[] { 10, 11, 9, 10 });
+
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.IMPROVEMENT);
+    }
+
+    @Test
+    void overlappingNoiseIsUnchanged() {
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", THROUGHPUT,
+                new double[] { 1_000, 1_300, 700, 1_100 }, new double[] { 850, 1_250, 700, 900 });
+
+        assertThat(result.changePercent()).isLessThan(-5);
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.UNCHANGED);
+    }
+
+    @Test
+    void significantChangeBelowMinimumEffectIsUnchanged() {
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", THROUGHPUT,
+                new double[] { 1_000, 1_000.1, 999.9 }, new double[] { 980, 980.1, 979.9 });
+
+        assertThat(Math.abs(result.t())).isGreaterThan(ResultComparison.tCritical(4));
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.UNCHANGED);
+    }
+
+    @Test
+    void singleSamplesAreReportedAsUntested() {
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", THROUGHPUT,
+                new double[] { 1_000 }, new double[] { 500 });
+
+        assertThat(result.t()).isNaN();
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.UNTESTED_REGRESSION);
+    }
+
+    @Test
+    void significantMoveAwayFromZeroBaselineIsRegression() {
+        // Short runs often record no GC at all; a candidate that starts collecting must still be flagged.
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", GC,
+                new double[] { 0, 0, 0 }, new double[] { 300, 310, 290 });
+
+        assertThat(result.changePercent()).isEqualTo(Double.POSITIVE_INFINITY);
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.REGRESSION);
+    }
+
+    @Test
+    void noisyMoveAwayFromZeroBaselineIsLeftToWelch() {
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", GC,
+                new double[] { 0, 0, 0 }, new double[] { 0, 0, 1 });
+
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.UNCHANGED);
+    }
+
+    @Test
+    void zeroOnBothSidesIsUnchanged() {
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", GC,
+                new double[] { 0, 0 }, new double[] { 0, 0 });
+
+        assertThat(result.changePercent()).isZero();
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.UNCHANGED);
+    }
+
+    @Test
+    void singleSampleMoveAwayFromZeroBaselineIsUntested() {
+        ResultComparison.Comparison result = comparison.compare("Suite", "Model", GC,
+                new double[] { 0 }, new double[] { 200 });
+
+        assertThat(result.verdict()).isEqualTo(ResultComparison.Verdict.UNTESTED_REGRESSION);
+    }
+
+    @Test
+    void metricsMissingOrBlankOnEitherSideAreSkipped() {
+        // An older file without the gc_ms column, and a blank p99 on the candidate side.
+        List<ResultComparison.Row> baseline = List.of(
+                row(Map.of("suite", "Suite", "model", "Model", "throughput", "1000", "p99_ns", "2000000")));
+        List<ResultComparison.Row> candidate = List.of(row(Map.of("suite", "Suite", "model", "Model",
+                "throughput", "1100", "p99_ns", "", "gc_ms", "3")));
+
+        List<ResultComparison.Comparison> comparisons = comparison.compare(baseline, candidate);
+
+        assertThat(comparisons).extracting(ResultComparison.Comparison::metric).containsExactly("tasks/sec");
+        assertThat(comparisons.getFirst().verdict()).isEqualTo(ResultComparison.Verdict.UNTESTED_IMPROVEMENT);
+    }
+
+    @Test
+    void modelsPresentOnOneSideOnlyAreSkipped() {
+        List<ResultComparison.Row> baseline = List.of(
+                row(Map.of("suite", "Suite", "model", "Old", "throughput", "1000")));
+        List<ResultComparison.Row> candidate = List.of(
+                row(Map.of("suite", "Suite", "model", "New", "throughput", "1000")));
+
+        assertThat(comparison.compare(baseline, candidate)).isEmpty();
+    }
+
+    @Test
+    void nonNumericValuesAreEmpty() {
+        ResultComparison.Row row = row(Map.of("throughput", "n/a", "tasks", " 12 "));
+
+        assertThat(row.number("throughput")).isEmpty();
+        assertThat(row.number("missing")).isEmpty();
+        assertThat(row.number("tasks")).hasValue(12.0);
+    }
+
+    private static ResultComparison.Row row(Map<String, String> fields) {
+        return new ResultComparison.Row(fields);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.architecting.throughput;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultExporterTest {
+
+    @TempDir
+    Path resultsDir;
+
+    @AfterEach
+    void clearResultsDir() {
+        System.clearProperty(ResultExporter.RESULTS_DIR_PROPERTY);
+    }
+
+    @Test
+    void csvRoundTripsThroughResultComparison() throws IOException {
+        System.setProperty(ResultExporter.RESULTS_DIR_PROPERTY, resultsDir.toString());
+        LatencyStats endToEnd = new LatencyStats(1_000, 1_500_000, 1_000_000, 2_000_000, 3_000_000, 4_000_000,
+                5_000_000);
+        LatencyStats queueWait = new LatencyStats(1_000, 100_000, 50_000, 80_000, 250_000, 300_000, 400_000);
+        ResultExporter exporter = new ResultExporter("Suite")
+                .config("tasks", 1_000)
+                .config("ioMillis", 10)
+                .add(new TaskSimulator.SimulationResult("Model \"A\", pooled", 1_000, 250, 4_000.5,
+                        new TaskLatencyRecorder.LatencyReport(queueWait, LatencyStats.EMPTY, endToEnd)))
+                .add(new TaskSimulator.SimulationResult("Model B", 1_000, 500, 2_000));
+
+        Path csv = exporter.write().orElseThrow();
+        List<ResultComparison.Row> rows = ResultComparison.read(csv);
+
+        assertThat(csv.resolveSibling(csv.getFileName().toString().replace(".csv", ".json"))).exists();
+        assertThat(rows).hasSize(2);
+        ResultComparison.Row first = rows.getFirst();
+        assertThat(first.fields().keySet()).containsExactlyElementsOf(ResultExporter.CSV_COLUMNS);
+        assertThat(first.get("suite")).isEqualTo("Suite");
+        assertThat(first.get("model")).isEqualTo("Model \"A\", pooled");
+        assertThat(first.get("config")).isEqualTo("tasks=1000;ioMillis=10");
+        assertThat(first.number("tasks")).hasValue(1_000);
+        assertThat(first.number("time_ms")).hasValue(250);
+        assertThat(first.number("throughput")).hasValue(4_000.5);
+        assertThat(first.number("p50_ns")).hasValue(1_000_000);
+        assertThat(first.number("p99_ns")).hasValue(3_000_000);
+        assertThat(first.number("p999_ns")).hasValue(4_000_000);
+        assertThat(first.number("queue_wait_p99_ns")).hasValue(250_000);
+        assertThat(rows.get(1).get("model")).isEqualTo("Model B");
+        // Nothing recorded is an empty cell, not a latency of 0.
+        assertThat(rows.get(1).get("p99_ns")).isEqualTo("");
+        assertThat(rows.get(1).get("queue_wait_p99_ns")).isEqualTo("");
+    }
+
+    @Test
+    void repeatedWritesNeverOverwrite() {
+        System.setProperty(ResultExporter.RESULTS_DIR_PROPERTY, resultsDir.toString());
+        ResultExporter exporter = new ResultExporter("Suite")
+                .add(new TaskSimulator.SimulationResult("Model", 10, 1, 10_000));
+
+        Path first = exporter.write().orElseThrow();
+        Path second = exporter.write().orElseThrow();
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(second.getFileName().toString()).isEqualTo(
+                first.getFileName().toString().replace(".csv", "-2.csv"));
+    }
+
+    @Test
+    void blankResultsDirDisablesExport() {
+        System.setProperty(ResultExporter.RESULTS_DIR_PROPERTY, "");
+
+        Optional<Path> written = new ResultExporter("Suite")
+                .add(new TaskSimulator.SimulationResult("Model", 10, 1, 10_000))
+                .write();
+
+        assertThat(written).isEmpty();
+    }
+
+    @Test
+    void parseCsvLineHonoursQuotedFields() {
+        assertThat(ResultExporter.parseCsvLine("a,\"b,c\",\"d\"\"e\",,f"))
+                .containsExactly("a", "b,c", "d\"e", "", "f");
+        assertThat(ResultExporter.parseCsvLine("")).containsExactly("");
+    }
+}
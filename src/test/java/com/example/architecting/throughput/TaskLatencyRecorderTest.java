@@ -0,0 +1,69 @@
+package com.example.architecting.throughput;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class TaskLatencyRecorderTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        TaskLatencyRecorder recorder = new TaskLatencyRecorder();
+        recorder.record(0, 1_000, 11_000);
+        recorder.record(0, 50_000, 2_050_000);
+        recorder.record(100, 100, 300_100);
+
+        TaskLatencyRecorder decoded = TaskLatencyRecorder.decode(recorder.encode());
+
+        assertThat(decoded.encode()).isEqualTo(recorder.encode());
+        assertThat(decoded.report()).isEqualTo(recorder.report());
+        assertThat(decoded.report().endToEnd().count()).isEqualTo(3);
+    }
+
+    @Test
+    void decodeIgnoresSurroundingWhitespace() {
+        TaskLatencyRecorder recorder = new TaskLatencyRecorder();
+        recorder.record(0, 1_000, 2_000);
+
+        // As read from a worker's output line.
+        TaskLatencyRecorder decoded = TaskLatencyRecorder.decode(" " + recorder.encode() + "\n");
+
+        assertThat(decoded.report()).isEqualTo(recorder.report());
+    }
+
+    @Test
+    void decodedRecordersMergeLikeOne() {
+        TaskLatencyRecorder first = new TaskLatencyRecorder();
+        first.record(0, 1_000, 5_000);
+        TaskLatencyRecorder second = new TaskLatencyRecorder();
+        second.record(0, 2_000_000, 9_000_000);
+        TaskLatencyRecorder both = new TaskLatencyRecorder();
+        both.record(0, 1_000, 5_000);
+        both.record(0, 2_000_000, 9_000_000);
+
+        TaskLatencyRecorder merged = new TaskLatencyRecorder();
+        merged.add(TaskLatencyRecorder.decode(first.encode()));
+        merged.add(TaskLatencyRecorder.decode(second.encode()));
+
+        assertThat(merged.report()).isEqualTo(both.report());
+    }
+
+    @Test
+    void emptyRecorderRoundTrips() {
+        TaskLatencyRecorder decoded = TaskLatencyRecorder.decode(new TaskLatencyRecorder().encode());
+
+        assertThat(decoded.report()).isEqualTo(TaskLatencyRecorder.LatencyReport.EMPTY);
+    }
+
+    @Test
+    void malformedInputIsRejected() {
+        String histogram = new LatencyHistogram().encode();
+        for (String malformed : new String[] { "", histogram, histogram + " " + histogram,
+                histogram + " " + histogram + " " + histogram + " " + histogram,
+                histogram + " garbage " + histogram }) {
+            assertThatThrownBy(() -> TaskLatencyRecorder.decode(malformed))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}